@@ -0,0 +1,56 @@
+package org.example.bench;
+
+import org.example.world.LevelTemplate;
+import org.example.world.MazeGenerator;
+
+/**
+ * Benchmark support: BenchmarkMaps
+ * Maps used by the benchmarks, selected by name through a JMH @Param.
+ */
+final class BenchmarkMaps {
+
+    private BenchmarkMaps() {
+    }
+
+    /**
+     * "classic" is the stock 21x19 maze, "tiledN" is the stock maze repeated N x N times,
+     * "mazeN" is a generated N x N maze with four ghosts
+     */
+    static LevelTemplate forName(String name) {
+        if ("classic".equals(name)) {
+            return LevelTemplate.CLASSIC;
+        }
+        if (name.startsWith("tiled")) {
+            return tiled(Integer.parseInt(name.substring("tiled".length())));
+        }
+        if (name.startsWith("maze")) {
+            int size = Integer.parseInt(name.substring("maze".length()));
+            return MazeGenerator.generate(size, size, 4, 1L);
+        }
+        throw new IllegalArgumentException("Unknown benchmark map: " + name);
+    }
+
+    /**
+     * Repeat the stock maze copies x copies times. Only the first copy keeps its creatures.
+     */
+    static LevelTemplate tiled(int copies) {
+        LevelTemplate stock = LevelTemplate.CLASSIC;
+        int stockRows = stock.getRowCount();
+        String[] tileMap = new String[stockRows * copies];
+
+        for (int tileRow = 0; tileRow < copies; tileRow++) {
+            for (int r = 0; r < stockRows; r++) {
+                StringBuilder row = new StringBuilder(stock.getColumnCount() * copies);
+                for (int tileCol = 0; tileCol < copies; tileCol++) {
+                    String part = stock.getRow(r);
+                    if (tileRow != 0 || tileCol != 0) {
+                        part = part.replaceAll("[Pbopr]", " ");
+                    }
+                    row.append(part);
+                }
+                tileMap[tileRow * stockRows + r] = row.toString();
+            }
+        }
+        return new LevelTemplate(tileMap);
+    }
+}
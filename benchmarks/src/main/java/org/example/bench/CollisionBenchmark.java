@@ -0,0 +1,70 @@
+package org.example.bench;
+
+import org.example.collision.CollisionService;
+import org.example.entity.Creature;
+import org.example.entity.CreatureType;
+import org.example.world.Level;
+import org.example.world.LevelTemplate;
+import org.example.world.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: the CollisionService overloads and the grid wall query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private static final int TILE_SIZE = 32;
+
+    private CollisionService collisionService;
+    private Level level;
+    private Creature pacman;
+    private Creature ghost;
+    private Tile wall;
+    private int x;
+
+    @Setup
+    public void setUp() {
+        collisionService = new CollisionService();
+        level = LevelTemplate.CLASSIC.createLevel(TILE_SIZE);
+        pacman = new Creature(CreatureType.PACMAN, 9 * TILE_SIZE, 15 * TILE_SIZE, TILE_SIZE);
+        ghost = new Creature(CreatureType.RED_GHOST, 9 * TILE_SIZE + 8, 15 * TILE_SIZE, TILE_SIZE);
+        wall = level.getTile(16, 9);
+        x = 9 * TILE_SIZE;
+    }
+
+    @Benchmark
+    public boolean rectangles() {
+        return collisionService.checkCollision(x, 480, TILE_SIZE, TILE_SIZE, 300, 488, TILE_SIZE, TILE_SIZE);
+    }
+
+    @Benchmark
+    public boolean creatureAndTile() {
+        return collisionService.checkCollision(pacman, wall, TILE_SIZE, TILE_SIZE);
+    }
+
+    @Benchmark
+    public boolean creatureAndCreature() {
+        return collisionService.checkCollision(pacman, ghost, TILE_SIZE, TILE_SIZE);
+    }
+
+    @Benchmark
+    public boolean creatureAndWalls() {
+        return collisionService.collidesWithWall(level, pacman, TILE_SIZE, TILE_SIZE);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.bench;
+
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.GameState;
+import org.example.metrics.EngineMetrics;
+import org.example.util.Direction;
+import org.example.world.LevelTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: GameEngine.update() throughput.
+ * One operation is one tick; run with -prof gc to see allocations per tick.
+ * With metrics=true the engine collects EngineMetrics at the default sample period.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineTickBenchmark {
+
+    @Param({"classic", "tiled8", "tiled24", "maze512"})
+    public String map;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private GameEngine gameEngine;
+
+    @Setup
+    public void setUp() {
+        LevelTemplate levelTemplate = BenchmarkMaps.forName(map);
+        gameEngine = GameFactory.create(levelTemplate, 32, new Random(42));
+        if (metrics) {
+            gameEngine.setMetrics(new EngineMetrics());
+        }
+
+        // Keep the game running for the whole measurement
+        GameState gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+        gameState.getPacman().updateDirection(Direction.LEFT);
+    }
+
+    @Benchmark
+    public GameEngine tick() {
+        gameEngine.update();
+        return gameEngine;
+    }
+}
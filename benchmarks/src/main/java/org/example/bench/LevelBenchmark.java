@@ -0,0 +1,63 @@
+package org.example.bench;
+
+import org.example.world.CompiledLevel;
+import org.example.world.Level;
+import org.example.world.LevelTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: level loading. compile parses a tile map into a CompiledLevel with the cache
+ * bypassed; compileAndBuildTiles also builds the maze's tiles and a Level on top of it,
+ * which is the whole cost of a first load. createLevel is what every later level of a
+ * cached maze costs: a copy of the food bits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark {
+
+    @Param({"classic", "tiled8"})
+    public String map;
+
+    private LevelTemplate levelTemplate;
+    private String[] tileMap;
+
+    @Setup
+    public void setUp() {
+        levelTemplate = BenchmarkMaps.forName(map);
+        tileMap = new String[levelTemplate.getRowCount()];
+        for (int r = 0; r < tileMap.length; r++) {
+            tileMap[r] = levelTemplate.getRow(r);
+        }
+    }
+
+    @Benchmark
+    public CompiledLevel compile() {
+        return CompiledLevel.compileUncached(tileMap);
+    }
+
+    @Benchmark
+    public Level compileAndBuildTiles() {
+        return new LevelTemplate(CompiledLevel.compileUncached(tileMap)).createLevel(32);
+    }
+
+    @Benchmark
+    public Level createLevel() {
+        return levelTemplate.createLevel(32);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.bench;
+
+import org.example.world.LevelTemplate;
+import org.example.world.MazeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: MazeGenerator.generate(), from seed to compiled level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MazeGeneratorBenchmark {
+
+    @Param({"512", "4096"})
+    public int size;
+
+    private long seed;
+
+    @Benchmark
+    public LevelTemplate generate() {
+        return MazeGenerator.generate(size, size, 64, seed++);
+    }
+}
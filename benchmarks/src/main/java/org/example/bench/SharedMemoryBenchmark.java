@@ -0,0 +1,85 @@
+package org.example.bench;
+
+import org.example.rl.PacmanEnv;
+import org.example.rl.SharedMemoryAgent;
+import org.example.rl.SharedMemoryChannel;
+import org.example.rl.VectorEnv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: a batch step made through the shared-memory channel versus the same step in process.
+ * The difference is the cost of the handoff between the agent and the server thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedMemoryBenchmark {
+    private static final long MAX_TICKS = 2000;
+
+    private SharedMemoryChannel channel;
+    private Thread server;
+    private SharedMemoryAgent agent;
+    private VectorEnv inProcess;
+    private int[] actions;
+    private int step;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        channel = new SharedMemoryChannel(SharedMemoryChannel.defaultPath("pacman-bench-" + ProcessHandle.current().pid()),
+            BenchmarkMaps.forName("classic"), 32, MAX_TICKS, true, 1, 1);
+        server = new Thread(channel, "pacman-shm-server");
+        server.setDaemon(true);
+        server.start();
+        agent = new SharedMemoryAgent(channel.getFile());
+        agent.reset(1L);
+
+        inProcess = new VectorEnv(BenchmarkMaps.forName("classic"), 32, MAX_TICKS, true, 1, 1);
+        inProcess.reset(1L);
+        actions = new int[1];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        agent.closeServer();
+        server.join();
+        channel.close();
+        inProcess.close();
+    }
+
+    private int[] nextActions() {
+        if ((++step & 15) == 0) {
+            actions[0] = (step >>> 4) % PacmanEnv.ACTION_COUNT;
+        }
+        return actions;
+    }
+
+    @Benchmark
+    public float stepInProcess() {
+        inProcess.step(nextActions());
+        return inProcess.getReward(0);
+    }
+
+    @Benchmark
+    public float stepThroughChannel() {
+        agent.step(nextActions());
+        return agent.getReward(0);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.bench;
+
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.GameState;
+import org.example.game.StateSnapshot;
+import org.example.util.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: forking a game the way a search bot does.
+ * snapshotAndRestore is one capture into a reused snapshot plus one rollback;
+ * fork also plays a few ticks in between.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({"classic", "tiled8"})
+    public String map;
+
+    private GameEngine gameEngine;
+    private GameState gameState;
+    private StateSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        gameEngine = GameFactory.create(BenchmarkMaps.forName(map), 32, 42L);
+        gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+        gameState.getPacman().updateDirection(Direction.LEFT);
+        for (int i = 0; i < 200; i++) {
+            gameEngine.update();
+        }
+        snapshot = gameState.snapshot();
+    }
+
+    @Benchmark
+    public StateSnapshot snapshotAndRestore() {
+        gameState.snapshotInto(snapshot);
+        gameState.restore(snapshot);
+        return snapshot;
+    }
+
+    @Benchmark
+    public GameState fork() {
+        for (int i = 0; i < 8; i++) {
+            gameEngine.update();
+        }
+        gameState.restore(snapshot);
+        return gameState;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.bench;
+
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.GameState;
+import org.example.net.StateEncoder;
+import org.example.util.Direction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: cost and size of the delta-compressed state stream.
+ * tickAndEncode minus tick is the encode cost per tick; the mean message size
+ * per tick is printed at the end of each trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateStreamBenchmark {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Param({"classic", "tiled8"})
+    public String map;
+
+    @Param({"20", "200"})
+    public int keyframeInterval;
+
+    private GameEngine gameEngine;
+    private GameState gameState;
+    private StateEncoder encoder;
+    private ByteBuffer buffer;
+    private Random input;
+    private long tick;
+    private long bytes;
+    private long messages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameEngine = GameFactory.create(BenchmarkMaps.forName(map), 32, 42L);
+        gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+        encoder = new StateEncoder(keyframeInterval);
+        buffer = ByteBuffer.allocateDirect(StateEncoder.maxMessageBytes(gameState.getLevel(),
+            1 + gameState.getGhostStore().size()));
+        input = new Random(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (messages == 0) {
+            return;
+        }
+        System.out.printf("%n%s keyframes every %d ticks: %.1f bytes per tick%n",
+            map, keyframeInterval, (double) bytes / messages);
+    }
+
+    private void steer() {
+        if ((tick & 7) == 0) {
+            gameState.getPacman().updateDirection(DIRECTIONS[input.nextInt(4)]);
+        }
+    }
+
+    @Benchmark
+    public GameEngine tick() {
+        steer();
+        gameEngine.update();
+        tick++;
+        return gameEngine;
+    }
+
+    @Benchmark
+    public ByteBuffer tickAndEncode() {
+        steer();
+        gameEngine.update();
+        buffer.clear();
+        encoder.encode(gameState, ++tick, buffer);
+        bytes += buffer.position();
+        messages++;
+        return buffer;
+    }
+}
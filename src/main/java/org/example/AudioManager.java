@@ -1,5 +1,8 @@
 package org.example;
 
+import org.example.metrics.AssetLoadEvent;
+import org.example.metrics.FlightEvents;
+
 import javax.sound.sampled.*;
 import java.io.IOException;
 import java.net.URL;
@@ -17,6 +20,15 @@ public class AudioManager {
      * Makes it easy to add new sounds later without code duplication.
      */
     private Clip loadSoundClip(String resourcePath, String soundName) {
+        AssetLoadEvent event = FlightEvents.beginAssetLoad();
+        Clip clip = openSoundClip(resourcePath, soundName);
+        if (event != null) {
+            event.finish(resourcePath, AssetLoadEvent.SOUND, clip != null);
+        }
+        return clip;
+    }
+
+    private Clip openSoundClip(String resourcePath, String soundName) {
         try {
             URL soundURL = getClass().getClassLoader().getResource(resourcePath);
             
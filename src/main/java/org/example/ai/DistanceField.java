@@ -0,0 +1,125 @@
+package org.example.ai;
+
+import org.example.util.Direction;
+
+import java.util.Arrays;
+
+/**
+ * AI layer: DistanceField
+ * Breadth-first walking distance from cells of a NavigationGrid to one target cell.
+ * The search only runs as far as the cells asked about so far, and retargeting clears only
+ * the cells it reached, so following a moving target costs about as much as the ghosts'
+ * distance to it rather than a search of the whole maze.
+ * Fields built with a fixed target are searched in full up front and only read afterwards,
+ * so they can be shared between threads.
+ * AI layer - no Swing dependencies.
+ */
+public class DistanceField {
+    /**
+     * Distance of cells the target cannot be reached from
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int INITIAL_QUEUE_SIZE = 64;
+
+    private final NavigationGrid grid;
+    private final int[] distances;
+    // Every cell reached so far, in search order; cells from head on still have to be expanded
+    private int[] queue;
+    private int head;
+    private int tail;
+    private int target = NavigationGrid.NONE;
+    private long lastUsed;
+
+    /**
+     * Field with no target yet, to be pointed at one with retarget()
+     */
+    public DistanceField(NavigationGrid grid) {
+        this.grid = grid;
+        this.distances = new int[grid.getCellCount()];
+        this.queue = new int[Math.min(INITIAL_QUEUE_SIZE, distances.length)];
+        Arrays.fill(distances, UNREACHABLE);
+    }
+
+    /**
+     * Field toward a target that never changes, searched in full right away
+     *
+     * @param scratch queue space for the search, at least one slot per grid cell; not kept
+     */
+    DistanceField(NavigationGrid grid, int target, int[] scratch) {
+        this.grid = grid;
+        this.distances = new int[grid.getCellCount()];
+        Arrays.fill(distances, UNREACHABLE);
+        this.queue = scratch;
+        start(target);
+        while (head < tail) {
+            expand();
+        }
+        this.queue = null;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * Walking distance from a cell to the target, searching further if the cell was not reached yet
+     */
+    public int distanceFrom(int cell) {
+        while (distances[cell] == UNREACHABLE && head < tail) {
+            expand();
+        }
+        return distances[cell];
+    }
+
+    /**
+     * Point the field at a new target. Does nothing if the target has not changed.
+     */
+    public void retarget(int newTarget) {
+        if (queue == null) {
+            throw new IllegalStateException("Field toward " + target + " has a fixed target");
+        }
+        if (newTarget == target) {
+            return;
+        }
+        for (int i = 0; i < tail; i++) {
+            distances[queue[i]] = UNREACHABLE;
+        }
+        start(newTarget);
+    }
+
+    private void start(int newTarget) {
+        target = newTarget;
+        head = 0;
+        tail = 0;
+        if (newTarget != NavigationGrid.NONE) {
+            distances[newTarget] = 0;
+            queue[tail++] = newTarget;
+        }
+    }
+
+    private void expand() {
+        int cell = queue[head++];
+        int nextDistance = distances[cell] + 1;
+        for (Direction direction : DIRECTIONS) {
+            int next = grid.walkableNeighbor(cell, direction);
+            if (next != NavigationGrid.NONE && distances[next] == UNREACHABLE) {
+                distances[next] = nextDistance;
+                if (tail == queue.length) {
+                    // Grows at most to one slot per cell, then never again
+                    queue = Arrays.copyOf(queue, Math.min(2 * tail, distances.length));
+                }
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    void setLastUsed(long lastUsed) {
+        this.lastUsed = lastUsed;
+    }
+}
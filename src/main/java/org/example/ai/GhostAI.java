@@ -0,0 +1,256 @@
+package org.example.ai;
+
+import org.example.entity.Creature;
+import org.example.entity.CreatureStore;
+import org.example.entity.CreatureType;
+import org.example.game.GameState;
+import org.example.util.Direction;
+import org.example.world.Level;
+
+/**
+ * AI layer: GhostAI
+ * Steers ghosts toward their personality's target tile using BFS distance fields.
+ * The navigation grid, with the fields toward the scatter corners, is shared by every AI
+ * playing the same compiled maze. An AI only owns a few fields toward its chase targets,
+ * which move with Pacman; they are retargeted when their target cell changes and only
+ * searched as far as the ghosts' next steps need, so most ghost decisions are a handful
+ * of array lookups.
+ * Alternates scatter and chase phases on a tick schedule, then chases for good.
+ * AI layer - no Swing dependencies.
+ */
+public class GhostAI {
+    private static final int SCATTER_TICKS = 140;   // 7s at 20 ticks per second
+    private static final int CHASE_TICKS = 400;     // 20s at 20 ticks per second
+    private static final int SCATTER_PHASES = 4;
+    // Pacman's cell, Pinky's and Inky's targets; Clyde's corner is a scatter field
+    private static final int CHASE_FIELDS = 3;
+    private static final GhostPersonality[] PERSONALITIES = GhostPersonality.values();
+
+    // Tie-break order of the arcade game
+    private static final Direction[] PREFERENCE = {Direction.UP, Direction.LEFT, Direction.DOWN, Direction.RIGHT};
+
+    private Level level;
+    private NavigationGrid grid;
+    private DistanceField[] chaseFields;
+    private long fieldUses;
+    private long phaseTicks;
+
+    // Per-tick targeting context
+    private int pacmanRow;
+    private int pacmanCol;
+    private int pacmanCell;
+    private int pacmanDeltaRow;
+    private int pacmanDeltaCol;
+    private int blinkyRow;
+    private int blinkyCol;
+
+    /**
+     * Pick new directions for every ghost that stands exactly on a cell.
+     * Call once per tick before the ghosts move.
+     */
+    public void steer(GameState gameState) {
+        Level level = gameState.getLevel();
+        if (level != this.level) {
+            prepare(level);
+        }
+        int tileSize = level.getTileSize();
+        int columnCount = grid.getColumnCount();
+        boolean scatter = isScatterPhase();
+        phaseTicks++;
+
+        Creature pacman = gameState.getPacman();
+        pacmanRow = Math.floorDiv(pacman.getY() + tileSize / 2, tileSize);
+        pacmanCol = Math.floorDiv(pacman.getX() + tileSize / 2, tileSize);
+        pacmanCell = grid.toWalkableCell(pacmanRow, pacmanCol);
+        pacmanDeltaRow = deltaRow(pacman.getDirection());
+        pacmanDeltaCol = deltaCol(pacman.getDirection());
+
+        CreatureStore ghosts = gameState.getGhostStore();
+        locateBlinky(ghosts, tileSize);
+
+        for (int i = 0; i < ghosts.size(); i++) {
+            int x = ghosts.getX(i);
+            int y = ghosts.getY(i);
+            if (x % tileSize != 0 || y % tileSize != 0) {
+                continue; // only decide when standing on a cell
+            }
+            int row = y / tileSize;
+            int col = x / tileSize;
+            if (row < 0 || row >= grid.getRowCount() || col < 0 || col >= columnCount) {
+                continue;
+            }
+            int cell = row * columnCount + col;
+            GhostPersonality personality = GhostPersonality.forType(ghosts.getType(i));
+            if (personality == null || !grid.isWalkable(cell)) {
+                continue;
+            }
+
+            DistanceField field = scatter ? grid.getScatterField(personality)
+                : fieldFor(personality.chaseTarget(this, cell));
+            Direction next = chooseDirection(cell, ghosts.getDirection(i), field);
+            if (next != null && next != ghosts.getDirection(i)) {
+                ghosts.updateDirection(i, next);
+            }
+        }
+    }
+
+    /**
+     * Start the scatter/chase schedule over, e.g. after a death or a level restart
+     */
+    public void reset() {
+        phaseTicks = 0;
+    }
+
+    /**
+     * Ticks into the scatter/chase schedule, for snapshots
+     */
+    public long getPhaseTicks() {
+        return phaseTicks;
+    }
+
+    /**
+     * Continue the scatter/chase schedule from a point saved with getPhaseTicks()
+     */
+    public void setPhaseTicks(long phaseTicks) {
+        if (phaseTicks < 0) {
+            throw new IllegalArgumentException("Phase ticks must not be negative: " + phaseTicks);
+        }
+        this.phaseTicks = phaseTicks;
+    }
+
+    public boolean isScatterPhase() {
+        if (phaseTicks >= SCATTER_PHASES * (long) (SCATTER_TICKS + CHASE_TICKS)) {
+            return false;
+        }
+        return phaseTicks % (SCATTER_TICKS + CHASE_TICKS) < SCATTER_TICKS;
+    }
+
+    /**
+     * Neighbour closest to the target, never turning back unless it is a dead end
+     */
+    private Direction chooseDirection(int cell, Direction current, DistanceField field) {
+        Direction reverse = current.opposite();
+        Direction best = null;
+        int bestDistance = DistanceField.UNREACHABLE;
+        for (Direction direction : PREFERENCE) {
+            if (direction == reverse) {
+                continue;
+            }
+            int neighbor = grid.walkableNeighbor(cell, direction);
+            if (neighbor == NavigationGrid.NONE) {
+                continue;
+            }
+            int distance = field.distanceFrom(neighbor);
+            if (best == null || distance < bestDistance) {
+                best = direction;
+                bestDistance = distance;
+            }
+        }
+        if (best == null && grid.walkableNeighbor(cell, reverse) != NavigationGrid.NONE) {
+            best = reverse;
+        }
+        return best;
+    }
+
+    private void locateBlinky(CreatureStore ghosts, int tileSize) {
+        blinkyRow = pacmanRow;
+        blinkyCol = pacmanCol;
+        for (int i = 0; i < ghosts.size(); i++) {
+            if (ghosts.getType(i) == CreatureType.RED_GHOST) {
+                blinkyRow = Math.floorDiv(ghosts.getY(i) + tileSize / 2, tileSize);
+                blinkyCol = Math.floorDiv(ghosts.getX(i) + tileSize / 2, tileSize);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Distance field toward a target: a scatter corner's shared field, or one of this AI's
+     * chase fields, retargeting the least recently used one on a miss
+     */
+    private DistanceField fieldFor(int target) {
+        for (GhostPersonality personality : PERSONALITIES) {
+            DistanceField corner = grid.getScatterField(personality);
+            if (corner.getTarget() == target) {
+                return corner;
+            }
+        }
+        DistanceField victim = chaseFields[0];
+        for (DistanceField field : chaseFields) {
+            if (field.getTarget() == target) {
+                field.setLastUsed(++fieldUses);
+                return field;
+            }
+            if (field.getLastUsed() < victim.getLastUsed()) {
+                victim = field;
+            }
+        }
+        victim.retarget(target);
+        victim.setLastUsed(++fieldUses);
+        return victim;
+    }
+
+    private void prepare(Level level) {
+        // A new level starts the schedule over; a fresh AI keeps its start, which may be restored
+        if (this.level != null) {
+            phaseTicks = 0;
+        }
+        this.level = level;
+        NavigationGrid levelGrid = NavigationGrid.forLevel(level.getCompiled());
+        if (levelGrid != grid) {
+            grid = levelGrid;
+            chaseFields = new DistanceField[CHASE_FIELDS];
+            for (int i = 0; i < chaseFields.length; i++) {
+                chaseFields[i] = new DistanceField(grid);
+            }
+            fieldUses = 0;
+        }
+    }
+
+    private static int deltaRow(Direction direction) {
+        return direction == Direction.UP ? -1 : direction == Direction.DOWN ? 1 : 0;
+    }
+
+    private static int deltaCol(Direction direction) {
+        return direction == Direction.LEFT ? -1 : direction == Direction.RIGHT ? 1 : 0;
+    }
+
+    NavigationGrid getGrid() {
+        return grid;
+    }
+
+    int getPacmanRow() {
+        return pacmanRow;
+    }
+
+    int getPacmanCol() {
+        return pacmanCol;
+    }
+
+    int getPacmanCell() {
+        return pacmanCell;
+    }
+
+    int getPacmanDeltaRow() {
+        return pacmanDeltaRow;
+    }
+
+    int getPacmanDeltaCol() {
+        return pacmanDeltaCol;
+    }
+
+    int getBlinkyRow() {
+        return blinkyRow;
+    }
+
+    int getBlinkyCol() {
+        return blinkyCol;
+    }
+
+    /**
+     * Walking distance from a cell to Pacman's cell
+     */
+    int distanceToPacman(int cell) {
+        return fieldFor(pacmanCell).distanceFrom(cell);
+    }
+}
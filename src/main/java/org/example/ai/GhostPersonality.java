@@ -0,0 +1,111 @@
+package org.example.ai;
+
+import org.example.entity.CreatureType;
+
+/**
+ * AI layer: GhostPersonality
+ * How each ghost picks its target tile, after the arcade originals.
+ * AI layer - no Swing dependencies.
+ */
+public enum GhostPersonality {
+    /**
+     * Red: chases Pacman directly
+     */
+    BLINKY(CreatureType.RED_GHOST) {
+        @Override
+        int chaseTarget(GhostAI ai, int ghostCell) {
+            return ai.getPacmanCell();
+        }
+
+        @Override
+        int scatterTarget(NavigationGrid grid) {
+            return grid.toWalkableCell(0, grid.getColumnCount() - 1);
+        }
+    },
+
+    /**
+     * Pink: ambushes by aiming four tiles ahead of Pacman
+     */
+    PINKY(CreatureType.PINK_GHOST) {
+        @Override
+        int chaseTarget(GhostAI ai, int ghostCell) {
+            return ai.getGrid().toWalkableCell(ai.getPacmanRow() + 4 * ai.getPacmanDeltaRow(),
+                ai.getPacmanCol() + 4 * ai.getPacmanDeltaCol());
+        }
+
+        @Override
+        int scatterTarget(NavigationGrid grid) {
+            return grid.toWalkableCell(0, 0);
+        }
+    },
+
+    /**
+     * Blue: doubles the vector from Blinky to two tiles ahead of Pacman
+     */
+    INKY(CreatureType.BLUE_GHOST) {
+        @Override
+        int chaseTarget(GhostAI ai, int ghostCell) {
+            int aheadRow = ai.getPacmanRow() + 2 * ai.getPacmanDeltaRow();
+            int aheadCol = ai.getPacmanCol() + 2 * ai.getPacmanDeltaCol();
+            return ai.getGrid().toWalkableCell(2 * aheadRow - ai.getBlinkyRow(), 2 * aheadCol - ai.getBlinkyCol());
+        }
+
+        @Override
+        int scatterTarget(NavigationGrid grid) {
+            return grid.toWalkableCell(grid.getRowCount() - 1, grid.getColumnCount() - 1);
+        }
+    },
+
+    /**
+     * Orange: chases while far from Pacman, wanders back to its corner when close
+     */
+    CLYDE(CreatureType.ORANGE_GHOST) {
+        @Override
+        int chaseTarget(GhostAI ai, int ghostCell) {
+            if (ai.distanceToPacman(ghostCell) > 8) {
+                return ai.getPacmanCell();
+            }
+            return scatterTarget(ai.getGrid());
+        }
+
+        @Override
+        int scatterTarget(NavigationGrid grid) {
+            return grid.toWalkableCell(grid.getRowCount() - 1, 0);
+        }
+    };
+
+    private static final GhostPersonality[] BY_TYPE = new GhostPersonality[CreatureType.values().length];
+
+    static {
+        for (GhostPersonality personality : values()) {
+            BY_TYPE[personality.type.ordinal()] = personality;
+        }
+    }
+
+    private final CreatureType type;
+
+    GhostPersonality(CreatureType type) {
+        this.type = type;
+    }
+
+    public CreatureType getType() {
+        return type;
+    }
+
+    /**
+     * Target cell while chasing
+     */
+    abstract int chaseTarget(GhostAI ai, int ghostCell);
+
+    /**
+     * Home corner cell used while scattering
+     */
+    abstract int scatterTarget(NavigationGrid grid);
+
+    /**
+     * Personality of a creature type, or null for Pacman
+     */
+    public static GhostPersonality forType(CreatureType type) {
+        return BY_TYPE[type.ordinal()];
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.ai;
+
+import org.example.util.Direction;
+import org.example.world.CompiledLevel;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * AI layer: NavigationGrid
+ * Where ghosts can walk in a compiled maze, the closest walkable cell to any cell, and the
+ * distance fields toward each personality's scatter corner.
+ * Cells are indexed row * columnCount + col. Neighbours come from the maze's own open-neighbour
+ * table. Walls never change, so one grid is built per compiled maze, the first time a ghost AI
+ * plays on it, and shared by every AI, level and thread using that maze. Grids are cached
+ * softly and dropped along with their maze, so mazes nothing uses any more can still be collected.
+ * AI layer - no Swing dependencies.
+ */
+public class NavigationGrid {
+    /**
+     * Neighbour value for a blocked direction
+     */
+    public static final int NONE = CompiledLevel.NONE;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final GhostPersonality[] PERSONALITIES = GhostPersonality.values();
+    private static final Map<CompiledLevel, SoftReference<NavigationGrid>> GRIDS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final CompiledLevel compiled;
+    private final int rowCount;
+    private final int columnCount;
+    private final int[] nearestWalkable;
+    private final DistanceField[] scatterFields;
+
+    NavigationGrid(CompiledLevel compiled) {
+        this.compiled = compiled;
+        this.rowCount = compiled.getRowCount();
+        this.columnCount = compiled.getColumnCount();
+        int[] queue = new int[rowCount * columnCount];
+        this.nearestWalkable = new int[queue.length];
+        computeNearestWalkable(queue);
+
+        // Corners never move, so their fields are searched in full once and only read afterwards
+        this.scatterFields = new DistanceField[PERSONALITIES.length];
+        for (GhostPersonality personality : PERSONALITIES) {
+            scatterFields[personality.ordinal()] = new DistanceField(this, personality.scatterTarget(this), queue);
+        }
+    }
+
+    /**
+     * Grid of a compiled maze, built on first use and shared from then on
+     */
+    public static NavigationGrid forLevel(CompiledLevel compiled) {
+        SoftReference<NavigationGrid> cached = GRIDS.get(compiled);
+        NavigationGrid grid = cached != null ? cached.get() : null;
+        if (grid == null) {
+            // Two threads may both build a grid for a new maze; either one will do
+            grid = new NavigationGrid(compiled);
+            GRIDS.put(compiled, new SoftReference<>(grid));
+        }
+        return grid;
+    }
+
+    /**
+     * Multi-source BFS over the whole grid, walls included, from every walkable cell
+     */
+    private void computeNearestWalkable(int[] queue) {
+        int head = 0;
+        int tail = 0;
+        Arrays.fill(nearestWalkable, NONE);
+        for (int cell = 0; cell < nearestWalkable.length; cell++) {
+            if (isWalkable(cell)) {
+                nearestWalkable[cell] = cell;
+                queue[tail++] = cell;
+            }
+        }
+        while (head < tail) {
+            int cell = queue[head++];
+            for (Direction direction : DIRECTIONS) {
+                int next = step(cell, direction);
+                if (next != NONE && nearestWalkable[next] == NONE) {
+                    nearestWalkable[next] = nearestWalkable[cell];
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cell one step away in the given direction, ignoring walls, or NONE off the map
+     */
+    private int step(int cell, Direction direction) {
+        int row = cell / columnCount;
+        int col = cell % columnCount;
+        switch (direction) {
+            case UP:
+                return row > 0 ? cell - columnCount : NONE;
+            case DOWN:
+                return row < rowCount - 1 ? cell + columnCount : NONE;
+            case LEFT:
+                return col > 0 ? cell - 1 : NONE;
+            case RIGHT:
+                return col < columnCount - 1 ? cell + 1 : NONE;
+            default:
+                return NONE;
+        }
+    }
+
+    public CompiledLevel getCompiled() {
+        return compiled;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getCellCount() {
+        return nearestWalkable.length;
+    }
+
+    /**
+     * Whether ghosts may stand on a cell. Ghosts bounce off the left and right edge of the
+     * board, so the outer columns are off limits even where a tunnel runs through them.
+     */
+    public boolean isWalkable(int cell) {
+        int col = cell % columnCount;
+        return col > 0 && col < columnCount - 1 && !compiled.isWall(cell / columnCount, col);
+    }
+
+    /**
+     * Walkable neighbour of a cell in the given direction, or NONE
+     */
+    public int getNeighbor(int cell, Direction direction) {
+        return isWalkable(cell) ? walkableNeighbor(cell, direction) : NONE;
+    }
+
+    /**
+     * Walkable neighbour of a cell already known to be walkable, or NONE
+     */
+    int walkableNeighbor(int cell, Direction direction) {
+        int neighbor = compiled.getNeighbor(cell, direction);
+        if (neighbor == NONE) {
+            return NONE;
+        }
+        // The maze already ruled out walls; only the outer columns are left to check
+        int col = neighbor % columnCount;
+        return col > 0 && col < columnCount - 1 ? neighbor : NONE;
+    }
+
+    /**
+     * Closest walkable cell to any row and column, clamped onto the map first.
+     * Lets targets such as corners or tiles ahead of Pacman fall inside walls.
+     */
+    public int toWalkableCell(int row, int col) {
+        int clampedRow = Math.max(0, Math.min(rowCount - 1, row));
+        int clampedCol = Math.max(0, Math.min(columnCount - 1, col));
+        return nearestWalkable[clampedRow * columnCount + clampedCol];
+    }
+
+    /**
+     * Fully searched field toward a personality's scatter corner; shared, so read it only
+     */
+    DistanceField getScatterField(GhostPersonality personality) {
+        return scatterFields[personality.ordinal()];
+    }
+}
@@ -1,149 +1,187 @@
 package org.example.app;
 
-import org.example.collision.CollisionService;
+import org.example.ai.GhostAI;
 import org.example.entity.Creature;
-import org.example.entity.CreatureType;
 import org.example.game.GameEngine;
+import org.example.game.GameFactory;
 import org.example.game.GameState;
+import org.example.game.SimulationThread;
 import org.example.input.InputController;
+import org.example.metrics.EngineMetrics;
+import org.example.metrics.MetricsMBeans;
+import org.example.metrics.TextMetricsSink;
+import org.example.replay.Replay;
+import org.example.replay.ReplayPlayer;
+import org.example.replay.ReplayRecorder;
 import org.example.ui.PacMan;
 import org.example.util.Direction;
 import org.example.world.Level;
+import org.example.world.LevelLoader;
+import org.example.world.LevelTemplate;
 
 import javax.swing.*;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Application layer: PacmanApplication
  * Creates and wires all components together.
  * Main entry point for the application.
+ *
+ * Usage: App [--level FILE] [--seed N] [--record FILE] [--metrics] | App [--level FILE] --replay FILE
+ * Without --level the classic maze from the Levels resources is played.
+ * --metrics publishes tick metrics over JMX as "game" and prints them on exit.
  */
 public class App {
-    private static final int ROW_COUNT = 21;
-    private static final int COLUMN_COUNT = 19;
     private static final int TILE_SIZE = 32;
+    private static final int TICKS_PER_SECOND = 20;
+    private static final int MAX_CATCH_UP_TICKS = 5;
 
-    private static final String[] TILE_MAP = {
-        "XXXXXXXXXXXXXXXXXXX",
-        "X        X        X",
-        "X XX XXX X XXX XX X",
-        "X                 X",
-        "X XX X XXXXX X XX X",
-        "X    X       X    X",
-        "XXXX XXXX XXXX XXXX",
-        "OOOX X       X XOOO",
-        "XXXX X XXrXX X XXXX",
-        "O       b o       O",
-        "XXXX X XXXXX X XXXX",
-        "OOOX X       X XOOO",
-        "XXXX X XXXXX X XXXX",
-        "X        X        X",
-        "X XX XXX X XXX XX X",
-        "X  X    pP     X  X",
-        "XX X X XXXXX X X XX",
-        "X    X   X   X    X",
-        "X XXXXXX X XXXXXX X",
-        "X                 X",
-        "XXXXXXXXXXXXXXXXXXX"
-    };
-
-    public static void main(String[] args) {
-        // Create domain services
-        CollisionService collisionService = new CollisionService();
-        
-        // Create level
-        Level level = new Level(ROW_COUNT, COLUMN_COUNT, TILE_SIZE, TILE_MAP);
-        
-        // Create creatures
-        List<Creature> creatures = createCreatures(level, TILE_SIZE);
-        Creature pacman = creatures.get(0);
-        List<Creature> ghosts = creatures.subList(1, creatures.size());
-        
-        // Initialize ghost directions
-        Random random = new Random();
-        Direction[] directions = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
-        for (Creature ghost : ghosts) {
-            Direction newDirection = directions[random.nextInt(4)];
-            ghost.updateDirection(newDirection);
+    public static void main(String[] args) throws IOException {
+        long seed = System.nanoTime();
+        Path recordFile = null;
+        Path replayFile = null;
+        boolean metrics = false;
+        LevelTemplate level = LevelTemplate.CLASSIC;
+        for (int i = 0; i < args.length; i++) {
+            if ("--level".equals(args[i]) && i + 1 < args.length) {
+                level = LevelLoader.load(Paths.get(args[++i]));
+            } else if ("--seed".equals(args[i]) && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else if ("--record".equals(args[i]) && i + 1 < args.length) {
+                recordFile = Paths.get(args[++i]);
+            } else if ("--replay".equals(args[i]) && i + 1 < args.length) {
+                replayFile = Paths.get(args[++i]);
+            } else if ("--metrics".equals(args[i])) {
+                metrics = true;
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (replayFile != null) {
+            playReplay(replayFile, level);
+            return;
+        }
+        System.out.println("Seed: " + seed);
+
+        // Create game state and engine; all randomness comes from the seed
+        GameEngine gameEngine = GameFactory.create(level, TILE_SIZE, seed);
+        gameEngine.setGhostAI(new GhostAI());
+        gameEngine.setTurnBuffering(true);
+        if (metrics) {
+            EngineMetrics engineMetrics = new EngineMetrics();
+            gameEngine.setMetrics(engineMetrics);
+            MetricsMBeans.register("game", engineMetrics);
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> engineMetrics.report(new TextMetricsSink(System.out))));
         }
-        
-        // Create game state
-        GameState gameState = new GameState(level, pacman, ghosts);
-        
-        // Create game engine
-        GameEngine gameEngine = new GameEngine(gameState, collisionService, TILE_SIZE);
-        
+
+        // Record the first game if asked to
+        AtomicReference<ReplayRecorder> recorder = new AtomicReference<>();
+        if (recordFile != null) {
+            recorder.set(ReplayRecorder.attach(gameEngine, seed, level));
+        }
+
+        // Run the simulation on its own thread
+        SimulationThread simulation = new SimulationThread(gameEngine, TICKS_PER_SECOND, MAX_CATCH_UP_TICKS);
+        if (recordFile != null) {
+            Path file = recordFile;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                simulation.stop();
+                saveReplay(recorder, gameEngine, file);
+            }));
+        }
+
         // Create UI
-        int boardWidth = COLUMN_COUNT * TILE_SIZE;
-        int boardHeight = ROW_COUNT * TILE_SIZE;
-        
+        int boardWidth = level.getColumnCount() * TILE_SIZE;
+        int boardHeight = level.getRowCount() * TILE_SIZE;
+
         JFrame frame = new JFrame("Pac Man");
         frame.setVisible(true);
         frame.setSize(boardWidth, boardHeight);
         frame.setLocationRelativeTo(null);
         frame.setResizable(false);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        
+
         // Create view
-        PacMan view = new PacMan(gameState, gameEngine, boardWidth, boardHeight, TILE_SIZE);
+        PacMan view = new PacMan(simulation, boardWidth, boardHeight, TILE_SIZE);
         frame.add(view);
         frame.pack();
         view.requestFocus();
-        
+
         // Create input controller
+        Path savedReplayFile = recordFile;
+        LevelTemplate restartLevel = level;
         InputController inputController = new InputController(
             gameEngine,
             view::togglePause,
-            () -> restartGame(gameEngine, view, level, TILE_SIZE, random, directions)
+            () -> simulation.post(() -> {
+                saveReplay(recorder, gameEngine, savedReplayFile);
+                restartGame(gameEngine, restartLevel, TILE_SIZE);
+            }),
+            view::toggleOverlay
         );
         view.addKeyListener(inputController);
-        
-        // Start game loop
-        view.startGameLoop();
+
+        // Start simulation and rendering
+        simulation.start();
+        view.startRendering();
     }
-    
-    private static List<Creature> createCreatures(Level level, int tileSize) {
-        List<Creature> creatures = new ArrayList<>();
-        
-        for (int r = 0; r < level.getRowCount(); r++) {
-            for (int c = 0; c < level.getColumnCount(); c++) {
-                char tileMapChar = TILE_MAP[r].charAt(c);
-                int x = c * tileSize;
-                int y = r * tileSize;
-                
-                if (tileMapChar == 'b') {
-                    creatures.add(new Creature(CreatureType.BLUE_GHOST, x, y, tileSize));
-                } else if (tileMapChar == 'o') {
-                    creatures.add(new Creature(CreatureType.ORANGE_GHOST, x, y, tileSize));
-                } else if (tileMapChar == 'p') {
-                    creatures.add(new Creature(CreatureType.PINK_GHOST, x, y, tileSize));
-                } else if (tileMapChar == 'r') {
-                    creatures.add(new Creature(CreatureType.RED_GHOST, x, y, tileSize));
-                } else if (tileMapChar == 'P') {
-                    creatures.add(0, new Creature(CreatureType.PACMAN, x, y, tileSize));
-                }
-            }
+
+    /**
+     * Finish the recording, once. Call on the simulation thread or after it stopped.
+     */
+    private static void saveReplay(AtomicReference<ReplayRecorder> recorder, GameEngine gameEngine, Path file) {
+        ReplayRecorder active = recorder.getAndSet(null);
+        if (active == null) {
+            return;
+        }
+        Replay replay = active.finish(gameEngine);
+        try {
+            replay.write(file);
+            System.out.println("Replay saved to " + file + " (" + replay.getTickCount() + " ticks, "
+                + replay.getTurnCount() + " turns)");
+        } catch (IOException e) {
+            System.err.println("Could not save replay to " + file + ": " + e);
         }
-        
-        return creatures;
     }
-    
-    private static void restartGame(GameEngine gameEngine, PacMan view, Level level, int tileSize, 
-                                     Random random, Direction[] directions) {
-        Level newLevel = new Level(ROW_COUNT, COLUMN_COUNT, TILE_SIZE, TILE_MAP);
-        List<Creature> newCreatures = createCreatures(newLevel, tileSize);
+
+    /**
+     * Play a recorded game headlessly and report whether it ended the same way
+     */
+    private static void playReplay(Path file, LevelTemplate level) throws IOException {
+        Replay replay = Replay.read(file);
+        long start = System.nanoTime();
+        GameEngine gameEngine = ReplayPlayer.play(replay, level);
+        long elapsed = System.nanoTime() - start;
+
+        GameState gameState = gameEngine.getGameState();
+        System.out.println("Seed: " + replay.getSeed());
+        System.out.println("Ticks: " + gameEngine.getSimulatedTicks() + " in "
+            + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+        System.out.println("Score: " + gameState.getScore() + " (recorded " + replay.getFinalScore() + ")");
+        System.out.println("Lives: " + gameState.getLives() + " (recorded " + replay.getFinalLives() + ")");
+        System.out.println(replay.matches(gameEngine) ? "Replay matches" : "Replay DIVERGED");
+    }
+
+    private static void restartGame(GameEngine gameEngine, LevelTemplate level, int tileSize) {
+        Level newLevel = level.createLevel(tileSize);
+        List<Creature> newCreatures = level.createCreatures(tileSize);
         Creature newPacman = newCreatures.get(0);
         List<Creature> newGhosts = newCreatures.subList(1, newCreatures.size());
-        
+
+        Random random = gameEngine.getGameState().getRandom();
+        Direction[] directions = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
         for (Creature ghost : newGhosts) {
             Direction newDirection = directions[random.nextInt(4)];
             ghost.updateDirection(newDirection);
         }
-        
+
         gameEngine.getGameState().resetGame(newLevel, newPacman, newGhosts);
-        view.startGameLoop();
     }
 }
-
@@ -1,6 +1,7 @@
 package org.example.collision;
 
 import org.example.entity.Creature;
+import org.example.world.Level;
 import org.example.world.Tile;
 
 /**
@@ -40,4 +41,33 @@ public class CollisionService {
             b.getX(), b.getY(), width, height
         );
     }
+
+    /**
+     * Check whether a box overlaps any wall of the level.
+     * Only the 1-4 cells covered by the box are looked up in the level's wall grid,
+     * so the cost does not depend on the size of the maze.
+     */
+    public boolean collidesWithWall(Level level, int x, int y, int width, int height) {
+        int tileSize = level.getTileSize();
+        int firstRow = Math.floorDiv(y, tileSize);
+        int lastRow = Math.floorDiv(y + height - 1, tileSize);
+        int firstCol = Math.floorDiv(x, tileSize);
+        int lastCol = Math.floorDiv(x + width - 1, tileSize);
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                if (level.isWall(r, c)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a creature overlaps any wall of the level
+     */
+    public boolean collidesWithWall(Level level, Creature creature, int width, int height) {
+        return collidesWithWall(level, creature.getX(), creature.getY(), width, height);
+    }
 }
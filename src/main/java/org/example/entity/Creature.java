@@ -6,120 +6,127 @@ import org.example.util.Position;
 /**
  * Domain model: Creature
  * Represents a creature (Pacman or Ghost) in the game world.
- * Contains position, direction, velocity, and movement logic.
+ * A lightweight view onto one slot of a CreatureStore, which holds the
+ * position, direction, velocity and start position.
  * Domain layer - no Swing dependencies.
  */
 public class Creature {
-    private final CreatureType type;
-    private Position position;
-    private Position startPosition;
-    private Direction direction;
-    private int velocityX;
-    private int velocityY;
-    private final int tileSize;
+    private CreatureStore store;
+    private int index;
 
+    /**
+     * Create a creature in a store of its own. A game moves it into a shared store with CreatureStore.adopt.
+     */
     public Creature(CreatureType type, int x, int y, int tileSize) {
-        this.type = type;
-        this.position = new Position(x, y);
-        this.startPosition = new Position(x, y);
-        this.tileSize = tileSize;
-        this.direction = Direction.UP;
-        this.velocityX = 0;
-        this.velocityY = 0;
+        this.store = new CreatureStore(tileSize, 1);
+        this.index = store.add(type, x, y);
+    }
+
+    /**
+     * Point this view at another store slot
+     */
+    void bind(CreatureStore newStore, int newIndex) {
+        this.store = newStore;
+        this.index = newIndex;
+    }
+
+    public CreatureStore getStore() {
+        return store;
+    }
+
+    public int getIndex() {
+        return index;
     }
 
     public CreatureType getType() {
-        return type;
+        return store.getType(index);
     }
 
+    /**
+     * Copy of the current position
+     */
     public Position getPosition() {
-        return position;
+        return new Position(getX(), getY());
     }
 
+    /**
+     * Copy of the starting position
+     */
     public Position getStartPosition() {
-        return startPosition;
+        return new Position(getStartX(), getStartY());
     }
 
     public Direction getDirection() {
-        return direction;
+        return store.getDirection(index);
     }
 
     public int getVelocityX() {
-        return velocityX;
+        return store.getVelocityX(index);
     }
 
     public int getVelocityY() {
-        return velocityY;
+        return store.getVelocityY(index);
     }
 
     public int getX() {
-        return position.getX();
+        return store.getX(index);
     }
 
     public int getY() {
-        return position.getY();
+        return store.getY(index);
+    }
+
+    public int getStartX() {
+        return store.getStartX(index);
+    }
+
+    public int getStartY() {
+        return store.getStartY(index);
+    }
+
+    public int getTileSize() {
+        return store.getTileSize();
     }
 
     /**
      * Update direction and calculate velocity
      */
     public void updateDirection(Direction newDirection) {
-        this.direction = newDirection;
-        updateVelocity();
+        store.updateDirection(index, newDirection);
     }
 
     /**
      * Calculate velocity based on current direction
      */
     public void updateVelocity() {
-        switch (direction) {
-            case UP:
-                this.velocityX = 0;
-                this.velocityY = -tileSize / 4;
-                break;
-            case DOWN:
-                this.velocityX = 0;
-                this.velocityY = tileSize / 4;
-                break;
-            case RIGHT:
-                this.velocityX = tileSize / 4;
-                this.velocityY = 0;
-                break;
-            case LEFT:
-                this.velocityX = -tileSize / 4;
-                this.velocityY = 0;
-                break;
-        }
+        store.updateVelocity(index);
     }
 
     /**
      * Move creature by its velocity
      */
     public void move() {
-        position.add(velocityX, velocityY);
+        store.move(index);
     }
 
     /**
      * Move creature back (undo last movement)
      */
     public void moveBack() {
-        position.add(-velocityX, -velocityY);
+        store.moveBack(index);
     }
 
     /**
      * Reset creature to starting position
      */
     public void reset() {
-        this.position = new Position(startPosition.getX(), startPosition.getY());
-        this.velocityX = 0;
-        this.velocityY = 0;
+        store.reset(index);
     }
 
     /**
      * Set position directly (for collision handling)
      */
     public void setPosition(int x, int y) {
-        this.position.setX(x);
-        this.position.setY(y);
+        store.setPosition(index, x, y);
     }
 }
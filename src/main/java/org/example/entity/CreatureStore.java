@@ -0,0 +1,233 @@
+package org.example.entity;
+
+import org.example.util.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Domain model: CreatureStore
+ * Struct-of-arrays storage for creatures: positions, velocities, directions,
+ * types and start positions live in parallel primitive arrays indexed by creature.
+ * Updating many creatures walks these arrays in order instead of chasing one object per creature.
+ * Creature objects are thin views onto a slot of a store.
+ * Domain layer - no Swing dependencies.
+ */
+public class CreatureStore {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final CreatureType[] TYPES = CreatureType.values();
+
+    private final int tileSize;
+    private int size;
+    private int[] x;
+    private int[] y;
+    private int[] velocityX;
+    private int[] velocityY;
+    private int[] startX;
+    private int[] startY;
+    private byte[] direction;
+    private byte[] type;
+
+    public CreatureStore(int tileSize, int capacity) {
+        this.tileSize = tileSize;
+        int initialCapacity = Math.max(1, capacity);
+        this.x = new int[initialCapacity];
+        this.y = new int[initialCapacity];
+        this.velocityX = new int[initialCapacity];
+        this.velocityY = new int[initialCapacity];
+        this.startX = new int[initialCapacity];
+        this.startY = new int[initialCapacity];
+        this.direction = new byte[initialCapacity];
+        this.type = new byte[initialCapacity];
+    }
+
+    /**
+     * Add a creature standing still at its start position, facing up
+     *
+     * @return index of the new creature
+     */
+    public int add(CreatureType creatureType, int startX, int startY) {
+        if (size == x.length) {
+            grow();
+        }
+        int i = size++;
+        this.x[i] = startX;
+        this.y[i] = startY;
+        this.startX[i] = startX;
+        this.startY[i] = startY;
+        this.velocityX[i] = 0;
+        this.velocityY[i] = 0;
+        this.direction[i] = (byte) Direction.UP.ordinal();
+        this.type[i] = (byte) creatureType.ordinal();
+        return i;
+    }
+
+    /**
+     * Move a creature into this store. Its current state is copied into a new slot
+     * and the creature becomes a view onto that slot.
+     */
+    public Creature adopt(Creature creature) {
+        if (creature.getTileSize() != tileSize) {
+            throw new IllegalArgumentException(
+                "Creature tile size " + creature.getTileSize() + " does not match store tile size " + tileSize);
+        }
+        int i = add(creature.getType(), creature.getStartX(), creature.getStartY());
+        x[i] = creature.getX();
+        y[i] = creature.getY();
+        velocityX[i] = creature.getVelocityX();
+        velocityY[i] = creature.getVelocityY();
+        direction[i] = (byte) creature.getDirection().ordinal();
+        creature.bind(this, i);
+        return creature;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        startX = Arrays.copyOf(startX, capacity);
+        startY = Arrays.copyOf(startY, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        type = Arrays.copyOf(type, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public CreatureType getType(int i) {
+        return TYPES[type[i]];
+    }
+
+    public int getX(int i) {
+        return x[i];
+    }
+
+    public int getY(int i) {
+        return y[i];
+    }
+
+    public int getStartX(int i) {
+        return startX[i];
+    }
+
+    public int getStartY(int i) {
+        return startY[i];
+    }
+
+    public int getVelocityX(int i) {
+        return velocityX[i];
+    }
+
+    public int getVelocityY(int i) {
+        return velocityY[i];
+    }
+
+    public Direction getDirection(int i) {
+        return DIRECTIONS[direction[i]];
+    }
+
+    public void setPosition(int i, int newX, int newY) {
+        x[i] = newX;
+        y[i] = newY;
+    }
+
+    /**
+     * Update direction and calculate velocity
+     */
+    public void updateDirection(int i, Direction newDirection) {
+        direction[i] = (byte) newDirection.ordinal();
+        updateVelocity(i);
+    }
+
+    /**
+     * Calculate velocity based on current direction
+     */
+    public void updateVelocity(int i) {
+        int speed = tileSize / 4;
+        switch (DIRECTIONS[direction[i]]) {
+            case UP:
+                velocityX[i] = 0;
+                velocityY[i] = -speed;
+                break;
+            case DOWN:
+                velocityX[i] = 0;
+                velocityY[i] = speed;
+                break;
+            case RIGHT:
+                velocityX[i] = speed;
+                velocityY[i] = 0;
+                break;
+            case LEFT:
+                velocityX[i] = -speed;
+                velocityY[i] = 0;
+                break;
+        }
+    }
+
+    /**
+     * Move creature by its velocity
+     */
+    public void move(int i) {
+        x[i] += velocityX[i];
+        y[i] += velocityY[i];
+    }
+
+    /**
+     * Move creature back (undo last movement)
+     */
+    public void moveBack(int i) {
+        x[i] -= velocityX[i];
+        y[i] -= velocityY[i];
+    }
+
+    /**
+     * Reset creature to starting position and stop it
+     */
+    public void reset(int i) {
+        x[i] = startX[i];
+        y[i] = startY[i];
+        velocityX[i] = 0;
+        velocityY[i] = 0;
+    }
+
+    /**
+     * Reset every creature to its starting position
+     */
+    public void resetAll() {
+        System.arraycopy(startX, 0, x, 0, size);
+        System.arraycopy(startY, 0, y, 0, size);
+        Arrays.fill(velocityX, 0, size, 0);
+        Arrays.fill(velocityY, 0, size, 0);
+    }
+
+    /**
+     * Copy the moving part of every creature (position, velocity, direction) into
+     * the arrays, starting at the given offset. Types and start positions never change.
+     */
+    public void saveState(int[] toX, int[] toY, int[] toVelocityX, int[] toVelocityY,
+                          byte[] toDirection, int offset) {
+        System.arraycopy(x, 0, toX, offset, size);
+        System.arraycopy(y, 0, toY, offset, size);
+        System.arraycopy(velocityX, 0, toVelocityX, offset, size);
+        System.arraycopy(velocityY, 0, toVelocityY, offset, size);
+        System.arraycopy(direction, 0, toDirection, offset, size);
+    }
+
+    /**
+     * Counterpart of saveState()
+     */
+    public void restoreState(int[] fromX, int[] fromY, int[] fromVelocityX, int[] fromVelocityY,
+                             byte[] fromDirection, int offset) {
+        System.arraycopy(fromX, offset, x, 0, size);
+        System.arraycopy(fromY, offset, y, 0, size);
+        System.arraycopy(fromVelocityX, offset, velocityX, 0, size);
+        System.arraycopy(fromVelocityY, offset, velocityY, 0, size);
+        System.arraycopy(fromDirection, offset, direction, 0, size);
+    }
+}
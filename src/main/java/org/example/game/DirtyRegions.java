@@ -0,0 +1,101 @@
+package org.example.game;
+
+/**
+ * Game layer: DirtyRegions
+ * Board rectangles that changed during the last tick: old and new creature bounds
+ * and eaten food, plus flags for HUD changes and for changes that need a full repaint.
+ * Rectangles are kept in a reusable int array, so publishing them does not allocate.
+ * Past MAX_REGIONS rectangles the tick falls back to a full repaint, which is cheaper than
+ * painting that many pieces, and the rectangles are dropped.
+ * Game layer - no Swing dependencies.
+ */
+public class DirtyRegions {
+    /**
+     * Most rectangles tracked in one tick; adding more marks a full repaint instead
+     */
+    public static final int MAX_REGIONS = 32;
+
+    private final int[] rects = new int[4 * MAX_REGIONS];
+    private int count;
+    private boolean hudChanged;
+    private boolean fullRepaint;
+
+    /**
+     * Forget the previous tick's regions
+     */
+    public void clear() {
+        count = 0;
+        hudChanged = false;
+        fullRepaint = false;
+    }
+
+    public void add(int x, int y, int width, int height) {
+        if (fullRepaint) {
+            return;
+        }
+        if (count == MAX_REGIONS) {
+            markAll();
+            return;
+        }
+        int i = 4 * count++;
+        rects[i] = x;
+        rects[i + 1] = y;
+        rects[i + 2] = width;
+        rects[i + 3] = height;
+    }
+
+    /**
+     * Add one rectangle covering a box before and after it moved
+     */
+    public void addMove(int oldX, int oldY, int newX, int newY, int width, int height) {
+        if (oldX == newX && oldY == newY) {
+            return;
+        }
+        int x = Math.min(oldX, newX);
+        int y = Math.min(oldY, newY);
+        add(x, y, Math.abs(newX - oldX) + width, Math.abs(newY - oldY) + height);
+    }
+
+    /**
+     * Score or lives changed
+     */
+    public void markHud() {
+        hudChanged = true;
+    }
+
+    /**
+     * Something changed that is not worth tracking piecewise, e.g. a reset or game over
+     */
+    public void markAll() {
+        fullRepaint = true;
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getX(int i) {
+        return rects[4 * i];
+    }
+
+    public int getY(int i) {
+        return rects[4 * i + 1];
+    }
+
+    public int getWidth(int i) {
+        return rects[4 * i + 2];
+    }
+
+    public int getHeight(int i) {
+        return rects[4 * i + 3];
+    }
+
+    public boolean isHudChanged() {
+        return hudChanged;
+    }
+
+    public boolean isFullRepaint() {
+        return fullRepaint;
+    }
+}
@@ -0,0 +1,243 @@
+package org.example.game;
+
+import org.example.entity.CreatureStore;
+import org.example.entity.CreatureType;
+import org.example.util.CellBits;
+import org.example.util.Direction;
+import org.example.world.Level;
+
+/**
+ * Game layer: FrameSnapshot
+ * Immutable copy of what the renderer needs from one simulation tick.
+ * Creature 0 is Pacman, creatures 1..n are the ghosts in store order.
+ * Each snapshot also keeps the previous tick's creature positions, so a renderer
+ * can interpolate between the last two ticks from a single snapshot.
+ * Game layer - no Swing dependencies.
+ */
+public final class FrameSnapshot {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final CreatureType[] TYPES = CreatureType.values();
+
+    private final long tick;
+    private final long publishNanos;
+    private final Level level;
+    private final int[] x;
+    private final int[] y;
+    private final int[] previousX;
+    private final int[] previousY;
+    private final byte[] types;
+    private final byte pacmanDirection;
+    private final long[] foodBits;
+    private final int foodCount;
+    private final long updateNanos;
+    private final int score;
+    private final int lives;
+    private final boolean paused;
+    private final boolean gameOver;
+    private final int[] dirtyRects;
+    private final boolean hudChanged;
+    private final boolean fullRepaint;
+
+    private FrameSnapshot(long tick, long publishNanos, Level level, int[] x, int[] y,
+                          int[] previousX, int[] previousY, byte[] types, byte pacmanDirection,
+                          long[] foodBits, int foodCount, long updateNanos, int score, int lives,
+                          boolean paused, boolean gameOver, int[] dirtyRects, boolean hudChanged,
+                          boolean fullRepaint) {
+        this.tick = tick;
+        this.publishNanos = publishNanos;
+        this.level = level;
+        this.x = x;
+        this.y = y;
+        this.previousX = previousX;
+        this.previousY = previousY;
+        this.types = types;
+        this.pacmanDirection = pacmanDirection;
+        this.foodBits = foodBits;
+        this.foodCount = foodCount;
+        this.updateNanos = updateNanos;
+        this.score = score;
+        this.lives = lives;
+        this.paused = paused;
+        this.gameOver = gameOver;
+        this.dirtyRects = dirtyRects;
+        this.hudChanged = hudChanged;
+        this.fullRepaint = fullRepaint;
+    }
+
+    /**
+     * Copy the engine's state right after a tick. Call on the simulation thread.
+     *
+     * @param previous snapshot of the tick before, or null
+     */
+    public static FrameSnapshot capture(GameEngine gameEngine, long tick, FrameSnapshot previous) {
+        return capture(gameEngine, tick, previous, 0);
+    }
+
+    /**
+     * Copy the engine's state right after a tick, with the time its update() took
+     *
+     * @param previous snapshot of the tick before, or null
+     */
+    public static FrameSnapshot capture(GameEngine gameEngine, long tick, FrameSnapshot previous, long updateNanos) {
+        GameState gameState = gameEngine.getGameState();
+        Level level = gameState.getLevel();
+        CreatureStore ghosts = gameState.getGhostStore();
+        int count = ghosts.size() + 1;
+
+        int[] x = new int[count];
+        int[] y = new int[count];
+        byte[] types = new byte[count];
+        x[0] = gameState.getPacman().getX();
+        y[0] = gameState.getPacman().getY();
+        types[0] = (byte) CreatureType.PACMAN.ordinal();
+        for (int i = 0; i < ghosts.size(); i++) {
+            x[i + 1] = ghosts.getX(i);
+            y[i + 1] = ghosts.getY(i);
+            types[i + 1] = (byte) ghosts.getType(i).ordinal();
+        }
+
+        // Position arrays are never modified after publication, so the previous ones can be shared
+        boolean continuous = previous != null && previous.level == level && previous.x.length == count;
+        int[] previousX = continuous ? previous.x : x;
+        int[] previousY = continuous ? previous.y : y;
+
+        DirtyRegions dirty = gameEngine.getDirtyRegions();
+        int[] dirtyRects = new int[4 * dirty.size()];
+        for (int i = 0; i < dirty.size(); i++) {
+            dirtyRects[4 * i] = dirty.getX(i);
+            dirtyRects[4 * i + 1] = dirty.getY(i);
+            dirtyRects[4 * i + 2] = dirty.getWidth(i);
+            dirtyRects[4 * i + 3] = dirty.getHeight(i);
+        }
+
+        return new FrameSnapshot(tick, System.nanoTime(), level, x, y, previousX, previousY, types,
+            (byte) gameState.getPacman().getDirection().ordinal(), level.copyFoodBits(), level.getFoodCount(),
+            updateNanos, gameState.getScore(), gameState.getLives(), gameState.isPaused(), gameState.isGameOver(),
+            dirtyRects, dirty.isHudChanged(), dirty.isFullRepaint() || !continuous);
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * System.nanoTime() at which the tick finished
+     */
+    public long getPublishNanos() {
+        return publishNanos;
+    }
+
+    /**
+     * The level the tick ran on. Only its immutable parts (size, walls) may be read from another thread.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Number of creatures, Pacman included
+     */
+    public int getCreatureCount() {
+        return x.length;
+    }
+
+    public CreatureType getType(int creature) {
+        return TYPES[types[creature]];
+    }
+
+    public int getX(int creature) {
+        return x[creature];
+    }
+
+    public int getY(int creature) {
+        return y[creature];
+    }
+
+    public int getPreviousX(int creature) {
+        return previousX[creature];
+    }
+
+    public int getPreviousY(int creature) {
+        return previousY[creature];
+    }
+
+    public Direction getPacmanDirection() {
+        return DIRECTIONS[pacmanDirection];
+    }
+
+    public boolean hasFoodAt(int cell) {
+        return CellBits.get(foodBits, cell);
+    }
+
+    /**
+     * First cell at or after fromCell that holds food, or -1
+     */
+    public int nextFood(int fromCell) {
+        return CellBits.next(foodBits, fromCell, level.getRowCount() * level.getColumnCount());
+    }
+
+    /**
+     * Food left on the board
+     */
+    public int getFoodCount() {
+        return foodCount;
+    }
+
+    /**
+     * Time the tick's GameEngine.update() took, or 0 when it was not measured
+     */
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Number of board rectangles the tick changed: Pacman's and every moving ghost's old and new box, and eaten food.
+     * Zero when the tick needs a full repaint.
+     */
+    public int getDirtyCount() {
+        return dirtyRects.length / 4;
+    }
+
+    public int getDirtyX(int i) {
+        return dirtyRects[4 * i];
+    }
+
+    public int getDirtyY(int i) {
+        return dirtyRects[4 * i + 1];
+    }
+
+    public int getDirtyWidth(int i) {
+        return dirtyRects[4 * i + 2];
+    }
+
+    public int getDirtyHeight(int i) {
+        return dirtyRects[4 * i + 3];
+    }
+
+    public boolean isHudChanged() {
+        return hudChanged;
+    }
+
+    /**
+     * The tick changed too much to track piecewise, or broke continuity with the previous tick
+     */
+    public boolean isFullRepaint() {
+        return fullRepaint;
+    }
+}
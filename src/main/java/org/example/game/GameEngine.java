@@ -1,14 +1,16 @@
 package org.example.game;
 
+import org.example.ai.GhostAI;
 import org.example.collision.CollisionService;
 import org.example.entity.Creature;
-import org.example.entity.CreatureType;
+import org.example.entity.CreatureStore;
+import org.example.metrics.EngineMetrics;
+import org.example.metrics.FlightEvents;
+import org.example.metrics.TickEvent;
+import org.example.metrics.TickPhase;
 import org.example.util.Direction;
 import org.example.world.Level;
-import org.example.world.Tile;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -17,16 +19,28 @@ import java.util.Random;
  * Game layer - no Swing dependencies.
  */
 public class GameEngine {
+    private static final int INPUT_QUEUE_CAPACITY = 64;
+
     private final GameState gameState;
     private final CollisionService collisionService;
-    private final Random random;
     private final Direction[] directions = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
     private final int tileSize;
+    private int levelsCompleted;
+    private int lastLevelScore;
+    private int deaths;
+    private GhostAI ghostAI;
+    private final DirtyRegions dirtyRegions = new DirtyRegions();
+    private final InputQueue inputQueue = new InputQueue(INPUT_QUEUE_CAPACITY);
+    private boolean turnBuffering;
+    private Direction bufferedTurn;
+    private long lastTurnLatencyNanos;
+    private TurnListener turnListener;
+    private long simulatedTicks;
+    private EngineMetrics metrics;
 
     public GameEngine(GameState gameState, CollisionService collisionService, int tileSize) {
         this.gameState = gameState;
         this.collisionService = collisionService;
-        this.random = new Random();
         this.tileSize = tileSize;
     }
 
@@ -34,10 +48,19 @@ public class GameEngine {
      * Update game state - move all entities and check collisions
      */
     public void update() {
+        dirtyRegions.clear();
+        drainInput();
         if (gameState.isPaused() || gameState.isGameOver()) {
             return;
         }
+        simulatedTicks++;
 
+        boolean sampled = metrics != null && metrics.beginTick();
+        boolean traced = FlightEvents.isTickRecorded();
+        if (sampled || traced) {
+            updateTimed(sampled, traced);
+            return;
+        }
         movePacman();
         moveGhosts();
         checkGhostCollisions();
@@ -45,83 +68,171 @@ public class GameEngine {
         checkLevelComplete();
     }
 
+    /**
+     * The phases of update(), timed into the metrics when sampled and into a tick event when traced
+     */
+    private void updateTimed(boolean sampled, boolean traced) {
+        TickEvent event = traced ? FlightEvents.beginTick() : null;
+        long start = System.nanoTime();
+        movePacman();
+        long pacmanMoved = System.nanoTime();
+        moveGhosts();
+        long ghostsMoved = System.nanoTime();
+        checkGhostCollisions();
+        long ghostsChecked = System.nanoTime();
+        checkFoodCollisions();
+        long foodChecked = System.nanoTime();
+        checkLevelComplete();
+        long end = System.nanoTime();
+
+        if (sampled) {
+            metrics.recordPhase(TickPhase.MOVE_PACMAN, pacmanMoved - start);
+            metrics.recordPhase(TickPhase.MOVE_GHOSTS, ghostsMoved - pacmanMoved);
+            metrics.recordPhase(TickPhase.GHOST_COLLISIONS, ghostsChecked - ghostsMoved);
+            metrics.recordPhase(TickPhase.FOOD_COLLISIONS, foodChecked - ghostsChecked);
+            metrics.recordPhase(TickPhase.LEVEL_COMPLETE, end - foodChecked);
+            metrics.recordTick(end - start);
+        }
+        if (event != null) {
+            event.finish(simulatedTicks, 1 + gameState.getGhostStore().size(), pacmanMoved - start,
+                ghostsMoved - pacmanMoved, ghostsChecked - ghostsMoved, foodChecked - ghostsChecked, end - foodChecked);
+        }
+    }
+
+    /**
+     * Apply the turns queued since the last tick, in arrival order.
+     * With turn buffering only the newest is kept, until it can be taken.
+     */
+    private void drainInput() {
+        Direction turn;
+        while ((turn = inputQueue.poll()) != null) {
+            lastTurnLatencyNanos = System.nanoTime() - inputQueue.getLastPolledNanos();
+            if (turnListener != null) {
+                turnListener.onTurn(simulatedTicks, turn);
+            }
+            if (turnBuffering) {
+                bufferedTurn = turn;
+            } else {
+                gameState.getPacman().updateDirection(turn);
+            }
+        }
+    }
+
     private void movePacman() {
         Creature pacman = gameState.getPacman();
+        int oldX = pacman.getX();
+        int oldY = pacman.getY();
+        if (bufferedTurn != null && canTurn(pacman, bufferedTurn)) {
+            pacman.updateDirection(bufferedTurn);
+            bufferedTurn = null;
+        }
         pacman.move();
 
         // Check wall collisions for pacman
-        for (Tile wall : gameState.getLevel().getWalls()) {
-            if (collisionService.checkCollision(pacman, wall, tileSize, tileSize)) {
-                pacman.moveBack();
-                break;
-            }
+        if (collisionService.collidesWithWall(gameState.getLevel(), pacman, tileSize, tileSize)) {
+            pacman.moveBack();
         }
+
+        // Pacman's sprite follows his direction, so redraw him even when he is stuck
+        int x = pacman.getX();
+        int y = pacman.getY();
+        dirtyRegions.add(Math.min(oldX, x), Math.min(oldY, y),
+            Math.abs(x - oldX) + tileSize, Math.abs(y - oldY) + tileSize);
+    }
+
+    /**
+     * Whether one step in the given direction stays clear of walls
+     */
+    private boolean canTurn(Creature pacman, Direction direction) {
+        int speed = tileSize / 4;
+        int dx = direction == Direction.LEFT ? -speed : direction == Direction.RIGHT ? speed : 0;
+        int dy = direction == Direction.UP ? -speed : direction == Direction.DOWN ? speed : 0;
+        return !collisionService.collidesWithWall(gameState.getLevel(),
+            pacman.getX() + dx, pacman.getY() + dy, tileSize, tileSize);
     }
 
     private void moveGhosts() {
-        int boardWidth = gameState.getLevel().getBoardWidth();
-
-        for (Creature ghost : gameState.getGhosts()) {
-            // Special logic for ghost at row 9 (middle tunnel area)
-            if (ghost.getY() == tileSize * 9 && 
-                ghost.getDirection() != Direction.UP && 
-                ghost.getDirection() != Direction.DOWN) {
-                ghost.updateDirection(Direction.UP);
+        Level level = gameState.getLevel();
+        int boardWidth = level.getBoardWidth();
+        Random random = gameState.getRandom();
+
+        if (ghostAI != null) {
+            ghostAI.steer(gameState);
+        }
+
+        CreatureStore ghosts = gameState.getGhostStore();
+        for (int i = 0; i < ghosts.size(); i++) {
+            // Special logic for ghosts lined up with a tunnel, not needed when the AI steers
+            Direction direction = ghosts.getDirection(i);
+            int ghostY = ghosts.getY(i);
+            if (ghostAI == null && ghostY % tileSize == 0 && level.isTunnelRow(ghostY / tileSize) &&
+                direction != Direction.UP && direction != Direction.DOWN) {
+                ghosts.updateDirection(i, Direction.UP);
             }
 
-            ghost.move();
+            int oldX = ghosts.getX(i);
+            int oldY = ghosts.getY(i);
+            ghosts.move(i);
 
             // Check wall collisions and boundaries for ghost
-            for (Tile wall : gameState.getLevel().getWalls()) {
-                if (collisionService.checkCollision(ghost, wall, tileSize, tileSize) ||
-                    ghost.getX() <= 0 || ghost.getX() + tileSize >= boardWidth) {
-                    ghost.moveBack();
-                    Direction newDirection = directions[random.nextInt(4)];
-                    ghost.updateDirection(newDirection);
-                    break;
-                }
+            int x = ghosts.getX(i);
+            if (collisionService.collidesWithWall(level, x, ghosts.getY(i), tileSize, tileSize) ||
+                x <= 0 || x + tileSize >= boardWidth) {
+                ghosts.moveBack(i);
+                ghosts.updateDirection(i, directions[random.nextInt(4)]);
             }
+            dirtyRegions.addMove(oldX, oldY, ghosts.getX(i), ghosts.getY(i), tileSize, tileSize);
         }
     }
 
     private void checkFoodCollisions() {
         Creature pacman = gameState.getPacman();
-        Tile foodToRemove = null;
-
-        for (Tile food : gameState.getFoods()) {
-            // Food is smaller (4x4 at offset 14,14)
-            int foodX = food.getX() + 14;
-            int foodY = food.getY() + 14;
-            int foodSize = 4;
-
-            if (collisionService.checkCollision(
-                    pacman.getX(), pacman.getY(), tileSize, tileSize,
-                    foodX, foodY, foodSize, foodSize)) {
-                foodToRemove = food;
-                gameState.addScore(10);
-            }
-        }
+        Level level = gameState.getLevel();
+
+        // Only the cells under pacman can hold food he touches
+        int firstRow = Math.floorDiv(pacman.getY(), tileSize);
+        int lastRow = Math.floorDiv(pacman.getY() + tileSize - 1, tileSize);
+        int firstCol = Math.floorDiv(pacman.getX(), tileSize);
+        int lastCol = Math.floorDiv(pacman.getX() + tileSize - 1, tileSize);
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                if (!level.hasFoodAt(r, c)) {
+                    continue;
+                }
 
-        if (foodToRemove != null) {
-            gameState.removeFood(foodToRemove);
+                // Food is smaller (4x4 at offset 14,14)
+                int foodX = c * tileSize + 14;
+                int foodY = r * tileSize + 14;
+                int foodSize = 4;
+
+                if (collisionService.checkCollision(
+                        pacman.getX(), pacman.getY(), tileSize, tileSize,
+                        foodX, foodY, foodSize, foodSize)) {
+                    gameState.removeFood(r, c);
+                    gameState.addScore(10);
+                    if (metrics != null) {
+                        metrics.countFoodEaten();
+                    }
+                    dirtyRegions.add(foodX, foodY, foodSize, foodSize);
+                    dirtyRegions.markHud();
+                }
+            }
         }
     }
 
     private void checkLevelComplete() {
         if (!gameState.hasFood()) {
-            // Level complete - reload level
-            Level newLevel = createLevel();
-            List<Creature> newCreatures = createCreatures(newLevel);
-            Creature newPacman = newCreatures.get(0);
-            List<Creature> newGhosts = newCreatures.subList(1, newCreatures.size());
-            
-            // Initialize ghost directions
-            for (Creature ghost : newGhosts) {
-                Direction newDirection = directions[random.nextInt(4)];
-                ghost.updateDirection(newDirection);
+            // Level complete - restore the level and creatures in place
+            levelsCompleted++;
+            lastLevelScore = gameState.getScore();
+            if (metrics != null) {
+                metrics.countLevelReset();
             }
-            
-            gameState.resetGame(newLevel, newPacman, newGhosts);
+
+            gameState.restartLevel();
+            dirtyRegions.markAll();
+            resetPositions();
         }
     }
 
@@ -130,119 +241,198 @@ public class GameEngine {
      */
     private void checkGhostCollisions() {
         Creature pacman = gameState.getPacman();
-        
-        for (Creature ghost : gameState.getGhosts()) {
-            if (collisionService.checkCollision(pacman, ghost, tileSize, tileSize)) {
+        int pacmanX = pacman.getX();
+        int pacmanY = pacman.getY();
+        CreatureStore ghosts = gameState.getGhostStore();
+
+        for (int i = 0; i < ghosts.size(); i++) {
+            if (collisionService.checkCollision(pacmanX, pacmanY, tileSize, tileSize,
+                    ghosts.getX(i), ghosts.getY(i), tileSize, tileSize)) {
+                deaths++;
+                if (metrics != null) {
+                    metrics.countGhostCollision();
+                }
                 gameState.loseLife();
+                dirtyRegions.markAll();
                 if (gameState.isGameOver()) {
                     return;
                 }
-                resetPositions(gameState.getGhosts());
-                pacman.reset();
-                pacman.updateDirection(Direction.UP);
+                resetPositions();
                 return;
             }
         }
     }
 
     /**
-     * Reset all creature positions
+     * Put every creature back at its start, Pacman facing up, after a death or a cleared level
      */
-    private void resetPositions(List<Creature> ghosts) {
+    private void resetPositions() {
+        bufferedTurn = null;
         gameState.getPacman().reset();
         gameState.getPacman().updateDirection(Direction.UP);
 
-        for (Creature ghost : ghosts) {
-            ghost.reset();
+        gameState.getGhostStore().resetAll();
+        randomizeGhostDirections();
+        if (ghostAI != null) {
+            ghostAI.reset();
+        }
+    }
+
+    /**
+     * Give each ghost a random starting direction
+     */
+    void randomizeGhostDirections() {
+        Random random = gameState.getRandom();
+        CreatureStore ghosts = gameState.getGhostStore();
+        for (int i = 0; i < ghosts.size(); i++) {
             Direction newDirection = directions[random.nextInt(4)];
-            ghost.updateDirection(newDirection);
-        }
-    }
-
-    /**
-     * Create level from tile map
-     * Note: Ideally this should be in a factory, but kept here for level completion logic
-     */
-    private Level createLevel() {
-        String[] tileMap = {
-            "XXXXXXXXXXXXXXXXXXX",
-            "X        X        X",
-            "X XX XXX X XXX XX X",
-            "X                 X",
-            "X XX X XXXXX X XX X",
-            "X    X       X    X",
-            "XXXX XXXX XXXX XXXX",
-            "OOOX X       X XOOO",
-            "XXXX X XXrXX X XXXX",
-            "O       bpo       O",
-            "XXXX X XXXXX X XXXX",
-            "OOOX X       X XOOO",
-            "XXXX X XXXXX X XXXX",
-            "X        X        X",
-            "X XX XXX X XXX XX X",
-            "X  X     P     X  X",
-            "XX X X XXXXX X X XX",
-            "X    X   X   X    X",
-            "X XXXXXX X XXXXXX X",
-            "X                 X",
-            "XXXXXXXXXXXXXXXXXXX"
-        };
-        return new Level(21, 19, tileSize, tileMap);
-    }
-
-    /**
-     * Create creatures from level
-     * Note: Ideally this should be in a factory, but kept here for level completion logic
-     */
-    private List<Creature> createCreatures(Level level) {
-        List<Creature> creatures = new ArrayList<>();
-        String[] tileMap = {
-            "XXXXXXXXXXXXXXXXXXX",
-            "X        X        X",
-            "X XX XXX X XXX XX X",
-            "X                 X",
-            "X XX X XXXXX X XX X",
-            "X    X       X    X",
-            "XXXX XXXX XXXX XXXX",
-            "OOOX X       X XOOO",
-            "XXXX X XXrXX X XXXX",
-            "O       bpo       O",
-            "XXXX X XXXXX X XXXX",
-            "OOOX X       X XOOO",
-            "XXXX X XXXXX X XXXX",
-            "X        X        X",
-            "X XX XXX X XXX XX X",
-            "X  X     P     X  X",
-            "XX X X XXXXX X X XX",
-            "X    X   X   X    X",
-            "X XXXXXX X XXXXXX X",
-            "X                 X",
-            "XXXXXXXXXXXXXXXXXXX"
-        };
-
-        for (int r = 0; r < level.getRowCount(); r++) {
-            for (int c = 0; c < level.getColumnCount(); c++) {
-                char tileMapChar = tileMap[r].charAt(c);
-                int x = c * tileSize;
-                int y = r * tileSize;
-
-                if (tileMapChar == 'b') {
-                    creatures.add(new Creature(CreatureType.BLUE_GHOST, x, y, tileSize));
-                } else if (tileMapChar == 'o') {
-                    creatures.add(new Creature(CreatureType.ORANGE_GHOST, x, y, tileSize));
-                } else if (tileMapChar == 'p') {
-                    creatures.add(new Creature(CreatureType.PINK_GHOST, x, y, tileSize));
-                } else if (tileMapChar == 'r') {
-                    creatures.add(new Creature(CreatureType.RED_GHOST, x, y, tileSize));
-                } else if (tileMapChar == 'P') {
-                    creatures.add(0, new Creature(CreatureType.PACMAN, x, y, tileSize)); // Add at index 0
-                }
-            }
+            ghosts.updateDirection(i, newDirection);
+        }
+    }
+
+    /**
+     * Let ghosts chase Pacman with their personalities instead of wandering randomly.
+     * Pass null to go back to random wandering.
+     */
+    public void setGhostAI(GhostAI ghostAI) {
+        this.ghostAI = ghostAI;
+    }
+
+    public GhostAI getGhostAI() {
+        return ghostAI;
+    }
+
+    /**
+     * Collect tick counters and phase latencies into the given metrics.
+     * Pass null, the default, to collect nothing.
+     */
+    public void setMetrics(EngineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Queue of turns from the input thread, drained at the start of every update().
+     * The input thread is its only producer, the thread calling update() its only consumer.
+     */
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
+    /**
+     * When enabled, a queued turn that runs into a wall is held and taken at the first
+     * tick where it fits, e.g. at the next junction, instead of stopping Pacman.
+     * Only the newest queued turn is held.
+     */
+    public void setTurnBuffering(boolean turnBuffering) {
+        this.turnBuffering = turnBuffering;
+        if (!turnBuffering) {
+            bufferedTurn = null;
         }
-        return creatures;
+    }
+
+    public boolean isTurnBuffering() {
+        return turnBuffering;
+    }
+
+    /**
+     * Turn waiting for a gap in the wall, or null
+     */
+    public Direction getBufferedTurn() {
+        return bufferedTurn;
+    }
+
+    /**
+     * Listener for the turns drained from the input queue, or null
+     */
+    public void setTurnListener(TurnListener turnListener) {
+        this.turnListener = turnListener;
+    }
+
+    /**
+     * Number of updates that advanced the game, i.e. not paused and not over.
+     * Turns picked up while paused count towards the next simulated tick.
+     */
+    public long getSimulatedTicks() {
+        return simulatedTicks;
+    }
+
+    /**
+     * Time between the arrival of the last applied turn and the tick that picked it up
+     */
+    public long getLastTurnLatencyNanos() {
+        return lastTurnLatencyNanos;
+    }
+
+    /**
+     * Number of times the level has been cleared and restarted
+     */
+    public int getLevelsCompleted() {
+        return levelsCompleted;
+    }
+
+    /**
+     * Score reached when the level was last cleared, just before it was restarted
+     */
+    public int getLastLevelScore() {
+        return lastLevelScore;
+    }
+
+    /**
+     * Number of lives lost to ghosts since the engine was created
+     */
+    public int getDeaths() {
+        return deaths;
+    }
+
+    /**
+     * Regions of the board changed by the last update(). Valid until the next update().
+     */
+    public DirtyRegions getDirtyRegions() {
+        return dirtyRegions;
     }
 
     public GameState getGameState() {
         return gameState;
     }
+
+    /**
+     * Capture the game state and the engine's own state, such as the buffered turn and the ghost AI's
+     * schedule, so that a restored game plays on exactly as this one would
+     */
+    public StateSnapshot snapshot() {
+        return snapshotInto(new StateSnapshot());
+    }
+
+    /**
+     * Like snapshot(), reusing an existing snapshot's arrays
+     *
+     * @return the given snapshot
+     */
+    public StateSnapshot snapshotInto(StateSnapshot snapshot) {
+        gameState.snapshotInto(snapshot);
+        snapshot.captureEngine(bufferedTurn, ghostAI != null ? ghostAI.getPhaseTicks() : 0,
+            levelsCompleted, lastLevelScore, deaths);
+        return snapshot;
+    }
+
+    /**
+     * Roll the game and the engine back to a snapshot taken with snapshot() since the last resetGame()
+     */
+    public void restore(StateSnapshot snapshot) {
+        if (!snapshot.hasEngineState()) {
+            throw new IllegalArgumentException("Snapshot holds no engine state; restore it through GameState");
+        }
+        gameState.restore(snapshot);
+        bufferedTurn = snapshot.getBufferedTurn();
+        levelsCompleted = snapshot.getLevelsCompleted();
+        lastLevelScore = snapshot.getLastLevelScore();
+        deaths = snapshot.getDeaths();
+        if (ghostAI != null) {
+            ghostAI.setPhaseTicks(snapshot.getGhostPhaseTicks());
+        }
+    }
 }
@@ -0,0 +1,43 @@
+package org.example.game;
+
+import org.example.collision.CollisionService;
+import org.example.entity.Creature;
+import org.example.util.SeededRandom;
+import org.example.world.Level;
+import org.example.world.LevelTemplate;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Game layer: GameFactory
+ * Builds a ready-to-run game (state and engine) from a level template.
+ * Game layer - no Swing dependencies.
+ */
+public final class GameFactory {
+
+    private GameFactory() {
+    }
+
+    /**
+     * Create an independent game that plays out the same for the same seed and inputs
+     */
+    public static GameEngine create(LevelTemplate levelTemplate, int tileSize, long seed) {
+        return create(levelTemplate, tileSize, new SeededRandom(seed));
+    }
+
+    /**
+     * Create an independent game. All randomness of the game comes from the given source.
+     */
+    public static GameEngine create(LevelTemplate levelTemplate, int tileSize, Random random) {
+        Level level = levelTemplate.createLevel(tileSize);
+        List<Creature> creatures = levelTemplate.createCreatures(tileSize);
+        Creature pacman = creatures.get(0);
+        List<Creature> ghosts = creatures.subList(1, creatures.size());
+
+        GameState gameState = new GameState(level, pacman, ghosts, random);
+        GameEngine gameEngine = new GameEngine(gameState, new CollisionService(), tileSize);
+        gameEngine.randomizeGhostDirections();
+        return gameEngine;
+    }
+}
@@ -4,7 +4,7 @@ package org.example.game;
  * Game layer: GameLoop
  * Manages the game loop timing.
  * Game layer - no Swing dependencies.
- * Note: Actual timer is managed by UI layer (JPanel), this is just an interface.
+ * Note: The Swing view runs its own timer; HeadlessGameLoop implements this without a UI.
  */
 public interface GameLoop {
     void start();
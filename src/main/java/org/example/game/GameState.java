@@ -1,13 +1,15 @@
 package org.example.game;
 
 import org.example.entity.Creature;
+import org.example.entity.CreatureStore;
+import org.example.metrics.FlightEvents;
+import org.example.metrics.GameResetEvent;
+import org.example.util.SeededRandom;
 import org.example.world.Level;
-import org.example.world.Tile;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Random;
 
 /**
  * Game layer: GameState
@@ -18,17 +20,27 @@ public class GameState {
     private Level level;
     private Creature pacman;
     private List<Creature> ghosts;
-    private Set<Tile> foods;
+    private CreatureStore ghostStore;
     private int score;
     private int lives;
-    private boolean gameOver;
-    private boolean isPaused;
+    // Read by the UI thread while the simulation thread runs
+    private volatile boolean gameOver;
+    private volatile boolean isPaused;
+    private final Random random;
 
     public GameState(Level level, Creature pacman, List<Creature> ghosts) {
+        this(level, pacman, ghosts, new SeededRandom(System.nanoTime()));
+    }
+
+    /**
+     * @param random source of randomness for this game only, so games seeded alike play out alike
+     */
+    public GameState(Level level, Creature pacman, List<Creature> ghosts, Random random) {
+        this.random = random;
         this.level = level;
         this.pacman = pacman;
         this.ghosts = new ArrayList<>(ghosts);
-        this.foods = new HashSet<>(level.getFoods());
+        this.ghostStore = storeGhosts(level, this.ghosts);
         this.score = 0;
         this.lives = 3;
         this.gameOver = false;
@@ -47,8 +59,15 @@ public class GameState {
         return ghosts;
     }
 
-    public Set<Tile> getFoods() {
-        return foods;
+    /**
+     * Primitive-array storage behind the ghost views returned by getGhosts()
+     */
+    public CreatureStore getGhostStore() {
+        return ghostStore;
+    }
+
+    public Random getRandom() {
+        return random;
     }
 
     public int getScore() {
@@ -98,23 +117,88 @@ public class GameState {
         this.isPaused = !this.isPaused;
     }
 
-    public void removeFood(Tile food) {
-        foods.remove(food);
-        level.removeFood(food);
+    /**
+     * Eat the food in a cell of the current level
+     *
+     * @return true if the cell held food
+     */
+    public boolean removeFood(int row, int col) {
+        return level.removeFood(row, col);
     }
 
     public boolean hasFood() {
-        return !foods.isEmpty();
+        return level.hasFood();
+    }
+
+    /**
+     * Start the current level over in place: all food comes back and score and lives are reset.
+     * Creature positions are left to the caller.
+     */
+    public void restartLevel() {
+        GameResetEvent event = FlightEvents.beginGameReset();
+        int finalScore = score;
+        int livesLeft = lives;
+        level.restoreFood();
+        this.score = 0;
+        this.lives = 3;
+        this.gameOver = false;
+        this.isPaused = false;
+        if (event != null) {
+            event.finish(GameResetEvent.LEVEL_RESTART, finalScore, livesLeft);
+        }
+    }
+
+    /**
+     * Capture the mutable state of the game. Cheap enough to fork a game many times per tick.
+     * The engine's own state is not included; fork a running game with GameEngine.snapshot().
+     */
+    public StateSnapshot snapshot() {
+        return snapshotInto(new StateSnapshot());
+    }
+
+    /**
+     * Capture the mutable state of the game into an existing snapshot, reusing its arrays.
+     * Allocation-free once the snapshot has been used with this game.
+     *
+     * @return the given snapshot
+     */
+    public StateSnapshot snapshotInto(StateSnapshot snapshot) {
+        snapshot.capture(this);
+        return snapshot;
+    }
+
+    /**
+     * Roll the game back to a snapshot taken from it since the last resetGame()
+     */
+    public void restore(StateSnapshot snapshot) {
+        snapshot.restore(this);
     }
 
     public void resetGame(Level newLevel, Creature newPacman, List<Creature> newGhosts) {
+        GameResetEvent event = FlightEvents.beginGameReset();
+        int finalScore = score;
+        int livesLeft = lives;
         this.level = newLevel;
         this.pacman = newPacman;
         this.ghosts = new ArrayList<>(newGhosts);
-        this.foods = new HashSet<>(level.getFoods());
+        this.ghostStore = storeGhosts(newLevel, this.ghosts);
         this.score = 0;
         this.lives = 3;
         this.gameOver = false;
         this.isPaused = false;
+        if (event != null) {
+            event.finish(GameResetEvent.NEW_GAME, finalScore, livesLeft);
+        }
+    }
+
+    /**
+     * Move the ghosts into one shared store, in list order, so ghost i of the list is slot i of the store
+     */
+    private static CreatureStore storeGhosts(Level level, List<Creature> ghosts) {
+        CreatureStore store = new CreatureStore(level.getTileSize(), ghosts.size());
+        for (int i = 0; i < ghosts.size(); i++) {
+            store.adopt(ghosts.get(i));
+        }
+        return store;
     }
 }
@@ -0,0 +1,231 @@
+package org.example.game;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Game layer: HeadlessGameLoop
+ * Drives GameEngine.update() without a UI timer, either as fast as possible
+ * or at a fixed tick rate with bounded catch-up.
+ * While the game is paused (or over, when the loop keeps going after game over) update()
+ * does nothing; at maximum speed the loop then parks briefly before each tick instead of
+ * spinning a core, waiting for a hook or another thread to resume the game.
+ * Game layer - no Swing dependencies.
+ */
+public class HeadlessGameLoop implements GameLoop {
+    /**
+     * Tick budget value meaning "run until stopped or game over"
+     */
+    public static final long UNLIMITED = -1;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final GameEngine gameEngine;
+    private final long tickNanos;
+    private final int maxCatchUpTicks;
+    private final long tickBudget;
+
+    private Clock clock = Clock.SYSTEM;
+    private Runnable beforeTick;
+    private Runnable afterTick;
+    private boolean stopWhenGameOver = true;
+
+    private volatile boolean running;
+    private long tickCount;
+    private long skippedTicks;
+
+    /**
+     * @param tickNanos       length of one tick, or 0 to run at maximum speed
+     * @param maxCatchUpTicks how many late ticks may run back to back before the backlog is dropped
+     * @param tickBudget      number of ticks after which the loop stops, or UNLIMITED
+     */
+    public HeadlessGameLoop(GameEngine gameEngine, long tickNanos, int maxCatchUpTicks, long tickBudget) {
+        if (tickNanos < 0) {
+            throw new IllegalArgumentException("Tick length must not be negative: " + tickNanos);
+        }
+        if (maxCatchUpTicks < 1) {
+            throw new IllegalArgumentException("Catch-up cap must be at least 1: " + maxCatchUpTicks);
+        }
+        this.gameEngine = gameEngine;
+        this.tickNanos = tickNanos;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.tickBudget = tickBudget;
+    }
+
+    /**
+     * Loop that runs ticks back to back with no sleeping
+     */
+    public static HeadlessGameLoop maxSpeed(GameEngine gameEngine, long tickBudget) {
+        return new HeadlessGameLoop(gameEngine, 0, 1, tickBudget);
+    }
+
+    /**
+     * Loop that runs in real time at the given rate, catching up at most maxCatchUpTicks late ticks at once
+     */
+    public static HeadlessGameLoop fixedRate(GameEngine gameEngine, int ticksPerSecond,
+                                             int maxCatchUpTicks, long tickBudget) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
+        }
+        return new HeadlessGameLoop(gameEngine, TimeUnit.SECONDS.toNanos(1) / ticksPerSecond,
+            maxCatchUpTicks, tickBudget);
+    }
+
+    /**
+     * Code to run on the loop thread around every tick, e.g. applying queued commands
+     * or publishing the new state. Either may be null.
+     */
+    public void setTickHooks(Runnable beforeTick, Runnable afterTick) {
+        this.beforeTick = beforeTick;
+        this.afterTick = afterTick;
+    }
+
+    /**
+     * Time source and waiting for the loop, for tests that drive it without real time passing
+     */
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Whether the loop ends when the game is over (the default), or keeps ticking so the game can be restarted
+     */
+    public void setStopWhenGameOver(boolean stopWhenGameOver) {
+        this.stopWhenGameOver = stopWhenGameOver;
+    }
+
+    /**
+     * Run the loop on the calling thread until stop() is called,
+     * the tick budget is used up or (unless disabled) the game is over.
+     */
+    @Override
+    public void start() {
+        arm();
+        run();
+    }
+
+    /**
+     * Mark the loop running, so a stop() from now on ends the next run(). Lets a loop started
+     * on another thread be stopped before that thread gets to run.
+     */
+    void arm() {
+        running = !isFinished();
+    }
+
+    /**
+     * Run ticks on the calling thread until the loop is no longer running
+     */
+    void run() {
+        if (tickNanos == 0) {
+            while (running) {
+                if (isIdle()) {
+                    clock.parkNanos(IDLE_PARK_NANOS);
+                }
+                tick();
+            }
+        } else {
+            runFixedRate();
+        }
+    }
+
+    private void runFixedRate() {
+        long nextTick = clock.nanoTime();
+        while (running) {
+            long now = clock.nanoTime();
+            if (now < nextTick) {
+                clock.parkNanos(nextTick - now);
+                continue;
+            }
+
+            int ticks = 0;
+            while (running && now >= nextTick && ticks < maxCatchUpTicks) {
+                tick();
+                nextTick += tickNanos;
+                ticks++;
+            }
+
+            // Too far behind - drop the backlog instead of spiralling
+            if (now >= nextTick) {
+                long behind = (now - nextTick) / tickNanos + 1;
+                skippedTicks += behind;
+                nextTick += behind * tickNanos;
+            }
+        }
+    }
+
+    private void tick() {
+        if (beforeTick != null) {
+            beforeTick.run();
+        }
+        gameEngine.update();
+        tickCount++;
+        if (afterTick != null) {
+            afterTick.run();
+        }
+        if (isFinished()) {
+            running = false;
+        }
+    }
+
+    private boolean isIdle() {
+        GameState gameState = gameEngine.getGameState();
+        return gameState.isPaused() || gameState.isGameOver();
+    }
+
+    private boolean isFinished() {
+        return (stopWhenGameOver && gameEngine.getGameState().isGameOver())
+            || (tickBudget != UNLIMITED && tickCount >= tickBudget);
+    }
+
+    /**
+     * Ask the loop to stop after the current tick. Safe to call from any thread.
+     */
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Length of one tick in nanoseconds, 0 when running at maximum speed
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Number of ticks dropped because the loop fell further behind than the catch-up cap
+     */
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    /**
+     * Where the loop reads the time and how it waits
+     */
+    interface Clock {
+        Clock SYSTEM = new Clock() {
+            @Override
+            public long nanoTime() {
+                return System.nanoTime();
+            }
+
+            @Override
+            public void parkNanos(long nanos) {
+                LockSupport.parkNanos(nanos);
+            }
+        };
+
+        long nanoTime();
+
+        void parkNanos(long nanos);
+    }
+}
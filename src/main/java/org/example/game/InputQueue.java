@@ -0,0 +1,107 @@
+package org.example.game;
+
+import org.example.util.Direction;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Game layer: InputQueue
+ * Lock-free single-producer/single-consumer ring buffer of timestamped turn requests.
+ * The input thread offers, the engine polls at the start of each tick. Head and tail
+ * are published with lazySet, so neither side takes a lock or allocates.
+ * Exactly one thread may offer and exactly one thread may poll.
+ * Game layer - no Swing dependencies.
+ */
+public class InputQueue {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int mask;
+    private final byte[] directions;
+    private final long[] timestamps;
+
+    // Next slot to read, written only by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write, written only by the producer
+    private final AtomicLong tail = new AtomicLong();
+
+    // Producer's cached view of head, consumer's cached view of tail
+    private long headCache;
+    private long tailCache;
+
+    private long lastPolledNanos;
+
+    /**
+     * @param capacity number of pending turns, rounded up to a power of two
+     */
+    public InputQueue(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.directions = new byte[size];
+        this.timestamps = new long[size];
+    }
+
+    /**
+     * Queue a turn. Producer thread only.
+     *
+     * @param nanos System.nanoTime() at which the input arrived
+     * @return false if the queue is full and the turn was dropped
+     */
+    public boolean offer(Direction direction, long nanos) {
+        long t = tail.get();
+        if (t - headCache > mask) {
+            headCache = head.get();
+            if (t - headCache > mask) {
+                return false;
+            }
+        }
+        int slot = (int) t & mask;
+        directions[slot] = (byte) direction.ordinal();
+        timestamps[slot] = nanos;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Take the oldest turn. Consumer thread only.
+     *
+     * @return the turn, or null if the queue is empty
+     */
+    public Direction poll() {
+        long h = head.get();
+        if (h >= tailCache) {
+            tailCache = tail.get();
+            if (h >= tailCache) {
+                return null;
+            }
+        }
+        int slot = (int) h & mask;
+        Direction direction = DIRECTIONS[directions[slot]];
+        lastPolledNanos = timestamps[slot];
+        head.lazySet(h + 1);
+        return direction;
+    }
+
+    /**
+     * Arrival time of the turn returned by the last successful poll(). Consumer thread only.
+     */
+    public long getLastPolledNanos() {
+        return lastPolledNanos;
+    }
+
+    /**
+     * Approximate number of pending turns
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
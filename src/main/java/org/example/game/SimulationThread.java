@@ -0,0 +1,108 @@
+package org.example.game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Game layer: SimulationThread
+ * Runs the engine on a dedicated thread at a fixed tick rate and publishes a
+ * FrameSnapshot after every tick, with the time the tick's update took.
+ * Renderers read the latest snapshot from any thread; other threads change the game
+ * only through post(), which runs the command on the simulation thread before the next tick.
+ * Game layer - no Swing dependencies.
+ */
+public class SimulationThread implements GameLoop {
+    private final GameEngine gameEngine;
+    private final HeadlessGameLoop loop;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+    private volatile FrameSnapshot latestSnapshot;
+    private Thread thread;
+    private volatile long threadId = -1;
+    private long updateStartNanos;
+
+    public SimulationThread(GameEngine gameEngine, int ticksPerSecond, int maxCatchUpTicks) {
+        this.gameEngine = gameEngine;
+        this.loop = HeadlessGameLoop.fixedRate(gameEngine, ticksPerSecond, maxCatchUpTicks, HeadlessGameLoop.UNLIMITED);
+        this.loop.setStopWhenGameOver(false);
+        this.loop.setTickHooks(this::runCommands, this::publish);
+        this.latestSnapshot = FrameSnapshot.capture(gameEngine, 0, null);
+    }
+
+    private void runCommands() {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+        }
+        updateStartNanos = System.nanoTime();
+    }
+
+    private void publish() {
+        long updateNanos = System.nanoTime() - updateStartNanos;
+        latestSnapshot = FrameSnapshot.capture(gameEngine, loop.getTickCount(), latestSnapshot, updateNanos);
+    }
+
+    /**
+     * Run a command on the simulation thread before the next tick. Safe to call from any thread.
+     */
+    public void post(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * State after the most recent tick
+     */
+    public FrameSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    /**
+     * Length of one simulation tick in nanoseconds
+     */
+    public long getTickNanos() {
+        return loop.getTickNanos();
+    }
+
+    public GameEngine getGameEngine() {
+        return gameEngine;
+    }
+
+    /**
+     * Id of the thread running the simulation, or -1 if it is not running. Safe to call from any thread.
+     */
+    public long getThreadId() {
+        return threadId;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (thread != null && thread.isAlive()) {
+            return;
+        }
+        // Armed here rather than on the new thread, so a stop() right after start() is not lost
+        loop.arm();
+        thread = new Thread(loop::run, "pacman-simulation");
+        thread.setDaemon(true);
+        threadId = thread.getId();
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        loop.stop();
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+        threadId = -1;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return thread != null && thread.isAlive();
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.game;
+
+import org.example.entity.CreatureStore;
+import org.example.util.Direction;
+import org.example.util.SeededRandom;
+import org.example.world.Level;
+
+import java.util.Random;
+
+/**
+ * Game layer: StateSnapshot
+ * Everything of a GameState that changes while a level is played: creature positions,
+ * velocities and directions, remaining food, score, lives, flags and the RNG state.
+ * Backed by primitive arrays. The level's walls are shared, not copied, and food is kept
+ * as the few bitset words that differ from the level's initial food.
+ * Snapshots taken through GameEngine also hold the engine's own state: the buffered turn,
+ * the ghost AI's scatter/chase schedule and the level and death counters.
+ * A snapshot can only be restored into the game and level it was taken from.
+ * Game layer - no Swing dependencies.
+ */
+public final class StateSnapshot {
+    // Identity of the game the snapshot belongs to
+    private Level level;
+    private CreatureStore pacmanStore;
+    private CreatureStore ghostStore;
+
+    // Creature 0 is Pacman, creatures 1..n are the ghosts in store order
+    private int creatureCount;
+    private int[] x = new int[0];
+    private int[] y = new int[0];
+    private int[] velocityX = new int[0];
+    private int[] velocityY = new int[0];
+    private byte[] direction = new byte[0];
+
+    private int foodChangeCount;
+    private int[] foodWordIndices = new int[0];
+    private long[] foodWords = new long[0];
+
+    private int score;
+    private int lives;
+    private boolean gameOver;
+    private boolean paused;
+    private boolean hasRandomState;
+    private long randomState;
+
+    // Engine state, when taken through GameEngine
+    private boolean hasEngineState;
+    private Direction bufferedTurn;
+    private long ghostPhaseTicks;
+    private int levelsCompleted;
+    private int lastLevelScore;
+    private int deaths;
+
+    StateSnapshot() {
+    }
+
+    /**
+     * Copy the state of a game into this snapshot, growing its arrays only when needed
+     */
+    void capture(GameState gameState) {
+        level = gameState.getLevel();
+        pacmanStore = gameState.getPacman().getStore();
+        ghostStore = gameState.getGhostStore();
+
+        creatureCount = 1 + ghostStore.size();
+        if (x.length < creatureCount) {
+            x = new int[creatureCount];
+            y = new int[creatureCount];
+            velocityX = new int[creatureCount];
+            velocityY = new int[creatureCount];
+            direction = new byte[creatureCount];
+        }
+        pacmanStore.saveState(x, y, velocityX, velocityY, direction, 0);
+        ghostStore.saveState(x, y, velocityX, velocityY, direction, 1);
+
+        int changes = level.countFoodChanges();
+        if (foodWords.length < changes) {
+            foodWordIndices = new int[changes];
+            foodWords = new long[changes];
+        }
+        foodChangeCount = level.saveFoodChanges(foodWordIndices, foodWords);
+
+        score = gameState.getScore();
+        lives = gameState.getLives();
+        gameOver = gameState.isGameOver();
+        paused = gameState.isPaused();
+        Random random = gameState.getRandom();
+        hasRandomState = random instanceof SeededRandom;
+        randomState = hasRandomState ? ((SeededRandom) random).getState() : 0;
+        hasEngineState = false;
+    }
+
+    /**
+     * Add the engine's state to a snapshot just captured from its game
+     */
+    void captureEngine(Direction bufferedTurn, long ghostPhaseTicks, int levelsCompleted,
+                       int lastLevelScore, int deaths) {
+        this.hasEngineState = true;
+        this.bufferedTurn = bufferedTurn;
+        this.ghostPhaseTicks = ghostPhaseTicks;
+        this.levelsCompleted = levelsCompleted;
+        this.lastLevelScore = lastLevelScore;
+        this.deaths = deaths;
+    }
+
+    /**
+     * Put a game back into the captured state
+     */
+    void restore(GameState gameState) {
+        if (gameState.getLevel() != level || gameState.getPacman().getStore() != pacmanStore
+            || gameState.getGhostStore() != ghostStore) {
+            throw new IllegalArgumentException("Snapshot was taken from a different game or level");
+        }
+        pacmanStore.restoreState(x, y, velocityX, velocityY, direction, 0);
+        ghostStore.restoreState(x, y, velocityX, velocityY, direction, 1);
+        level.restoreFoodChanges(foodWordIndices, foodWords, foodChangeCount);
+
+        gameState.setScore(score);
+        gameState.setLives(lives);
+        gameState.setGameOver(gameOver);
+        gameState.setPaused(paused);
+        if (hasRandomState) {
+            ((SeededRandom) gameState.getRandom()).setState(randomState);
+        }
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Number of creatures, Pacman included
+     */
+    public int getCreatureCount() {
+        return creatureCount;
+    }
+
+    public int getX(int creature) {
+        return x[creature];
+    }
+
+    public int getY(int creature) {
+        return y[creature];
+    }
+
+    /**
+     * Number of food bitset words stored, i.e. that differ from the level's initial food
+     */
+    public int getFoodChangeCount() {
+        return foodChangeCount;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Whether the RNG state was captured. Only a SeededRandom exposes its state.
+     */
+    public boolean hasRandomState() {
+        return hasRandomState;
+    }
+
+    /**
+     * Whether the snapshot was taken through GameEngine and holds the engine's state
+     */
+    public boolean hasEngineState() {
+        return hasEngineState;
+    }
+
+    /**
+     * Turn held for a gap in the wall, or null
+     */
+    public Direction getBufferedTurn() {
+        return bufferedTurn;
+    }
+
+    public long getGhostPhaseTicks() {
+        return ghostPhaseTicks;
+    }
+
+    public int getLevelsCompleted() {
+        return levelsCompleted;
+    }
+
+    public int getLastLevelScore() {
+        return lastLevelScore;
+    }
+
+    public int getDeaths() {
+        return deaths;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.game;
+
+import org.example.util.Direction;
+
+/**
+ * Game layer: TurnListener
+ * Told about every queued turn the engine picks up, e.g. to record it for replay.
+ * Game layer - no Swing dependencies.
+ */
+public interface TurnListener {
+
+    /**
+     * @param tick  number of simulated ticks before the one the turn takes effect in
+     * @param turn  the turn as queued
+     */
+    void onTurn(long tick, Direction turn);
+}
@@ -9,17 +9,28 @@ import java.awt.event.KeyListener;
 /**
  * Input layer: InputController
  * Handles keyboard input and translates it to game commands.
+ * Turns go through the engine's lock-free input queue, so the engine may run on another thread.
  * Input layer - processes KeyEvent, translates to GameEngine commands.
  */
 public class InputController implements KeyListener {
     private final GameEngine gameEngine;
     private final Runnable onPauseToggle;
     private final Runnable onRestart;
+    private final Runnable onOverlayToggle;
 
     public InputController(GameEngine gameEngine, Runnable onPauseToggle, Runnable onRestart) {
+        this(gameEngine, onPauseToggle, onRestart, null);
+    }
+
+    /**
+     * @param onOverlayToggle run on F3, also when the game is over
+     */
+    public InputController(GameEngine gameEngine, Runnable onPauseToggle, Runnable onRestart,
+                           Runnable onOverlayToggle) {
         this.gameEngine = gameEngine;
         this.onPauseToggle = onPauseToggle;
         this.onRestart = onRestart;
+        this.onOverlayToggle = onOverlayToggle;
     }
 
     @Override
@@ -34,6 +45,12 @@ public class InputController implements KeyListener {
 
     @Override
     public void keyReleased(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_F3) {
+            if (onOverlayToggle != null) {
+                onOverlayToggle.run();
+            }
+            return;
+        }
         if (gameEngine.getGameState().isGameOver()) {
             if (onRestart != null) {
                 onRestart.run();
@@ -44,17 +61,22 @@ public class InputController implements KeyListener {
         int keyCode = e.getKeyCode();
         
         if (keyCode == KeyEvent.VK_UP) {
-            gameEngine.getGameState().getPacman().updateDirection(Direction.UP);
+            turn(Direction.UP);
         } else if (keyCode == KeyEvent.VK_DOWN) {
-            gameEngine.getGameState().getPacman().updateDirection(Direction.DOWN);
+            turn(Direction.DOWN);
         } else if (keyCode == KeyEvent.VK_LEFT) {
-            gameEngine.getGameState().getPacman().updateDirection(Direction.LEFT);
+            turn(Direction.LEFT);
         } else if (keyCode == KeyEvent.VK_RIGHT) {
-            gameEngine.getGameState().getPacman().updateDirection(Direction.RIGHT);
+            turn(Direction.RIGHT);
         } else if (keyCode == KeyEvent.VK_SPACE) {
             if (onPauseToggle != null) {
                 onPauseToggle.run();
             }
         }
     }
+
+    private void turn(Direction direction) {
+        // A full queue means the engine is stalled; dropping the key is the best we can do
+        gameEngine.getInputQueue().offer(direction, System.nanoTime());
+    }
 }
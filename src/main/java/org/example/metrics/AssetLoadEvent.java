@@ -0,0 +1,44 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Metrics layer: AssetLoadEvent
+ * Flight Recorder event for loading an image or sound from the resources.
+ * Metrics layer - no Swing dependencies.
+ */
+@Name("org.example.pacman.AssetLoad")
+@Label("Asset Load")
+@Category({"Pacman", "Assets"})
+@Description("Loading of an image or sound resource")
+public class AssetLoadEvent extends jdk.jfr.Event {
+    public static final String IMAGE = "image";
+    public static final String SOUND = "sound";
+
+    @Label("Resource")
+    String resource;
+
+    @Label("Kind")
+    @Description("image or sound")
+    String kind;
+
+    @Label("Loaded")
+    @Description("False when the resource was missing or could not be decoded")
+    boolean loaded;
+
+    /**
+     * End the event and commit it if the recording wants it
+     */
+    public void finish(String resource, String kind, boolean loaded) {
+        end();
+        if (shouldCommit()) {
+            this.resource = resource;
+            this.kind = kind;
+            this.loaded = loaded;
+            commit();
+        }
+    }
+}
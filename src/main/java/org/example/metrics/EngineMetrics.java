@@ -0,0 +1,148 @@
+package org.example.metrics;
+
+/**
+ * Metrics layer: EngineMetrics
+ * Tick counters and latency histograms for one GameEngine, attached with
+ * GameEngine.setMetrics(). An engine without metrics pays a single null check per tick.
+ * <p>
+ * Reading the clock costs about as much as a small tick, so only one tick in
+ * samplePeriod is timed: its whole update and each of its phases. The counters cover
+ * every tick. With the default period the cost stays well under 1% of a tick on the classic maze.
+ * <p>
+ * Written by the thread calling update(); readers on other threads see recent,
+ * not necessarily consistent, values. Publish them with report(), or as JMX MBeans
+ * with MetricsMBeans.register().
+ * Metrics layer - no Swing dependencies.
+ */
+public class EngineMetrics {
+    /**
+     * Default number of ticks per timed tick
+     */
+    public static final int DEFAULT_SAMPLE_PERIOD = 128;
+
+    private static final TickPhase[] PHASES = TickPhase.values();
+
+    private final int samplePeriod;
+    private final int sampleMask;
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+    private final LatencyHistogram[] phaseLatency = new LatencyHistogram[PHASES.length];
+    private long ticks;
+    private long ghostCollisions;
+    private long foodEaten;
+    private long levelResets;
+
+    public EngineMetrics() {
+        this(DEFAULT_SAMPLE_PERIOD);
+    }
+
+    /**
+     * @param samplePeriod time one tick in this many, a power of two; 1 times every tick
+     */
+    public EngineMetrics(int samplePeriod) {
+        if (samplePeriod <= 0 || Integer.bitCount(samplePeriod) != 1) {
+            throw new IllegalArgumentException("Sample period must be a power of two: " + samplePeriod);
+        }
+        this.samplePeriod = samplePeriod;
+        this.sampleMask = samplePeriod - 1;
+        for (TickPhase phase : PHASES) {
+            phaseLatency[phase.ordinal()] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Count a tick
+     *
+     * @return whether to time it
+     */
+    public boolean beginTick() {
+        return (ticks++ & sampleMask) == 0;
+    }
+
+    public void recordTick(long nanos) {
+        tickLatency.record(nanos);
+    }
+
+    public void recordPhase(TickPhase phase, long nanos) {
+        phaseLatency[phase.ordinal()].record(nanos);
+    }
+
+    public void countGhostCollision() {
+        ghostCollisions++;
+    }
+
+    public void countFoodEaten() {
+        foodEaten++;
+    }
+
+    public void countLevelReset() {
+        levelResets++;
+    }
+
+    public int getSamplePeriod() {
+        return samplePeriod;
+    }
+
+    /**
+     * Ticks that advanced the game since the metrics were attached or reset
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Times a ghost caught Pacman
+     */
+    public long getGhostCollisions() {
+        return ghostCollisions;
+    }
+
+    public long getFoodEaten() {
+        return foodEaten;
+    }
+
+    /**
+     * Times the level was cleared and restarted
+     */
+    public long getLevelResets() {
+        return levelResets;
+    }
+
+    /**
+     * Latency of the timed ticks, all phases together
+     */
+    public LatencyHistogram getTickLatency() {
+        return tickLatency;
+    }
+
+    public LatencyHistogram getPhaseLatency(TickPhase phase) {
+        return phaseLatency[phase.ordinal()];
+    }
+
+    /**
+     * Write every counter and histogram to the sink
+     */
+    public void report(MetricsSink sink) {
+        sink.counter("ticks", ticks);
+        sink.counter("ghostCollisions", ghostCollisions);
+        sink.counter("foodEaten", foodEaten);
+        sink.counter("levelResets", levelResets);
+        sink.latency("tick", tickLatency);
+        for (TickPhase phase : PHASES) {
+            sink.latency(phase.getMetricName(), phaseLatency[phase.ordinal()]);
+        }
+    }
+
+    /**
+     * Start counting again from zero. Call from the thread calling update().
+     */
+    public void reset() {
+        ticks = 0;
+        ghostCollisions = 0;
+        foodEaten = 0;
+        levelResets = 0;
+        tickLatency.reset();
+        for (LatencyHistogram histogram : phaseLatency) {
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.metrics;
+
+/**
+ * Metrics layer: EngineMetricsMXBean
+ * JMX view of an engine's counters, registered by MetricsMBeans.
+ * Metrics layer - no Swing dependencies.
+ */
+public interface EngineMetricsMXBean {
+
+    long getTicks();
+
+    long getGhostCollisions();
+
+    long getFoodEaten();
+
+    long getLevelResets();
+
+    /**
+     * Number of ticks per timed tick
+     */
+    int getSamplePeriod();
+}
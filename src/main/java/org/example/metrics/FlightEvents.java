@@ -0,0 +1,58 @@
+package org.example.metrics;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Metrics layer: FlightEvents
+ * Entry point for the Flight Recorder events of this package. On JDK 17 loading the first
+ * event class starts up Flight Recorder's metadata, which takes a few hundred milliseconds,
+ * so event classes are only touched once Flight Recorder is running, whether started with
+ * -XX:StartFlightRecording or later with jcmd. Until then the begin methods return null
+ * and isTickRecorded() is a single static read.
+ * Metrics layer - no Swing dependencies.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    /**
+     * Whether a recording wants tick events
+     */
+    public static boolean isTickRecorded() {
+        return FlightRecorder.isInitialized() && TickEvent.isRecorded();
+    }
+
+    /**
+     * Begun tick event, or null when Flight Recorder is not running
+     */
+    public static TickEvent beginTick() {
+        return FlightRecorder.isInitialized() ? begin(new TickEvent()) : null;
+    }
+
+    /**
+     * Begun level load event, or null when Flight Recorder is not running
+     */
+    public static LevelLoadEvent beginLevelLoad() {
+        return FlightRecorder.isInitialized() ? begin(new LevelLoadEvent()) : null;
+    }
+
+    /**
+     * Begun asset load event, or null when Flight Recorder is not running
+     */
+    public static AssetLoadEvent beginAssetLoad() {
+        return FlightRecorder.isInitialized() ? begin(new AssetLoadEvent()) : null;
+    }
+
+    /**
+     * Begun game reset event, or null when Flight Recorder is not running
+     */
+    public static GameResetEvent beginGameReset() {
+        return FlightRecorder.isInitialized() ? begin(new GameResetEvent()) : null;
+    }
+
+    private static <T extends jdk.jfr.Event> T begin(T event) {
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Metrics layer: GameResetEvent
+ * Flight Recorder event for a game starting over: a new game, or the level
+ * restarting in place after it was cleared.
+ * Metrics layer - no Swing dependencies.
+ */
+@Name("org.example.pacman.GameReset")
+@Label("Game Reset")
+@Category({"Pacman", "Game"})
+@Description("A new game, or the level restarting after it was cleared")
+@StackTrace(false)
+public class GameResetEvent extends jdk.jfr.Event {
+    public static final String NEW_GAME = "newGame";
+    public static final String LEVEL_RESTART = "levelRestart";
+
+    @Label("Kind")
+    @Description("newGame or levelRestart")
+    String kind;
+
+    @Label("Final Score")
+    @Description("Score just before the reset")
+    int finalScore;
+
+    @Label("Lives Left")
+    @Description("Lives just before the reset")
+    int livesLeft;
+
+    /**
+     * End the event and commit it if the recording wants it
+     */
+    public void finish(String kind, int finalScore, int livesLeft) {
+        end();
+        if (shouldCommit()) {
+            this.kind = kind;
+            this.finalScore = finalScore;
+            this.livesLeft = livesLeft;
+            commit();
+        }
+    }
+}
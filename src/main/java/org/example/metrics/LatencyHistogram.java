@@ -0,0 +1,138 @@
+package org.example.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Metrics layer: LatencyHistogram
+ * Log-linear histogram of durations in nanoseconds, laid out like HdrHistogram:
+ * values below 256 have a bucket each, and every power of two above that is split into
+ * 128 equal buckets, so any recorded value is known to within 1/128 (under 0.8%).
+ * Values from 0 to HIGHEST_TRACKABLE_NANOS (about 68 s) fit in 3840 counters; longer
+ * ones are counted as the highest trackable value.
+ * Recording is a few shifts and one array increment, with no allocation and no locking.
+ * A histogram has a single writer; readers on other threads see recent, not necessarily
+ * consistent, values.
+ * Metrics layer - no Swing dependencies.
+ */
+public class LatencyHistogram {
+    /**
+     * Largest value told apart from the ones below it
+     */
+    public static final long HIGHEST_TRACKABLE_NANOS = (1L << 36) - 1;
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+
+    private final long[] counts = new long[indexOf(HIGHEST_TRACKABLE_NANOS) + 1];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Add one value; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Bucket of a value: below 256 the value itself, above that 128 buckets per power of two
+     */
+    static int indexOf(long value) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (int) (HALF_SUB_BUCKETS * shift + (value >>> shift));
+    }
+
+    /**
+     * Smallest value that falls in a bucket
+     */
+    static long lowestValueAt(int index) {
+        int shift = index < 2 * HALF_SUB_BUCKETS ? 0 : index / HALF_SUB_BUCKETS - 1;
+        return (long) (index - HALF_SUB_BUCKETS * shift) << shift;
+    }
+
+    /**
+     * Largest value that falls in a bucket
+     */
+    static long highestValueAt(int index) {
+        return lowestValueAt(index + 1) - 1;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Smallest recorded value, or 0 when empty
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Value that the given percentage of recorded values are at or below, e.g. 99.9.
+     * Reported as the top of its bucket, but never above the largest recorded value.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile out of range: " + percentile);
+        }
+        long total = count;
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Add all values recorded by another histogram
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        if (other.count > 0) {
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    /**
+     * Forget all recorded values. Call from the writing thread.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.metrics;
+
+/**
+ * Metrics layer: LatencyMXBean
+ * JMX view of a latency histogram, registered by MetricsMBeans. Values are in nanoseconds.
+ * Metrics layer - no Swing dependencies.
+ */
+public interface LatencyMXBean {
+
+    long getCount();
+
+    double getMeanNanos();
+
+    long getMinNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    long getMaxNanos();
+}
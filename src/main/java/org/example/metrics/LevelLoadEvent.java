@@ -0,0 +1,76 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Metrics layer: LevelLoadEvent
+ * Flight Recorder event for the expensive steps of getting a maze ready: reading and
+ * compiling a level file or tile map, generating a maze, and building the tiles of a
+ * maze for a tile size. Loads answered from the compiled maze cache are marked as hits.
+ * Metrics layer - no Swing dependencies.
+ */
+@Name("org.example.pacman.LevelLoad")
+@Label("Level Load")
+@Category({"Pacman", "World"})
+@Description("Loading, compiling or generating a maze, or building its tiles")
+@StackTrace(false)
+public class LevelLoadEvent extends jdk.jfr.Event {
+    public static final String FILE = "file";
+    public static final String RESOURCE = "resource";
+    public static final String BUFFER = "buffer";
+    public static final String TILE_MAP = "tile map";
+    public static final String GENERATED = "generated";
+    public static final String TILES = "tiles";
+
+    @Label("Kind")
+    @Description("file, resource, buffer, tile map, generated or tiles")
+    String kind;
+
+    @Label("Source")
+    @Description("File or resource the level was read from, if any")
+    String source;
+
+    @Label("Rows")
+    int rowCount;
+
+    @Label("Columns")
+    int columnCount;
+
+    @Label("Tile Size")
+    @Description("Tile size the tiles were built for, 0 for other kinds")
+    int tileSize;
+
+    @Label("Food")
+    int foodCount;
+
+    @Label("Content Hash")
+    @Description("Hash of the map text, the key of the compiled maze cache")
+    long contentHash;
+
+    @Label("Cache Hit")
+    @Description("Whether the compiled maze came from the cache instead of being compiled")
+    boolean cacheHit;
+
+    /**
+     * End the event and commit it if the recording wants it
+     */
+    public void finish(String kind, String source, int rowCount, int columnCount, int tileSize, int foodCount,
+                       long contentHash, boolean cacheHit) {
+        end();
+        if (shouldCommit()) {
+            this.kind = kind;
+            this.source = source;
+            this.rowCount = rowCount;
+            this.columnCount = columnCount;
+            this.tileSize = tileSize;
+            this.foodCount = foodCount;
+            this.contentHash = contentHash;
+            this.cacheHit = cacheHit;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Metrics layer: MetricsMBeans
+ * Publishes EngineMetrics on the platform MBean server, for jconsole, VisualVM or a JMX exporter:
+ * the counters as {@code org.example.pacman:type=Engine,name=NAME} and each latency histogram as
+ * {@code org.example.pacman:type=Engine,name=NAME,latency=tick} (or the phase name).
+ * Metrics layer - no Swing dependencies.
+ */
+public final class MetricsMBeans {
+    public static final String DOMAIN = "org.example.pacman";
+
+    private MetricsMBeans() {
+    }
+
+    /**
+     * Register an engine's metrics under the given name
+     *
+     * @throws IllegalArgumentException if the name is taken
+     */
+    public static void register(String name, EngineMetrics metrics) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new EngineBean(metrics), engineName(name));
+            server.registerMBean(new LatencyBean(metrics.getTickLatency()), latencyName(name, "tick"));
+            for (TickPhase phase : TickPhase.values()) {
+                server.registerMBean(new LatencyBean(metrics.getPhaseLatency(phase)),
+                    latencyName(name, phase.getMetricName()));
+            }
+        } catch (InstanceAlreadyExistsException e) {
+            unregister(name);
+            throw new IllegalArgumentException("Metrics already registered as " + name, e);
+        } catch (JMException e) {
+            unregister(name);
+            throw new IllegalStateException("Could not register metrics " + name, e);
+        }
+    }
+
+    /**
+     * Remove all MBeans registered under the given name; nothing happens if there are none
+     */
+    public static void unregister(String name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName pattern = new ObjectName(engineName(name) + ",*");
+            for (ObjectName objectName : server.queryNames(pattern, null)) {
+                server.unregisterMBean(objectName);
+            }
+            if (server.isRegistered(engineName(name))) {
+                server.unregisterMBean(engineName(name));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister metrics " + name, e);
+        }
+    }
+
+    public static ObjectName engineName(String name) throws MalformedObjectNameException {
+        return new ObjectName(DOMAIN + ":type=Engine,name=" + ObjectName.quote(name));
+    }
+
+    public static ObjectName latencyName(String name, String latency) throws MalformedObjectNameException {
+        return new ObjectName(engineName(name) + ",latency=" + latency);
+    }
+
+    private static final class EngineBean implements EngineMetricsMXBean {
+        private final EngineMetrics metrics;
+
+        EngineBean(EngineMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public long getTicks() {
+            return metrics.getTicks();
+        }
+
+        @Override
+        public long getGhostCollisions() {
+            return metrics.getGhostCollisions();
+        }
+
+        @Override
+        public long getFoodEaten() {
+            return metrics.getFoodEaten();
+        }
+
+        @Override
+        public long getLevelResets() {
+            return metrics.getLevelResets();
+        }
+
+        @Override
+        public int getSamplePeriod() {
+            return metrics.getSamplePeriod();
+        }
+    }
+
+    private static final class LatencyBean implements LatencyMXBean {
+        private final LatencyHistogram histogram;
+
+        LatencyBean(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getMinNanos() {
+            return histogram.getMin();
+        }
+
+        @Override
+        public long getP50Nanos() {
+            return histogram.getValueAtPercentile(50);
+        }
+
+        @Override
+        public long getP90Nanos() {
+            return histogram.getValueAtPercentile(90);
+        }
+
+        @Override
+        public long getP99Nanos() {
+            return histogram.getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getP999Nanos() {
+            return histogram.getValueAtPercentile(99.9);
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return histogram.getMax();
+        }
+    }
+}
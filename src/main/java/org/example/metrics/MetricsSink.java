@@ -0,0 +1,17 @@
+package org.example.metrics;
+
+/**
+ * Metrics layer: MetricsSink
+ * Destination for a metrics report, e.g. a log, a file or a monitoring agent.
+ * EngineMetrics.report() calls it once per counter and once per histogram.
+ * Metrics layer - no Swing dependencies.
+ */
+public interface MetricsSink {
+
+    void counter(String name, long value);
+
+    /**
+     * A latency histogram; only valid during the call
+     */
+    void latency(String name, LatencyHistogram histogram);
+}
@@ -0,0 +1,88 @@
+package org.example.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Metrics layer: RollingWindow
+ * The most recent samples of a measurement, e.g. the last 256 frame times, in a ring buffer.
+ * Unlike LatencyHistogram it forgets old values, so it shows how things are going right now.
+ * Percentiles are exact: the window is copied into a scratch array and sorted, which is
+ * cheap for a few hundred samples and does not allocate.
+ * Not thread-safe; use from one thread.
+ * Metrics layer - no Swing dependencies.
+ */
+public class RollingWindow {
+    private final long[] samples;
+    private final long[] sorted;
+    private int next;
+    private int size;
+    private boolean sortedValid;
+
+    public RollingWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.samples = new long[capacity];
+        this.sorted = new long[capacity];
+    }
+
+    /**
+     * Add a sample, replacing the oldest one when the window is full
+     */
+    public void add(long value) {
+        samples[next] = value;
+        next = next + 1 == samples.length ? 0 : next + 1;
+        if (size < samples.length) {
+            size++;
+        }
+        sortedValid = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return samples.length;
+    }
+
+    /**
+     * Sample at or below which the given percentage of the window lies, or 0 when empty
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile out of range: " + percentile);
+        }
+        if (size == 0) {
+            return 0;
+        }
+        if (!sortedValid) {
+            System.arraycopy(samples, 0, sorted, 0, size);
+            Arrays.sort(sorted, 0, size);
+            sortedValid = true;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    public long max() {
+        return percentile(100);
+    }
+
+    public double mean() {
+        if (size == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += samples[i];
+        }
+        return (double) sum / size;
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+        sortedValid = false;
+    }
+}
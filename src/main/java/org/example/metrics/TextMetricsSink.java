@@ -0,0 +1,32 @@
+package org.example.metrics;
+
+import java.io.PrintStream;
+
+/**
+ * Metrics layer: TextMetricsSink
+ * Writes a report as one line per metric, latencies in microseconds:
+ * {@code moveGhosts count=1200 mean=1.4 p50=1.3 p99=3.1 p99.9=8.0 max=12.5}
+ * Metrics layer - no Swing dependencies.
+ */
+public class TextMetricsSink implements MetricsSink {
+    private final PrintStream out;
+
+    public TextMetricsSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void counter(String name, long value) {
+        out.println(name + "=" + value);
+    }
+
+    @Override
+    public void latency(String name, LatencyHistogram histogram) {
+        out.printf("%s count=%d mean=%.1f p50=%.1f p99=%.1f p99.9=%.1f max=%.1f%n", name,
+            histogram.getCount(), histogram.getMean() / 1000,
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getValueAtPercentile(99.9) / 1000.0,
+            histogram.getMax() / 1000.0);
+    }
+}
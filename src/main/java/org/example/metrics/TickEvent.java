@@ -0,0 +1,82 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Metrics layer: TickEvent
+ * Flight Recorder event for one GameEngine tick, with the time spent in each phase.
+ * By default only ticks over the 50 ms budget of a 20 ticks per second game are recorded;
+ * lower the threshold in the recording settings to see them all. While a recording has the
+ * event enabled every tick is timed and allocates its event, so expect ticks to cost a little more;
+ * otherwise the engine only checks FlightEvents.isTickRecorded().
+ * Metrics layer - no Swing dependencies.
+ */
+@Name("org.example.pacman.Tick")
+@Label("Game Tick")
+@Category({"Pacman", "Game"})
+@Description("One simulated tick of a game engine")
+@Threshold("50 ms")
+@StackTrace(false)
+public class TickEvent extends jdk.jfr.Event {
+    // Never committed; only asked whether the event is enabled, which reads shared state
+    private static final TickEvent PROBE = new TickEvent();
+
+    @Label("Tick")
+    @Description("Number of the tick in the engine, from 1")
+    long tick;
+
+    @Label("Creatures")
+    @Description("Pacman and the ghosts")
+    int creatureCount;
+
+    @Label("Move Pacman")
+    @Timespan
+    long movePacman;
+
+    @Label("Move Ghosts")
+    @Timespan
+    long moveGhosts;
+
+    @Label("Ghost Collisions")
+    @Timespan
+    long ghostCollisions;
+
+    @Label("Food Collisions")
+    @Timespan
+    long foodCollisions;
+
+    @Label("Level Complete")
+    @Timespan
+    long levelComplete;
+
+    /**
+     * Whether a recording has the event enabled. Unlike creating an event to ask, this does not allocate.
+     */
+    static boolean isRecorded() {
+        return PROBE.isEnabled();
+    }
+
+    /**
+     * End the event and commit it if the recording wants it, with phase times in nanoseconds
+     */
+    public void finish(long tick, int creatureCount, long movePacman, long moveGhosts,
+                       long ghostCollisions, long foodCollisions, long levelComplete) {
+        end();
+        if (shouldCommit()) {
+            this.tick = tick;
+            this.creatureCount = creatureCount;
+            this.movePacman = movePacman;
+            this.moveGhosts = moveGhosts;
+            this.ghostCollisions = ghostCollisions;
+            this.foodCollisions = foodCollisions;
+            this.levelComplete = levelComplete;
+            commit();
+        }
+    }
+}
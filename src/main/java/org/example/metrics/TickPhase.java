@@ -0,0 +1,27 @@
+package org.example.metrics;
+
+/**
+ * Metrics layer: TickPhase
+ * The steps of one GameEngine tick, in the order they run.
+ * Metrics layer - no Swing dependencies.
+ */
+public enum TickPhase {
+    MOVE_PACMAN("movePacman"),
+    MOVE_GHOSTS("moveGhosts"),
+    GHOST_COLLISIONS("checkGhostCollisions"),
+    FOOD_COLLISIONS("checkFoodCollisions"),
+    LEVEL_COMPLETE("checkLevelComplete");
+
+    private final String metricName;
+
+    TickPhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Name used for the phase by metrics sinks and JMX
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,237 @@
+package org.example.net;
+
+import org.example.entity.CreatureType;
+import org.example.util.CellBits;
+import org.example.util.Direction;
+import org.example.util.Varint;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Network layer: StateDecoder
+ * Rebuilds a client-side view of a game from the state stream written by StateEncoder.
+ * Until it has seen a level header and a keyframe the view is not synced and deltas are skipped.
+ * Network layer - no Swing dependencies.
+ */
+public class StateDecoder {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final CreatureType[] TYPES = CreatureType.values();
+
+    private boolean hasLevel;
+    private boolean synced;
+
+    private int rowCount;
+    private int columnCount;
+    private int tileSize;
+    private int quantum;
+    private byte[] tiles = new byte[0];
+    private long[] foodBits = new long[0];
+
+    private int creatureCount;
+    private byte[] types = new byte[0];
+    private int[] x = new int[0];
+    private int[] y = new int[0];
+    private byte[] direction = new byte[0];
+
+    private long tick;
+    private int score;
+    private int lives;
+    private int flags;
+
+    /**
+     * Apply the next message of the stream
+     *
+     * @return false if the message was a delta skipped because the view is not synced yet
+     */
+    public boolean decode(ByteBuffer in) {
+        byte type = in.get();
+        switch (type) {
+            case StreamFormat.LEVEL_HEADER:
+                readHeader(in);
+                return true;
+            case StreamFormat.KEYFRAME:
+                if (!hasLevel) {
+                    throw new IllegalStateException("Keyframe before level header");
+                }
+                readKeyframe(in);
+                return true;
+            case StreamFormat.DELTA:
+                if (!synced) {
+                    readDelta(in, false);
+                    return false;
+                }
+                readDelta(in, true);
+                return true;
+            default:
+                throw new IllegalArgumentException("Unknown message type: " + type);
+        }
+    }
+
+    private void readHeader(ByteBuffer in) {
+        rowCount = (int) Varint.read(in);
+        columnCount = (int) Varint.read(in);
+        tileSize = (int) Varint.read(in);
+        quantum = StreamFormat.quantum(tileSize);
+        creatureCount = (int) Varint.read(in);
+        types = new byte[creatureCount];
+        in.get(types);
+        x = new int[creatureCount];
+        y = new int[creatureCount];
+        direction = new byte[creatureCount];
+
+        int cells = rowCount * columnCount;
+        tiles = new byte[cells];
+        int packed = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if ((cell & 3) == 0) {
+                packed = in.get() & 0xFF;
+            }
+            tiles[cell] = (byte) ((packed >>> (2 * (cell & 3))) & 3);
+        }
+        foodBits = new long[CellBits.wordCount(cells)];
+        hasLevel = true;
+        synced = false;
+    }
+
+    private void readKeyframe(ByteBuffer in) {
+        tick = Varint.read(in);
+        score = (int) Varint.unzigzag(Varint.read(in));
+        lives = (int) Varint.unzigzag(Varint.read(in));
+        flags = in.get();
+        for (int i = 0; i < creatureCount; i++) {
+            long packedX = Varint.read(in);
+            x[i] = (int) Varint.unzigzag(packedX >>> 2);
+            direction[i] = (byte) (packedX & 3);
+            y[i] = (int) Varint.unzigzag(Varint.read(in));
+        }
+        for (int w = 0; w < foodBits.length; w++) {
+            foodBits[w] = in.getLong();
+        }
+        synced = true;
+    }
+
+    /**
+     * Read a delta, applying it only if asked to
+     */
+    private void readDelta(ByteBuffer in, boolean apply) {
+        long tickDelta = Varint.read(in);
+        int changes = in.get();
+        long moved = Varint.read(in);
+        for (int i = 0; moved != 0; i++, moved >>>= 1) {
+            if ((moved & 1) == 0) {
+                continue;
+            }
+            long packedX = Varint.read(in);
+            long dy = Varint.unzigzag(Varint.read(in));
+            if (apply) {
+                x[i] += (int) Varint.unzigzag(packedX >>> 2);
+                y[i] += (int) dy;
+                direction[i] = (byte) (packedX & 3);
+            }
+        }
+        if ((changes & StreamFormat.CHANGED_SCORE) != 0) {
+            long delta = Varint.unzigzag(Varint.read(in));
+            if (apply) {
+                score += (int) delta;
+            }
+        }
+        if ((changes & StreamFormat.CHANGED_LIVES) != 0) {
+            long delta = Varint.unzigzag(Varint.read(in));
+            if (apply) {
+                lives += (int) delta;
+            }
+        }
+        if ((changes & StreamFormat.CHANGED_FLAGS) != 0) {
+            int newFlags = in.get();
+            if (apply) {
+                flags = newFlags;
+            }
+        }
+        if ((changes & StreamFormat.CHANGED_FOOD) != 0) {
+            int eaten = (int) Varint.read(in);
+            int cell = 0;
+            for (int i = 0; i < eaten; i++) {
+                cell += (int) Varint.read(in);
+                if (apply) {
+                    CellBits.clear(foodBits, cell);
+                }
+            }
+        }
+        if (apply) {
+            tick += tickDelta;
+        }
+    }
+
+    /**
+     * Whether the view reflects the stream, i.e. a keyframe has been applied since the last header
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public boolean isWall(int row, int col) {
+        return tiles[row * columnCount + col] == StreamFormat.TILE_WALL;
+    }
+
+    public boolean hasFoodAt(int row, int col) {
+        return CellBits.get(foodBits, row * columnCount + col);
+    }
+
+    /**
+     * Number of creatures, Pacman first
+     */
+    public int getCreatureCount() {
+        return creatureCount;
+    }
+
+    public CreatureType getType(int creature) {
+        return TYPES[types[creature]];
+    }
+
+    /**
+     * Position in pixels, rounded down to the creature step
+     */
+    public int getX(int creature) {
+        return x[creature] * quantum;
+    }
+
+    public int getY(int creature) {
+        return y[creature] * quantum;
+    }
+
+    public Direction getDirection(int creature) {
+        return DIRECTIONS[direction[creature]];
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public boolean isPaused() {
+        return (flags & StreamFormat.FLAG_PAUSED) != 0;
+    }
+
+    public boolean isGameOver() {
+        return (flags & StreamFormat.FLAG_GAME_OVER) != 0;
+    }
+}
@@ -0,0 +1,267 @@
+package org.example.net;
+
+import org.example.entity.CreatureStore;
+import org.example.entity.CreatureType;
+import org.example.game.GameState;
+import org.example.util.Varint;
+import org.example.world.Level;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Network layer: StateEncoder
+ * Turns a game into the state stream described in StreamFormat: a level header whenever
+ * the level changes, a keyframe every keyframeInterval ticks and a delta for every other tick.
+ * The encoder remembers what it last sent, quantized, so deltas never drift from what
+ * decoders hold. One encoder serves any number of receivers of the same stream;
+ * writeSync() brings a late joiner up to date. Encoding does not allocate.
+ * Network layer - no Swing dependencies.
+ */
+public class StateEncoder {
+    private final int keyframeInterval;
+
+    // The stream as decoders see it
+    private Level level;
+    private int quantum;
+    private int creatureCount;
+    private byte[] types = new byte[0];
+    private int[] sentX = new int[0];
+    private int[] sentY = new int[0];
+    private byte[] sentDirection = new byte[0];
+    private long[] sentFood = new long[0];
+    private int sentFoodCount;
+    private int sentScore;
+    private int sentLives;
+    private int sentFlags;
+    private long lastTick;
+    private long lastKeyframeTick;
+
+    // Creature positions of the tick being encoded
+    private int[] nextX = new int[0];
+    private int[] nextY = new int[0];
+    private byte[] nextDirection = new byte[0];
+
+    public StateEncoder(int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be at least 1: " + keyframeInterval);
+        }
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * Encode the state after a tick: header and keyframe for a new level, a keyframe when one
+     * is due or a delta cannot express the change, otherwise a delta.
+     *
+     * @param tick increasing tick number
+     * @param out  buffer with room for at least maxMessageBytes() for the game's level
+     */
+    public void encode(GameState gameState, long tick, ByteBuffer out) {
+        Level currentLevel = gameState.getLevel();
+        int count = 1 + gameState.getGhostStore().size();
+        captureCreatures(gameState, currentLevel, count);
+
+        if (currentLevel != level || count != creatureCount) {
+            startLevel(gameState, currentLevel, count);
+            lastTick = tick;
+            takeState(gameState);
+            writeHeader(out);
+            writeKeyframe(out);
+        } else if (tick - lastKeyframeTick >= keyframeInterval || count > StreamFormat.MAX_DELTA_CREATURES
+            || foodAdded()) {
+            lastTick = tick;
+            takeState(gameState);
+            writeKeyframe(out);
+        } else {
+            writeDelta(gameState, tick, out);
+        }
+    }
+
+    /**
+     * Write the level header and a keyframe of the last encoded tick, for a receiver joining now
+     */
+    public void writeSync(ByteBuffer out) {
+        if (level == null) {
+            throw new IllegalStateException("Nothing encoded yet");
+        }
+        writeHeader(out);
+        writeKeyframe(out);
+    }
+
+    /**
+     * Upper bound of the bytes one encode() or writeSync() call writes for a level
+     */
+    public static int maxMessageBytes(Level level, int creatureCount) {
+        int cells = level.getRowCount() * level.getColumnCount();
+        int header = 1 + 4 * Varint.MAX_BYTES + creatureCount + (cells + 3) / 4;
+        int keyframe = 1 + 3 * Varint.MAX_BYTES + 1 + 2 * Varint.MAX_BYTES * creatureCount
+            + 8 * level.getFoodWordCount();
+        int delta = 1 + 4 * Varint.MAX_BYTES + 2 + 2 * Varint.MAX_BYTES * creatureCount + Varint.MAX_BYTES * (cells + 1);
+        return header + Math.max(keyframe, delta);
+    }
+
+    private void startLevel(GameState gameState, Level newLevel, int count) {
+        level = newLevel;
+        quantum = StreamFormat.quantum(newLevel.getTileSize());
+        creatureCount = count;
+        types = new byte[count];
+        sentX = new int[count];
+        sentY = new int[count];
+        sentDirection = new byte[count];
+        sentFood = new long[newLevel.getFoodWordCount()];
+
+        types[0] = (byte) CreatureType.PACMAN.ordinal();
+        CreatureStore ghosts = gameState.getGhostStore();
+        for (int i = 0; i < ghosts.size(); i++) {
+            types[i + 1] = (byte) ghosts.getType(i).ordinal();
+        }
+    }
+
+    private void captureCreatures(GameState gameState, Level currentLevel, int count) {
+        if (nextX.length < count) {
+            nextX = new int[count];
+            nextY = new int[count];
+            nextDirection = new byte[count];
+        }
+        int q = StreamFormat.quantum(currentLevel.getTileSize());
+        nextX[0] = Math.floorDiv(gameState.getPacman().getX(), q);
+        nextY[0] = Math.floorDiv(gameState.getPacman().getY(), q);
+        nextDirection[0] = (byte) gameState.getPacman().getDirection().ordinal();
+        CreatureStore ghosts = gameState.getGhostStore();
+        for (int i = 0; i < ghosts.size(); i++) {
+            nextX[i + 1] = Math.floorDiv(ghosts.getX(i), q);
+            nextY[i + 1] = Math.floorDiv(ghosts.getY(i), q);
+            nextDirection[i + 1] = (byte) ghosts.getDirection(i).ordinal();
+        }
+    }
+
+    private void takeState(GameState gameState) {
+        System.arraycopy(nextX, 0, sentX, 0, creatureCount);
+        System.arraycopy(nextY, 0, sentY, 0, creatureCount);
+        System.arraycopy(nextDirection, 0, sentDirection, 0, creatureCount);
+        for (int w = 0; w < sentFood.length; w++) {
+            sentFood[w] = level.getFoodWord(w);
+        }
+        sentFoodCount = level.getFoodCount();
+        sentScore = gameState.getScore();
+        sentLives = gameState.getLives();
+        sentFlags = flags(gameState);
+        lastKeyframeTick = lastTick;
+    }
+
+    /**
+     * Food only comes back all at once when a level restarts, which always raises the count
+     */
+    private boolean foodAdded() {
+        return level.getFoodCount() > sentFoodCount;
+    }
+
+    private static int flags(GameState gameState) {
+        return (gameState.isPaused() ? StreamFormat.FLAG_PAUSED : 0)
+            | (gameState.isGameOver() ? StreamFormat.FLAG_GAME_OVER : 0);
+    }
+
+    private void writeHeader(ByteBuffer out) {
+        int rows = level.getRowCount();
+        int columns = level.getColumnCount();
+        out.put(StreamFormat.LEVEL_HEADER);
+        Varint.write(out, rows);
+        Varint.write(out, columns);
+        Varint.write(out, level.getTileSize());
+        Varint.write(out, creatureCount);
+        out.put(types, 0, creatureCount);
+
+        int packed = 0;
+        int shift = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int tile = level.isWall(r, c) ? StreamFormat.TILE_WALL
+                    : level.isFoodSpawn(r, c) ? StreamFormat.TILE_FOOD : StreamFormat.TILE_OPEN;
+                packed |= tile << shift;
+                shift += 2;
+                if (shift == 8) {
+                    out.put((byte) packed);
+                    packed = 0;
+                    shift = 0;
+                }
+            }
+        }
+        if (shift != 0) {
+            out.put((byte) packed);
+        }
+    }
+
+    private void writeKeyframe(ByteBuffer out) {
+        out.put(StreamFormat.KEYFRAME);
+        Varint.write(out, lastTick);
+        Varint.write(out, Varint.zigzag(sentScore));
+        Varint.write(out, Varint.zigzag(sentLives));
+        out.put((byte) sentFlags);
+        for (int i = 0; i < creatureCount; i++) {
+            Varint.write(out, Varint.zigzag(sentX[i]) << 2 | sentDirection[i]);
+            Varint.write(out, Varint.zigzag(sentY[i]));
+        }
+        for (long word : sentFood) {
+            out.putLong(word);
+        }
+    }
+
+    private void writeDelta(GameState gameState, long tick, ByteBuffer out) {
+        long moved = 0;
+        for (int i = 0; i < creatureCount; i++) {
+            if (nextX[i] != sentX[i] || nextY[i] != sentY[i] || nextDirection[i] != sentDirection[i]) {
+                moved |= 1L << i;
+            }
+        }
+        int score = gameState.getScore();
+        int lives = gameState.getLives();
+        int flags = flags(gameState);
+        int eaten = sentFoodCount - level.getFoodCount();
+        int changes = (score != sentScore ? StreamFormat.CHANGED_SCORE : 0)
+            | (lives != sentLives ? StreamFormat.CHANGED_LIVES : 0)
+            | (flags != sentFlags ? StreamFormat.CHANGED_FLAGS : 0)
+            | (eaten > 0 ? StreamFormat.CHANGED_FOOD : 0);
+
+        out.put(StreamFormat.DELTA);
+        Varint.write(out, tick - lastTick);
+        out.put((byte) changes);
+        Varint.write(out, moved);
+        for (int i = 0; i < creatureCount; i++) {
+            if ((moved & (1L << i)) != 0) {
+                Varint.write(out, Varint.zigzag(nextX[i] - sentX[i]) << 2 | nextDirection[i]);
+                Varint.write(out, Varint.zigzag(nextY[i] - sentY[i]));
+                sentX[i] = nextX[i];
+                sentY[i] = nextY[i];
+                sentDirection[i] = nextDirection[i];
+            }
+        }
+        if ((changes & StreamFormat.CHANGED_SCORE) != 0) {
+            Varint.write(out, Varint.zigzag((long) score - sentScore));
+            sentScore = score;
+        }
+        if ((changes & StreamFormat.CHANGED_LIVES) != 0) {
+            Varint.write(out, Varint.zigzag((long) lives - sentLives));
+            sentLives = lives;
+        }
+        if ((changes & StreamFormat.CHANGED_FLAGS) != 0) {
+            out.put((byte) flags);
+            sentFlags = flags;
+        }
+        if (eaten > 0) {
+            Varint.write(out, eaten);
+            int previousCell = 0;
+            for (int w = 0; w < sentFood.length; w++) {
+                long current = level.getFoodWord(w);
+                long removed = sentFood[w] & ~current;
+                while (removed != 0) {
+                    int cell = (w << 6) + Long.numberOfTrailingZeros(removed);
+                    Varint.write(out, cell - previousCell);
+                    previousCell = cell;
+                    removed &= removed - 1;
+                }
+                sentFood[w] = current;
+            }
+            sentFoodCount -= eaten;
+        }
+        lastTick = tick;
+    }
+}
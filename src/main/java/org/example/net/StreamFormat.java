@@ -0,0 +1,48 @@
+package org.example.net;
+
+/**
+ * Network layer: StreamFormat
+ * Message layout of the state stream. Every message starts with a type byte;
+ * numbers are varints (util.Varint), signed ones zigzag-encoded.
+ * Positions are quantized to the creature step (tileSize / 4).
+ *
+ * LEVEL_HEADER: rows, columns, tileSize, creature count, one type byte per creature,
+ *               then 2 bits per cell (TILE_*) packed four to a byte, row by row.
+ * KEYFRAME:     tick, score, lives, flags byte, per creature (zigzag(qx) << 2 | direction) and zigzag(qy),
+ *               then the food bitset as big-endian longs.
+ * DELTA:        tick delta, change byte (CHANGED_*), moved-creature bitmask, per moved creature
+ *               (zigzag(dqx) << 2 | direction) and zigzag(dqy), then whichever of score delta,
+ *               lives delta, flags byte and eaten food (count, then gaps between cell ids) changed.
+ *
+ * A decoder that joins late applies a header, then skips deltas until the next keyframe.
+ * Network layer - no Swing dependencies.
+ */
+final class StreamFormat {
+    static final byte LEVEL_HEADER = 1;
+    static final byte KEYFRAME = 2;
+    static final byte DELTA = 3;
+
+    static final int TILE_OPEN = 0;
+    static final int TILE_WALL = 1;
+    static final int TILE_FOOD = 2;
+
+    static final int CHANGED_SCORE = 1;
+    static final int CHANGED_LIVES = 1 << 1;
+    static final int CHANGED_FLAGS = 1 << 2;
+    static final int CHANGED_FOOD = 1 << 3;
+
+    static final int FLAG_PAUSED = 1;
+    static final int FLAG_GAME_OVER = 1 << 1;
+
+    /**
+     * Deltas address creatures through a non-negative long bitmask
+     */
+    static final int MAX_DELTA_CREATURES = 63;
+
+    private StreamFormat() {
+    }
+
+    static int quantum(int tileSize) {
+        return Math.max(1, tileSize / 4);
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.replay;
+
+import org.example.game.GameEngine;
+import org.example.game.GameState;
+import org.example.util.Varint;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replay layer: Replay
+ * Everything needed to play a game again exactly: RNG seed, level identity, engine
+ * options and the turn stream, plus the final outcome to check the playback against.
+ * Turns are stored as varints of (tickDelta << 2 | direction ordinal), at most one per tick,
+ * so a typical turn takes one or two bytes.
+ * Replay layer - no Swing dependencies.
+ */
+public final class Replay {
+    static final int MAGIC = 0x504D5250; // "PMRP"
+    static final byte VERSION = 1;
+
+    static final int FLAG_GHOST_AI = 1;
+    static final int FLAG_TURN_BUFFERING = 1 << 1;
+
+    private final long seed;
+    private final long levelHash;
+    private final int tileSize;
+    private final int flags;
+    private final long tickCount;
+    private final int finalScore;
+    private final int finalLives;
+    private final int turnCount;
+    private final byte[] turns;
+
+    Replay(long seed, long levelHash, int tileSize, int flags, long tickCount,
+           int finalScore, int finalLives, int turnCount, byte[] turns) {
+        this.seed = seed;
+        this.levelHash = levelHash;
+        this.tileSize = tileSize;
+        this.flags = flags;
+        this.tickCount = tickCount;
+        this.finalScore = finalScore;
+        this.finalLives = finalLives;
+        this.turnCount = turnCount;
+        this.turns = turns;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Content hash of the level template the game was played on
+     */
+    public long getLevelHash() {
+        return levelHash;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public boolean isGhostAI() {
+        return (flags & FLAG_GHOST_AI) != 0;
+    }
+
+    public boolean isTurnBuffering() {
+        return (flags & FLAG_TURN_BUFFERING) != 0;
+    }
+
+    /**
+     * Number of simulated ticks the recording covers
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    public int getFinalLives() {
+        return finalLives;
+    }
+
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Encoded turn stream, read by ReplayPlayer
+     */
+    ByteBuffer turnStream() {
+        return ByteBuffer.wrap(turns).asReadOnlyBuffer();
+    }
+
+    /**
+     * Whether a played-back game ended where the recorded one did
+     */
+    public boolean matches(GameEngine gameEngine) {
+        GameState gameState = gameEngine.getGameState();
+        return gameEngine.getSimulatedTicks() == tickCount
+            && gameState.getScore() == finalScore
+            && gameState.getLives() == finalLives;
+    }
+
+    /**
+     * Binary form: magic, version, seed, level hash, then varints for the rest
+     */
+    public byte[] toBytes() {
+        int size = 4 + 1 + 8 + 8 + 1
+            + Varint.size(tileSize) + Varint.size(tickCount) + Varint.size(finalScore)
+            + Varint.size(finalLives) + Varint.size(turnCount) + Varint.size(turns.length) + turns.length;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.putLong(seed);
+        buffer.putLong(levelHash);
+        buffer.put((byte) flags);
+        Varint.write(buffer, tileSize);
+        Varint.write(buffer, tickCount);
+        Varint.write(buffer, finalScore);
+        Varint.write(buffer, finalLives);
+        Varint.write(buffer, turnCount);
+        Varint.write(buffer, turns.length);
+        buffer.put(turns);
+        return buffer.array();
+    }
+
+    public static Replay fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a replay");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported replay version: " + version);
+            }
+            long seed = buffer.getLong();
+            long levelHash = buffer.getLong();
+            int flags = buffer.get() & 0xFF;
+            int tileSize = (int) Varint.read(buffer);
+            long tickCount = Varint.read(buffer);
+            int finalScore = (int) Varint.read(buffer);
+            int finalLives = (int) Varint.read(buffer);
+            int turnCount = (int) Varint.read(buffer);
+            byte[] turns = new byte[(int) Varint.read(buffer)];
+            buffer.get(turns);
+            return new Replay(seed, levelHash, tileSize, flags, tickCount, finalScore, finalLives, turnCount, turns);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated replay", e);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        Files.write(file, toBytes());
+    }
+
+    public static Replay read(Path file) throws IOException {
+        return fromBytes(Files.readAllBytes(file));
+    }
+}
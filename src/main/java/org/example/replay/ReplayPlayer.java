@@ -0,0 +1,67 @@
+package org.example.replay;
+
+import org.example.ai.GhostAI;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.InputQueue;
+import org.example.util.Direction;
+import org.example.util.Varint;
+import org.example.world.LevelTemplate;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Replay layer: ReplayPlayer
+ * Plays a replay back headlessly, as fast as the engine can tick.
+ * Turns go through the engine's input queue exactly as they did when recorded.
+ * Replay layer - no Swing dependencies.
+ */
+public final class ReplayPlayer {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private ReplayPlayer() {
+    }
+
+    /**
+     * Rebuild the recorded game and run it for the recorded number of ticks
+     *
+     * @return the engine after the last tick, to inspect or compare with Replay.matches()
+     */
+    public static GameEngine play(Replay replay, LevelTemplate levelTemplate) {
+        if (levelTemplate.getContentHash() != replay.getLevelHash()) {
+            throw new IllegalArgumentException("Replay was recorded on a different level: "
+                + Long.toHexString(replay.getLevelHash()) + " vs " + Long.toHexString(levelTemplate.getContentHash()));
+        }
+
+        GameEngine gameEngine = GameFactory.create(levelTemplate, replay.getTileSize(), replay.getSeed());
+        if (replay.isGhostAI()) {
+            gameEngine.setGhostAI(new GhostAI());
+        }
+        gameEngine.setTurnBuffering(replay.isTurnBuffering());
+
+        InputQueue inputQueue = gameEngine.getInputQueue();
+        ByteBuffer turns = replay.turnStream();
+        long nextTick = -1;
+        Direction nextTurn = null;
+        if (turns.hasRemaining()) {
+            long event = Varint.read(turns);
+            nextTick = event >>> 2;
+            nextTurn = DIRECTIONS[(int) (event & 3)];
+        }
+
+        for (long tick = 0; tick < replay.getTickCount(); tick++) {
+            if (tick == nextTick) {
+                inputQueue.offer(nextTurn, System.nanoTime());
+                if (turns.hasRemaining()) {
+                    long event = Varint.read(turns);
+                    nextTick += event >>> 2;
+                    nextTurn = DIRECTIONS[(int) (event & 3)];
+                } else {
+                    nextTick = -1;
+                }
+            }
+            gameEngine.update();
+        }
+        return gameEngine;
+    }
+}
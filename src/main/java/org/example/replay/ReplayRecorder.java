@@ -0,0 +1,94 @@
+package org.example.replay;
+
+import org.example.game.GameEngine;
+import org.example.game.GameState;
+import org.example.game.TurnListener;
+import org.example.util.Direction;
+import org.example.util.Varint;
+import org.example.world.LevelTemplate;
+
+import java.util.Arrays;
+
+/**
+ * Replay layer: ReplayRecorder
+ * Records the turns a GameEngine picks up from its input queue.
+ * Within one tick only the last turn matters to the engine, so earlier ones are dropped.
+ * Runs on the engine's thread.
+ * Replay layer - no Swing dependencies.
+ */
+public class ReplayRecorder implements TurnListener {
+    private final long seed;
+    private final long levelHash;
+    private final int tileSize;
+    private final int flags;
+
+    private byte[] turns = new byte[256];
+    private int length;
+    private int turnCount;
+    private long lastTick;
+
+    // Newest turn, written out once a later tick starts
+    private long pendingTick = -1;
+    private Direction pendingTurn;
+
+    public ReplayRecorder(long seed, LevelTemplate levelTemplate, int tileSize,
+                          boolean ghostAI, boolean turnBuffering) {
+        this.seed = seed;
+        this.levelHash = levelTemplate.getContentHash();
+        this.tileSize = tileSize;
+        this.flags = (ghostAI ? Replay.FLAG_GHOST_AI : 0) | (turnBuffering ? Replay.FLAG_TURN_BUFFERING : 0);
+    }
+
+    /**
+     * Start recording a freshly created engine. Its options must be set up already.
+     *
+     * @param seed the seed the engine's game was created with
+     */
+    public static ReplayRecorder attach(GameEngine gameEngine, long seed, LevelTemplate levelTemplate) {
+        if (gameEngine.getSimulatedTicks() != 0) {
+            throw new IllegalArgumentException("Engine has already run " + gameEngine.getSimulatedTicks() + " ticks");
+        }
+        GameState gameState = gameEngine.getGameState();
+        ReplayRecorder recorder = new ReplayRecorder(seed, levelTemplate, gameState.getLevel().getTileSize(),
+            gameEngine.getGhostAI() != null, gameEngine.isTurnBuffering());
+        gameEngine.setTurnListener(recorder);
+        return recorder;
+    }
+
+    @Override
+    public void onTurn(long tick, Direction turn) {
+        if (tick != pendingTick) {
+            flush();
+            pendingTick = tick;
+        }
+        pendingTurn = turn;
+    }
+
+    private void flush() {
+        if (pendingTurn == null) {
+            return;
+        }
+        if (length + Varint.MAX_BYTES > turns.length) {
+            turns = Arrays.copyOf(turns, turns.length * 2);
+        }
+        length = Varint.put(turns, length, ((pendingTick - lastTick) << 2) | pendingTurn.ordinal());
+        lastTick = pendingTick;
+        turnCount++;
+        pendingTurn = null;
+    }
+
+    /**
+     * Stop recording and capture the outcome. Call on the engine's thread.
+     */
+    public Replay finish(GameEngine gameEngine) {
+        if (gameEngine.getSimulatedTicks() > pendingTick) {
+            flush();
+        } else {
+            pendingTurn = null; // picked up after the last simulated tick, so it never took effect
+        }
+        gameEngine.setTurnListener(null);
+        GameState gameState = gameEngine.getGameState();
+        return new Replay(seed, levelHash, tileSize, flags, gameEngine.getSimulatedTicks(),
+            gameState.getScore(), gameState.getLives(), turnCount, Arrays.copyOf(turns, length));
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.rl;
+
+import org.example.ai.GhostAI;
+import org.example.entity.CreatureStore;
+import org.example.entity.CreatureType;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.GameState;
+import org.example.util.Direction;
+import org.example.world.Level;
+import org.example.world.LevelTemplate;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * RL layer: PacmanEnv
+ * Gym-style environment over one GameEngine: reset(seed), step(action) and an observation
+ * written as float channel planes of rows x columns cells, channel-major:
+ * walls, food, then one plane per CreatureType (Pacman, red, blue, pink, orange ghost).
+ * A cell is 1 where the plane's thing is, 0 elsewhere; creatures count at the cell under their centre.
+ * step() and writeObservation() do not allocate; reset() builds a fresh game.
+ * RL layer - no Swing dependencies.
+ */
+public class PacmanEnv {
+    public static final int CHANNEL_WALLS = 0;
+    public static final int CHANNEL_FOOD = 1;
+    private static final int FIRST_CREATURE_CHANNEL = 2;
+    public static final int CHANNELS = FIRST_CREATURE_CHANNEL + CreatureType.values().length;
+
+    /**
+     * Actions 0-3 turn in the Direction of that ordinal, this one keeps going
+     */
+    public static final int ACTION_NONE = Direction.values().length;
+    public static final int ACTION_COUNT = ACTION_NONE + 1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final LevelTemplate levelTemplate;
+    private final int tileSize;
+    private final long maxEpisodeTicks;
+    private final boolean ghostAI;
+    private final int rowCount;
+    private final int columnCount;
+    private final int planeSize;
+    private float deathPenalty = 100f;
+
+    // Wall plane is the same for every episode; the other planes are redrawn each step
+    private final float[] wallPlane;
+    private final float[] dynamicPlanes;
+
+    private GameEngine gameEngine;
+    private long episodeTicks;
+    private boolean done = true;
+
+    /**
+     * @param maxEpisodeTicks ticks after which an episode ends even if the game is not over
+     * @param ghostAI         whether ghosts chase with their personalities or wander randomly
+     */
+    public PacmanEnv(LevelTemplate levelTemplate, int tileSize, long maxEpisodeTicks, boolean ghostAI) {
+        if (maxEpisodeTicks < 1) {
+            throw new IllegalArgumentException("Episodes need at least one tick: " + maxEpisodeTicks);
+        }
+        this.levelTemplate = levelTemplate;
+        this.tileSize = tileSize;
+        this.maxEpisodeTicks = maxEpisodeTicks;
+        this.ghostAI = ghostAI;
+        this.rowCount = levelTemplate.getRowCount();
+        this.columnCount = levelTemplate.getColumnCount();
+        this.planeSize = rowCount * columnCount;
+        this.wallPlane = new float[planeSize];
+        this.dynamicPlanes = new float[(CHANNELS - 1) * planeSize];
+    }
+
+    /**
+     * Start a new episode. Episodes with the same seed and actions play out the same.
+     */
+    public void reset(long seed) {
+        gameEngine = GameFactory.create(levelTemplate, tileSize, seed);
+        if (ghostAI) {
+            gameEngine.setGhostAI(new GhostAI());
+        }
+        episodeTicks = 0;
+        done = false;
+
+        Level level = gameEngine.getGameState().getLevel();
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < columnCount; c++) {
+                wallPlane[r * columnCount + c] = level.isWall(r, c) ? 1f : 0f;
+            }
+        }
+    }
+
+    /**
+     * Advance one tick
+     *
+     * @param action a Direction ordinal to turn, or ACTION_NONE
+     * @return points scored this tick, minus the death penalty if a life was lost
+     */
+    public float step(int action) {
+        if (done) {
+            throw new IllegalStateException("Episode is over, call reset()");
+        }
+        if (action < 0 || action >= ACTION_COUNT) {
+            throw new IllegalArgumentException("Unknown action: " + action);
+        }
+        GameState gameState = gameEngine.getGameState();
+        if (action != ACTION_NONE) {
+            gameState.getPacman().updateDirection(DIRECTIONS[action]);
+        }
+
+        int score = gameState.getScore();
+        int deaths = gameEngine.getDeaths();
+        gameEngine.update();
+        episodeTicks++;
+
+        // Clearing the level restarts it with the score reset, so use the score at the clear
+        boolean cleared = gameEngine.getLevelsCompleted() > 0;
+        int newScore = cleared ? gameEngine.getLastLevelScore() : gameState.getScore();
+        float reward = newScore - score;
+        if (gameEngine.getDeaths() > deaths) {
+            reward -= deathPenalty;
+        }
+        done = gameState.isGameOver() || cleared || episodeTicks >= maxEpisodeTicks;
+        return reward;
+    }
+
+    /**
+     * Write the observation at the buffer's position and advance it by observationSize() floats
+     */
+    public void writeObservation(FloatBuffer out) {
+        Arrays.fill(dynamicPlanes, 0f);
+        GameState gameState = gameEngine.getGameState();
+
+        Level level = gameState.getLevel();
+        int foodOffset = (CHANNEL_FOOD - 1) * planeSize;
+        for (int cell = level.nextFood(0); cell >= 0; cell = level.nextFood(cell + 1)) {
+            dynamicPlanes[foodOffset + cell] = 1f;
+        }
+
+        markCreature(CreatureType.PACMAN, gameState.getPacman().getX(), gameState.getPacman().getY());
+        CreatureStore ghosts = gameState.getGhostStore();
+        for (int i = 0; i < ghosts.size(); i++) {
+            markCreature(ghosts.getType(i), ghosts.getX(i), ghosts.getY(i));
+        }
+
+        out.put(wallPlane);
+        out.put(dynamicPlanes);
+    }
+
+    private void markCreature(CreatureType type, int x, int y) {
+        int row = Math.floorDiv(y + tileSize / 2, tileSize);
+        int col = Math.floorDiv(x + tileSize / 2, tileSize);
+        if (row < 0 || row >= rowCount || col < 0 || col >= columnCount) {
+            return;
+        }
+        int channel = FIRST_CREATURE_CHANNEL + type.ordinal();
+        dynamicPlanes[(channel - 1) * planeSize + row * columnCount + col] = 1f;
+    }
+
+    /**
+     * Penalty subtracted from the reward of a step that loses a life
+     */
+    public void setDeathPenalty(float deathPenalty) {
+        this.deathPenalty = deathPenalty;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public long getEpisodeTicks() {
+        return episodeTicks;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Floats per observation: CHANNELS planes of rows x columns
+     */
+    public int observationSize() {
+        return CHANNELS * planeSize;
+    }
+
+    /**
+     * The engine of the current episode, for inspection
+     */
+    public GameEngine getGameEngine() {
+        return gameEngine;
+    }
+}
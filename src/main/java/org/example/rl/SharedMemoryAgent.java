@@ -0,0 +1,134 @@
+package org.example.rl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.rl.SharedMemoryChannel.INTS;
+import static org.example.rl.SharedMemoryChannel.LONGS;
+
+/**
+ * RL layer: SharedMemoryAgent
+ * The agent side of a SharedMemoryChannel, for agents on the JVM and as the reference for
+ * agents written in other languages. Maps the channel's file and makes blocking requests.
+ * One agent per channel; not thread-safe.
+ * RL layer - no Swing dependencies.
+ */
+public class SharedMemoryAgent {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int SPINS_PER_CLOCK_CHECK = 1 << 16;
+
+    private final MappedByteBuffer memory;
+    private final int envCount;
+    private final int observationSize;
+    private final int actionsOffset;
+    private final FloatBuffer state;
+    private long sequence;
+
+    public SharedMemoryAgent(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            memory = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        memory.order(ByteOrder.nativeOrder());
+        // Acquire pairs with the server's release store of the magic, which it writes after the header
+        if ((int) INTS.getAcquire(memory, SharedMemoryChannel.MAGIC_AT) != SharedMemoryChannel.MAGIC) {
+            throw new IllegalArgumentException("Not a channel file, or not ready yet: " + file);
+        }
+        int version = memory.getInt(SharedMemoryChannel.VERSION_AT);
+        if (version != SharedMemoryChannel.VERSION) {
+            throw new IllegalArgumentException("Unsupported channel version: " + version);
+        }
+        envCount = memory.getInt(SharedMemoryChannel.ENV_COUNT_AT);
+        observationSize = memory.getInt(SharedMemoryChannel.OBSERVATION_SIZE_AT);
+        actionsOffset = memory.getInt(SharedMemoryChannel.ACTIONS_OFFSET_AT);
+
+        ByteBuffer view = memory.duplicate();
+        view.position(memory.getInt(SharedMemoryChannel.STATE_OFFSET_AT));
+        view.limit(memory.getInt(SharedMemoryChannel.LENGTH_AT));
+        state = view.slice().order(ByteOrder.nativeOrder()).asFloatBuffer();
+        sequence = (long) LONGS.getAcquire(memory, SharedMemoryChannel.RESPONSE_SEQ_AT);
+    }
+
+    /**
+     * Start a first episode in every env, env i seeded with baseSeed + i
+     */
+    public void reset(long baseSeed) {
+        memory.putLong(SharedMemoryChannel.SEED_AT, baseSeed);
+        request(SharedMemoryChannel.COMMAND_RESET);
+    }
+
+    /**
+     * Step every env once with one PacmanEnv action each
+     */
+    public void step(int[] actions) {
+        if (actions.length != envCount) {
+            throw new IllegalArgumentException("Expected " + envCount + " actions, got " + actions.length);
+        }
+        for (int i = 0; i < envCount; i++) {
+            memory.putInt(actionsOffset + i * Integer.BYTES, actions[i]);
+        }
+        request(SharedMemoryChannel.COMMAND_STEP);
+    }
+
+    /**
+     * Ask the server to stop serving
+     */
+    public void closeServer() {
+        request(SharedMemoryChannel.COMMAND_CLOSE);
+    }
+
+    private void request(int command) {
+        memory.putInt(SharedMemoryChannel.COMMAND_AT, command);
+        long expected = ++sequence;
+        LONGS.setRelease(memory, SharedMemoryChannel.REQUEST_SEQ_AT, expected);
+
+        long deadline = 0;
+        int spins = 0;
+        while ((long) LONGS.getAcquire(memory, SharedMemoryChannel.RESPONSE_SEQ_AT) != expected) {
+            SharedMemoryChannel.pause();
+            if (++spins % SPINS_PER_CLOCK_CHECK == 0) {
+                long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + TIMEOUT_NANOS;
+                } else if (now > deadline) {
+                    throw new IllegalStateException("No response from the channel server");
+                }
+            }
+        }
+        if (memory.getInt(SharedMemoryChannel.STATUS_AT) != SharedMemoryChannel.STATUS_OK) {
+            throw new IllegalArgumentException("Request rejected by the channel server, command " + command);
+        }
+    }
+
+    public int getEnvCount() {
+        return envCount;
+    }
+
+    public int getObservationSize() {
+        return observationSize;
+    }
+
+    /**
+     * Observation of env i, a view of the shared memory valid until the next request
+     */
+    public FloatBuffer getObservation(int i) {
+        FloatBuffer view = state.duplicate();
+        view.position(i * observationSize);
+        view.limit((i + 1) * observationSize);
+        return view.slice();
+    }
+
+    public float getReward(int i) {
+        return state.get(envCount * observationSize + i);
+    }
+
+    public boolean isDone(int i) {
+        return state.get(envCount * (observationSize + 1) + i) != 0f;
+    }
+}
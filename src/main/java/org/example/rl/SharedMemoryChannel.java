@@ -0,0 +1,248 @@
+package org.example.rl;
+
+import org.example.world.LevelTemplate;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * RL layer: SharedMemoryChannel
+ * Serves a VectorEnv to an agent in another process through a memory-mapped file,
+ * by default under /dev/shm, so a step hands over no more than two sequence numbers.
+ * <p>
+ * File layout, all values native byte order, offsets in bytes:
+ * <pre>
+ *   0  int  MAGIC           4  int  VERSION        8  int  envCount      12  int  observationSize (floats)
+ *  16  int  channels       20  int  rows          24  int  columns       28  int  actionsOffset
+ *  32  int  stateOffset    36  int  file length
+ *  64  long requestSeq     72  int  command       80  long seed          (written by the agent)
+ * 128  long responseSeq   136  int  status                            (written by the server)
+ * actionsOffset: int[envCount] actions, one PacmanEnv action per env    (written by the agent)
+ * stateOffset:   the VectorEnv buffer - float observations[envCount][observationSize],
+ *                float rewards[envCount], float dones[envCount]          (written by the server)
+ * </pre>
+ * A request is one round trip: the agent writes the actions (and seed for a reset) and the command,
+ * then publishes requestSeq + 1 with a release store. The server sees it with an acquire load,
+ * steps or resets the batch into the state area and publishes the same number as responseSeq.
+ * The agent reads the status and state once responseSeq matches. MAGIC is written last with a
+ * release store, so an agent that reads it with an acquire load sees the whole header. The sequence words sit on their own
+ * cache lines so the two sides do not false-share them.
+ * <p>
+ * The server busy-spins for a while after each request, then backs off to short parks.
+ * Both sides yield instead of spinning when the machine has a single CPU.
+ * RL layer - no Swing dependencies.
+ */
+public class SharedMemoryChannel implements AutoCloseable, Runnable {
+    public static final int MAGIC = 0x504D4550;
+    public static final int VERSION = 1;
+
+    // Header field offsets
+    public static final int MAGIC_AT = 0;
+    public static final int VERSION_AT = 4;
+    public static final int ENV_COUNT_AT = 8;
+    public static final int OBSERVATION_SIZE_AT = 12;
+    public static final int CHANNELS_AT = 16;
+    public static final int ROWS_AT = 20;
+    public static final int COLUMNS_AT = 24;
+    public static final int ACTIONS_OFFSET_AT = 28;
+    public static final int STATE_OFFSET_AT = 32;
+    public static final int LENGTH_AT = 36;
+    public static final int REQUEST_SEQ_AT = 64;
+    public static final int COMMAND_AT = 72;
+    public static final int SEED_AT = 80;
+    public static final int RESPONSE_SEQ_AT = 128;
+    public static final int STATUS_AT = 136;
+    private static final int HEADER_BYTES = 192;
+    private static final int CACHE_LINE = 64;
+
+    public static final int COMMAND_STEP = 1;
+    public static final int COMMAND_RESET = 2;
+    public static final int COMMAND_CLOSE = 3;
+
+    public static final int STATUS_OK = 0;
+    /**
+     * Unknown command, an action out of range or a step before the first reset; the state is unchanged
+     */
+    public static final int STATUS_BAD_REQUEST = 1;
+
+    private static final int SPINS_BEFORE_PARK = 100_000;
+    private static final long PARK_NANOS = 50_000;
+    // On a single CPU a spinning side only delays the other one, so yield instead
+    static final boolean SPIN = Runtime.getRuntime().availableProcessors() > 1;
+
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final Path file;
+    private final MappedByteBuffer memory;
+    private final VectorEnv vectorEnv;
+    private final int envCount;
+    private final int actionsOffset;
+    private final int[] actions;
+    private boolean started;
+    private volatile boolean running = true;
+
+    /**
+     * Create the file, map it and lay out an idle batch. The file is deleted on close().
+     */
+    public SharedMemoryChannel(Path file, LevelTemplate levelTemplate, int tileSize, long maxEpisodeTicks,
+                               boolean ghostAI, int envCount, int parallelism) throws IOException {
+        int stateBytes = VectorEnv.bufferBytes(levelTemplate, envCount);
+        int stateOffset = align(HEADER_BYTES + envCount * Integer.BYTES);
+        int length = stateOffset + stateBytes;
+
+        this.file = file;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // The file is ours from here on, so it goes again if anything below fails
+        VectorEnv env = null;
+        try {
+            try (channel) {
+                memory = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            }
+            memory.order(ByteOrder.nativeOrder());
+
+            this.envCount = envCount;
+            this.actionsOffset = HEADER_BYTES;
+            this.actions = new int[envCount];
+            ByteBuffer state = memory.duplicate();
+            state.position(stateOffset);
+            env = new VectorEnv(levelTemplate, tileSize, maxEpisodeTicks, ghostAI, envCount, parallelism, state);
+            this.vectorEnv = env;
+
+            memory.putInt(VERSION_AT, VERSION);
+            memory.putInt(ENV_COUNT_AT, envCount);
+            memory.putInt(OBSERVATION_SIZE_AT, vectorEnv.getObservationSize());
+            memory.putInt(CHANNELS_AT, PacmanEnv.CHANNELS);
+            memory.putInt(ROWS_AT, levelTemplate.getRowCount());
+            memory.putInt(COLUMNS_AT, levelTemplate.getColumnCount());
+            memory.putInt(ACTIONS_OFFSET_AT, actionsOffset);
+            memory.putInt(STATE_OFFSET_AT, stateOffset);
+            memory.putInt(LENGTH_AT, length);
+            memory.putLong(RESPONSE_SEQ_AT, 0L);
+            // Magic last, with a release store: an agent that sees it with an acquire load sees a complete header
+            INTS.setRelease(memory, MAGIC_AT, MAGIC);
+            memory.force();
+        } catch (IOException | RuntimeException | Error e) {
+            if (env != null) {
+                env.close();
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A file for the channel under /dev/shm where it exists, the temp directory elsewhere
+     */
+    public static Path defaultPath(String name) {
+        Path shm = Paths.get("/dev/shm");
+        if (Files.isDirectory(shm) && Files.isWritable(shm)) {
+            return shm.resolve(name);
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir")).resolve(name);
+    }
+
+    private static int align(int offset) {
+        return (offset + CACHE_LINE - 1) & -CACHE_LINE;
+    }
+
+    /**
+     * Answer requests until the agent sends COMMAND_CLOSE or stop() is called
+     */
+    @Override
+    public void run() {
+        long served = (long) LONGS.getAcquire(memory, RESPONSE_SEQ_AT);
+        int idleSpins = 0;
+        while (running) {
+            long request = (long) LONGS.getAcquire(memory, REQUEST_SEQ_AT);
+            if (request == served) {
+                if (++idleSpins < SPINS_BEFORE_PARK) {
+                    pause();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                continue;
+            }
+            idleSpins = 0;
+
+            int command = memory.getInt(COMMAND_AT);
+            if (command == COMMAND_CLOSE) {
+                running = false;
+                memory.putInt(STATUS_AT, STATUS_OK);
+            } else {
+                memory.putInt(STATUS_AT, handle(command));
+            }
+            served = request;
+            LONGS.setRelease(memory, RESPONSE_SEQ_AT, served);
+        }
+    }
+
+    static void pause() {
+        if (SPIN) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    private int handle(int command) {
+        switch (command) {
+            case COMMAND_STEP:
+                if (!started) {
+                    return STATUS_BAD_REQUEST;
+                }
+                for (int i = 0; i < envCount; i++) {
+                    int action = memory.getInt(actionsOffset + i * Integer.BYTES);
+                    if (action < 0 || action >= PacmanEnv.ACTION_COUNT) {
+                        return STATUS_BAD_REQUEST;
+                    }
+                    actions[i] = action;
+                }
+                vectorEnv.step(actions);
+                return STATUS_OK;
+            case COMMAND_RESET:
+                vectorEnv.reset(memory.getLong(SEED_AT));
+                started = true;
+                return STATUS_OK;
+            default:
+                return STATUS_BAD_REQUEST;
+        }
+    }
+
+    /**
+     * Make run() return after the request it is serving, if any
+     */
+    public void stop() {
+        running = false;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public VectorEnv getVectorEnv() {
+        return vectorEnv;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stop();
+        vectorEnv.close();
+        Files.deleteIfExists(file);
+    }
+}
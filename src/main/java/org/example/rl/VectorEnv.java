@@ -0,0 +1,239 @@
+package org.example.rl;
+
+import org.example.world.LevelTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * RL layer: VectorEnv
+ * A batch of envCount PacmanEnvs stepped in lockstep on a ForkJoinPool of the given parallelism.
+ * Results go to one contiguous buffer of native-order floats:
+ * observations [envCount][CHANNELS][rows][columns], then rewards [envCount], then dones [envCount]
+ * as 1 or 0. A reader in another process can map the same memory and use it as is.
+ * Finished episodes restart right away with a fresh seed: the done flag marks the step that
+ * ended one, and the observation next to it is already the first of the next episode.
+ * Env i plays episode n with seed baseSeed + i + n * envCount, so a batch is reproducible
+ * whatever the parallelism. Stepping allocates only when an episode restarts.
+ * RL layer - no Swing dependencies.
+ */
+public class VectorEnv implements AutoCloseable {
+    private final PacmanEnv[] envs;
+    private final int envCount;
+    private final int observationSize;
+    private final ByteBuffer buffer;
+    private final FloatBuffer[] observations;
+    private final FloatBuffer rewards;
+    private final FloatBuffer dones;
+    private final long[] episodes;
+    private long baseSeed;
+
+    private final ForkJoinPool pool;
+    private final StepChunk[] chunks;
+    private final StepAll stepAll = new StepAll();
+    private int[] actions;
+
+    /**
+     * Batch writing into a direct buffer of its own
+     */
+    public VectorEnv(LevelTemplate levelTemplate, int tileSize, long maxEpisodeTicks, boolean ghostAI,
+                     int envCount, int parallelism) {
+        this(levelTemplate, tileSize, maxEpisodeTicks, ghostAI, envCount, parallelism,
+            ByteBuffer.allocateDirect(bufferBytes(levelTemplate, envCount)));
+    }
+
+    /**
+     * Batch writing into the given buffer, from its position on, e.g. memory shared with another process
+     *
+     * @param buffer at least bufferBytes() remaining
+     */
+    public VectorEnv(LevelTemplate levelTemplate, int tileSize, long maxEpisodeTicks, boolean ghostAI,
+                     int envCount, int parallelism, ByteBuffer buffer) {
+        if (envCount < 1) {
+            throw new IllegalArgumentException("Need at least one env: " + envCount);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        int bytes = bufferBytes(levelTemplate, envCount);
+        if (buffer.remaining() < bytes) {
+            throw new IllegalArgumentException("Buffer needs " + bytes + " bytes, has " + buffer.remaining());
+        }
+        this.envCount = envCount;
+        this.envs = new PacmanEnv[envCount];
+        for (int i = 0; i < envCount; i++) {
+            envs[i] = new PacmanEnv(levelTemplate, tileSize, maxEpisodeTicks, ghostAI);
+        }
+        this.observationSize = envs[0].observationSize();
+
+        this.buffer = buffer.slice().order(ByteOrder.nativeOrder());
+        this.buffer.limit(bytes);
+        this.observations = new FloatBuffer[envCount];
+        for (int i = 0; i < envCount; i++) {
+            observations[i] = floats(i * observationSize, observationSize);
+        }
+        this.rewards = floats(envCount * observationSize, envCount);
+        this.dones = floats(envCount * (observationSize + 1), envCount);
+        this.episodes = new long[envCount];
+
+        this.pool = new ForkJoinPool(parallelism);
+        int chunkCount = Math.min(envCount, parallelism);
+        this.chunks = new StepChunk[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            chunks[c] = new StepChunk(c * envCount / chunkCount, (c + 1) * envCount / chunkCount);
+        }
+    }
+
+    private FloatBuffer floats(int offset, int count) {
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.nativeOrder());
+        view.position(offset * Float.BYTES);
+        view.limit((offset + count) * Float.BYTES);
+        return view.slice().order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    /**
+     * Bytes of the shared buffer for a batch on this level
+     */
+    public static int bufferBytes(LevelTemplate levelTemplate, int envCount) {
+        long cells = (long) levelTemplate.getRowCount() * levelTemplate.getColumnCount();
+        long floats = (long) envCount * (PacmanEnv.CHANNELS * cells + 2);
+        if (floats * Float.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Batch too large for one buffer: " + envCount + " envs");
+        }
+        return (int) (floats * Float.BYTES);
+    }
+
+    /**
+     * Start a first episode in every env and write their observations. Rewards and dones are cleared.
+     */
+    public void reset(long baseSeed) {
+        this.baseSeed = baseSeed;
+        for (int i = 0; i < envCount; i++) {
+            episodes[i] = 0;
+            envs[i].reset(baseSeed + i);
+            FloatBuffer observation = observations[i];
+            observation.clear();
+            envs[i].writeObservation(observation);
+            rewards.put(i, 0f);
+            dones.put(i, 0f);
+        }
+    }
+
+    /**
+     * Step every env once and write observations, rewards and dones
+     *
+     * @param actions one PacmanEnv action per env
+     */
+    public void step(int[] actions) {
+        if (actions.length != envCount) {
+            throw new IllegalArgumentException("Expected " + envCount + " actions, got " + actions.length);
+        }
+        this.actions = actions;
+        if (chunks.length == 1) {
+            // Nothing to split, so skip the handoff to the pool
+            for (int i = 0; i < envCount; i++) {
+                stepEnv(i);
+            }
+        } else {
+            stepAll.reinitialize();
+            pool.invoke(stepAll);
+        }
+        this.actions = null;
+    }
+
+    private void stepEnv(int i) {
+        PacmanEnv env = envs[i];
+        rewards.put(i, env.step(actions[i]));
+        boolean done = env.isDone();
+        dones.put(i, done ? 1f : 0f);
+        if (done) {
+            episodes[i]++;
+            env.reset(baseSeed + i + episodes[i] * envCount);
+        }
+        FloatBuffer observation = observations[i];
+        observation.clear();
+        env.writeObservation(observation);
+    }
+
+    /**
+     * The whole shared buffer: observations, rewards and dones
+     */
+    public ByteBuffer getBuffer() {
+        return buffer.duplicate().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Observation of env i, as written by the last reset() or step()
+     */
+    public FloatBuffer getObservation(int i) {
+        FloatBuffer view = observations[i].duplicate();
+        view.clear();
+        return view;
+    }
+
+    public float getReward(int i) {
+        return rewards.get(i);
+    }
+
+    public boolean isDone(int i) {
+        return dones.get(i) != 0f;
+    }
+
+    public int getEnvCount() {
+        return envCount;
+    }
+
+    /**
+     * Floats per env observation
+     */
+    public int getObservationSize() {
+        return observationSize;
+    }
+
+    public PacmanEnv getEnv(int i) {
+        return envs[i];
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Root task of a step, fanning out to the chunks. Reused for every step.
+     */
+    @SuppressWarnings("serial") // never serialized
+    private final class StepAll extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (StepChunk chunk : chunks) {
+                chunk.reinitialize();
+            }
+            invokeAll(chunks);
+        }
+    }
+
+    /**
+     * Steps a contiguous range of envs. Reused for every step.
+     */
+    @SuppressWarnings("serial") // never serialized
+    private final class StepChunk extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        StepChunk(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = from; i < to; i++) {
+                stepEnv(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.server;
+
+import org.example.ai.GhostAI;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.world.LevelTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server layer: GameServer
+ * Hosts one independent game per TCP connection.
+ * A single network thread accepts clients, reads their turns and writes state frames
+ * with non-blocking NIO. A fixed set of tick threads (TickShard) each run a share of
+ * the sessions at the tick rate; new sessions go to the least loaded shard.
+ * Server layer - no Swing dependencies.
+ */
+public class GameServer {
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final LevelTemplate levelTemplate;
+    private final int tileSize;
+    private final TickShard[] shards;
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final Queue<GameSession> flushQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextSessionId = new AtomicLong();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread networkThread;
+    private volatile boolean running;
+
+    /**
+     * @param tickThreads number of threads that run game ticks, e.g. one per core
+     */
+    public GameServer(LevelTemplate levelTemplate, int tileSize, int tickThreads, int ticksPerSecond) {
+        if (tickThreads < 1) {
+            throw new IllegalArgumentException("Need at least one tick thread: " + tickThreads);
+        }
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive: " + ticksPerSecond);
+        }
+        this.levelTemplate = levelTemplate;
+        this.tileSize = tileSize;
+        this.shards = new TickShard[tickThreads];
+        long tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new TickShard(i, tickNanos, MAX_CATCH_UP_TICKS, this);
+        }
+    }
+
+    /**
+     * Bind and start the network and tick threads
+     *
+     * @return the address actually bound, e.g. to learn the port when binding to port 0
+     */
+    public synchronized InetSocketAddress start(InetSocketAddress address) throws IOException {
+        if (running) {
+            throw new IllegalStateException("Server already started");
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+
+        for (TickShard shard : shards) {
+            Thread thread = new Thread(shard, "pacman-tick-" + shard.getIndex());
+            thread.setDaemon(true);
+            thread.start();
+        }
+        networkThread = new Thread(this::runNetwork, "pacman-network");
+        networkThread.setDaemon(true);
+        networkThread.start();
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (TickShard shard : shards) {
+            shard.stop();
+        }
+        selector.wakeup();
+        try {
+            networkThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runNetwork() {
+        try {
+            while (running) {
+                selector.select();
+                flushQueued();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        handle(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Game server network thread failed: " + e);
+        } finally {
+            for (GameSession session : sessions.values()) {
+                session.close();
+            }
+            sessions.clear();
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                // Shutting down anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+
+            GameSession session = new GameSession(nextSessionId.getAndIncrement(), channel, createGame());
+            channel.register(selector, SelectionKey.OP_READ, session);
+            sessions.put(session.getId(), session);
+            leastLoadedShard().add(session);
+        }
+    }
+
+    private GameEngine createGame() {
+        GameEngine gameEngine = GameFactory.create(levelTemplate, tileSize, System.nanoTime());
+        gameEngine.setGhostAI(new GhostAI());
+        gameEngine.setTurnBuffering(true);
+        return gameEngine;
+    }
+
+    private TickShard leastLoadedShard() {
+        TickShard best = shards[0];
+        for (TickShard shard : shards) {
+            if (shard.getSessionCount() < best.getSessionCount()) {
+                best = shard;
+            }
+        }
+        return best;
+    }
+
+    private void handle(SelectionKey key) {
+        GameSession session = (GameSession) key.attachment();
+        try {
+            if (key.isReadable() && !session.readInput()) {
+                close(session);
+                return;
+            }
+            if (key.isWritable()) {
+                flush(session);
+            }
+        } catch (IOException e) {
+            close(session);
+        }
+    }
+
+    private void flushQueued() {
+        GameSession session;
+        while ((session = flushQueue.poll()) != null) {
+            if (session.isClosed()) {
+                continue;
+            }
+            try {
+                flush(session);
+            } catch (IOException e) {
+                close(session);
+            }
+        }
+    }
+
+    /**
+     * Write what the socket takes; wait for OP_WRITE only while the client is behind
+     */
+    private void flush(GameSession session) throws IOException {
+        SelectionKey key = session.getChannel().keyFor(selector);
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        int interest = session.flush()
+            ? SelectionKey.OP_READ
+            : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        if (key.interestOps() != interest) {
+            key.interestOps(interest);
+        }
+    }
+
+    private void close(GameSession session) {
+        sessions.remove(session.getId());
+        session.close();
+    }
+
+    /**
+     * A session has a new frame to send. Called by tick threads.
+     */
+    void queueFlush(GameSession session) {
+        flushQueue.add(session);
+    }
+
+    /**
+     * Called by a tick thread once per round that produced frames
+     */
+    void wakeUpNetwork() {
+        selector.wakeup();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Live sessions, for inspecting their metrics
+     */
+    public Collection<GameSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    /**
+     * Ticks dropped across all tick threads because they fell too far behind
+     */
+    public long getSkippedTicks() {
+        long skipped = 0;
+        for (TickShard shard : shards) {
+            skipped += shard.getSkippedTicks();
+        }
+        return skipped;
+    }
+
+    /**
+     * Usage: GameServer [port] [tickThreads]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int tickThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        GameServer server = new GameServer(LevelTemplate.CLASSIC, 32, tickThreads, 20);
+        InetSocketAddress address = server.start(new InetSocketAddress(port));
+        System.out.println("Listening on " + address + " with " + tickThreads + " tick threads");
+
+        while (true) {
+            Thread.sleep(5000);
+            long maxLatency = 0;
+            long meanLatency = 0;
+            int count = 0;
+            for (GameSession session : server.getSessions()) {
+                SessionMetrics metrics = session.getMetrics();
+                maxLatency = Math.max(maxLatency, metrics.getMaxTickLatencyNanos());
+                meanLatency += metrics.getMeanTickLatencyNanos();
+                count++;
+            }
+            System.out.println("sessions=" + count
+                + " meanTickLatencyUs=" + (count == 0 ? 0 : meanLatency / count / 1000)
+                + " maxTickLatencyUs=" + maxLatency / 1000
+                + " skippedTicks=" + server.getSkippedTicks());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.server;
+
+import org.example.game.GameEngine;
+import org.example.util.Direction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server layer: GameSession
+ * One client's game. The session owns its engine, state and random source outright,
+ * so sessions share nothing but the immutable level template.
+ * The network thread reads turns into the engine's input queue and writes frames;
+ * the tick thread runs the engine and publishes frames. Only the newest unsent frame
+ * is kept, so a slow client costs a bounded amount of memory and simply skips frames.
+ * Frames are encoded into two buffers in turn: the network thread writes at most one
+ * frame at a time, so the tick thread always has the other to fill.
+ * Server layer - no Swing dependencies.
+ */
+public class GameSession {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final long id;
+    private final SocketChannel channel;
+    private final GameEngine gameEngine;
+    private final SessionMetrics metrics = new SessionMetrics();
+
+    private final ByteBuffer inbound = ByteBuffer.allocate(64);
+    private final AtomicReference<ByteBuffer> pendingFrame = new AtomicReference<>();
+    // Tick thread: the two frame buffers and which one was published last
+    private final ByteBuffer[] frames = new ByteBuffer[2];
+    private int lastPublished = 1;
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private ByteBuffer writingFrame;
+    private volatile boolean closed;
+
+    GameSession(long id, SocketChannel channel, GameEngine gameEngine) {
+        this.id = id;
+        this.channel = channel;
+        this.gameEngine = gameEngine;
+    }
+
+    /**
+     * Run one tick and publish the resulting frame. Tick thread only.
+     *
+     * @return true if the frame needs to be flushed to the client
+     */
+    boolean tick() {
+        gameEngine.update();
+        int slot;
+        if (pendingFrame.getAndSet(null) != null) {
+            // The last frame was never taken: drop it and reuse its buffer
+            metrics.recordDroppedFrame();
+            slot = lastPublished;
+        } else {
+            // The network thread has taken the last frame and may still be writing it
+            slot = 1 - lastPublished;
+        }
+        frames[slot] = StateFrame.encode(gameEngine.getSimulatedTicks(), gameEngine.getGameState(), frames[slot]);
+        lastPublished = slot;
+        pendingFrame.set(frames[slot]);
+        return flushQueued.compareAndSet(false, true);
+    }
+
+    /**
+     * Read whatever the client sent and queue its turns. Network thread only.
+     *
+     * @return false once the client has closed the connection
+     */
+    boolean readInput() throws IOException {
+        int read = channel.read(inbound);
+        inbound.flip();
+        while (inbound.hasRemaining()) {
+            int code = inbound.get();
+            if (code >= 0 && code < DIRECTIONS.length) {
+                // Full queue: the client is sending faster than the game ticks, drop the turn
+                gameEngine.getInputQueue().offer(DIRECTIONS[code], System.nanoTime());
+            }
+        }
+        inbound.clear();
+        return read >= 0;
+    }
+
+    /**
+     * Write pending frames until done or the socket is full. Network thread only.
+     *
+     * @return true if everything was written, false if the socket is full
+     */
+    boolean flush() throws IOException {
+        flushQueued.set(false);
+        while (true) {
+            if (writingFrame == null) {
+                writingFrame = pendingFrame.getAndSet(null);
+                if (writingFrame == null) {
+                    return true;
+                }
+            }
+            int size = writingFrame.limit();
+            channel.write(writingFrame);
+            if (writingFrame.hasRemaining()) {
+                return false;
+            }
+            metrics.recordSentFrame(size);
+            writingFrame = null;
+        }
+    }
+
+    void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to do for this client
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public SessionMetrics getMetrics() {
+        return metrics;
+    }
+
+    GameEngine getGameEngine() {
+        return gameEngine;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.server;
+
+import org.example.util.Direction;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Server layer: LoopbackClient
+ * Minimal blocking client for the game server protocol, for tests and load generation.
+ * Server layer - no Swing dependencies.
+ */
+public class LoopbackClient implements Closeable {
+    private final SocketChannel channel;
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(StateFrame.LENGTH_BYTES);
+    private final ByteBuffer turnBuffer = ByteBuffer.allocate(1);
+    private ByteBuffer bodyBuffer = ByteBuffer.allocate(64);
+
+    public LoopbackClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        this.channel.socket().setTcpNoDelay(true);
+    }
+
+    public void sendTurn(Direction direction) throws IOException {
+        turnBuffer.clear();
+        turnBuffer.put((byte) direction.ordinal());
+        turnBuffer.flip();
+        while (turnBuffer.hasRemaining()) {
+            channel.write(turnBuffer);
+        }
+    }
+
+    /**
+     * Block until the next frame arrives
+     */
+    public StateFrame readFrame() throws IOException {
+        lengthBuffer.clear();
+        readFully(lengthBuffer);
+        lengthBuffer.flip();
+        int length = lengthBuffer.getInt();
+        if (bodyBuffer.capacity() < length) {
+            bodyBuffer = ByteBuffer.allocate(length);
+        }
+        bodyBuffer.clear();
+        bodyBuffer.limit(length);
+        readFully(bodyBuffer);
+        bodyBuffer.flip();
+        return StateFrame.decode(bodyBuffer);
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.server;
+
+/**
+ * Server layer: SessionMetrics
+ * Per-session counters. Tick figures are written by the session's tick thread,
+ * frame figures by the network thread; readers on other threads see recent,
+ * not necessarily consistent, values.
+ * Tick latency is the time from when a tick was due until the session finished it,
+ * so it includes waiting behind the other sessions of the same tick thread.
+ * Server layer - no Swing dependencies.
+ */
+public class SessionMetrics {
+    private volatile long ticks;
+    private volatile long totalTickLatencyNanos;
+    private volatile long maxTickLatencyNanos;
+    private volatile long framesSent;
+    private volatile long framesDropped;
+    private volatile long bytesSent;
+
+    void recordTick(long latencyNanos) {
+        ticks++;
+        totalTickLatencyNanos += latencyNanos;
+        if (latencyNanos > maxTickLatencyNanos) {
+            maxTickLatencyNanos = latencyNanos;
+        }
+    }
+
+    /**
+     * A newer frame replaced one the client had not been sent yet
+     */
+    void recordDroppedFrame() {
+        framesDropped++;
+    }
+
+    void recordSentFrame(int bytes) {
+        framesSent++;
+        bytesSent += bytes;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getMeanTickLatencyNanos() {
+        long count = ticks;
+        return count == 0 ? 0 : totalTickLatencyNanos / count;
+    }
+
+    public long getMaxTickLatencyNanos() {
+        return maxTickLatencyNanos;
+    }
+
+    public long getFramesSent() {
+        return framesSent;
+    }
+
+    /**
+     * Frames skipped because the client did not keep up
+     */
+    public long getFramesDropped() {
+        return framesDropped;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+}
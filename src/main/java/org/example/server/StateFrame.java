@@ -0,0 +1,124 @@
+package org.example.server;
+
+import org.example.entity.CreatureStore;
+import org.example.game.GameState;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Server layer: StateFrame
+ * Wire format of the state the server pushes to a client after each tick.
+ * A frame is an int length followed by: long tick, int score, int lives, byte game over,
+ * int creature count, then an int x and int y per creature (Pacman first). Ints, so
+ * generated mazes with thousands of ghosts and boards wider than 32767 pixels fit.
+ * Clients send single bytes back: a Direction ordinal asks for a turn.
+ * Server layer - no Swing dependencies.
+ */
+public final class StateFrame {
+    /**
+     * Size of the length prefix
+     */
+    public static final int LENGTH_BYTES = 4;
+    private static final int FIXED_BYTES = 8 + 4 + 4 + 1 + 4;
+
+    private final long tick;
+    private final int score;
+    private final int lives;
+    private final boolean gameOver;
+    private final int[] x;
+    private final int[] y;
+
+    private StateFrame(long tick, int score, int lives, boolean gameOver, int[] x, int[] y) {
+        this.tick = tick;
+        this.score = score;
+        this.lives = lives;
+        this.gameOver = gameOver;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Encode the state of a game, length prefix included, ready to write.
+     * The frame goes into the given buffer when it is large enough, otherwise into a new one.
+     *
+     * @param reuse buffer of an earlier frame that is no longer being written, or null
+     * @return the buffer holding the frame, flipped for writing
+     */
+    static ByteBuffer encode(long tick, GameState gameState, ByteBuffer reuse) {
+        CreatureStore ghosts = gameState.getGhostStore();
+        int count = 1 + ghosts.size();
+        int length = FIXED_BYTES + 8 * count;
+        ByteBuffer buffer = reuse != null && reuse.capacity() >= LENGTH_BYTES + length
+            ? reuse.clear() : ByteBuffer.allocate(LENGTH_BYTES + length);
+        buffer.putInt(length);
+        buffer.putLong(tick);
+        buffer.putInt(gameState.getScore());
+        buffer.putInt(gameState.getLives());
+        buffer.put((byte) (gameState.isGameOver() ? 1 : 0));
+        buffer.putInt(count);
+        buffer.putInt(gameState.getPacman().getX());
+        buffer.putInt(gameState.getPacman().getY());
+        for (int i = 0; i < ghosts.size(); i++) {
+            buffer.putInt(ghosts.getX(i));
+            buffer.putInt(ghosts.getY(i));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decode a frame body, i.e. everything after the length prefix
+     */
+    public static StateFrame decode(ByteBuffer body) {
+        long tick = body.getLong();
+        int score = body.getInt();
+        int lives = body.getInt();
+        boolean gameOver = body.get() != 0;
+        int count = body.getInt();
+        if (count < 0 || count > body.remaining() / 8) {
+            throw new IllegalArgumentException("Frame claims " + count + " creatures in "
+                + body.remaining() + " bytes");
+        }
+        int[] x = new int[count];
+        int[] y = new int[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = body.getInt();
+            y[i] = body.getInt();
+        }
+        return new StateFrame(tick, score, lives, gameOver, x, y);
+    }
+
+    /**
+     * Ticks the session had run when the frame was sent
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Number of creatures, Pacman included
+     */
+    public int getCreatureCount() {
+        return x.length;
+    }
+
+    public int getX(int creature) {
+        return x[creature];
+    }
+
+    public int getY(int creature) {
+        return y[creature];
+    }
+}
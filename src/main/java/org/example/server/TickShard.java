@@ -0,0 +1,115 @@
+package org.example.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Server layer: TickShard
+ * One tick thread and the sessions assigned to it. Every tick period the thread runs
+ * one tick of each of its sessions in turn, so a shard hosts many games on one core.
+ * Falls behind at most maxCatchUpTicks ticks before dropping the backlog, like HeadlessGameLoop.
+ * Server layer - no Swing dependencies.
+ */
+class TickShard implements Runnable {
+    private final int index;
+    private final long tickNanos;
+    private final int maxCatchUpTicks;
+    private final GameServer server;
+
+    private final Queue<GameSession> arrivals = new ConcurrentLinkedQueue<>();
+    private final List<GameSession> sessions = new ArrayList<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private volatile boolean running = true;
+    private volatile long skippedTicks;
+
+    TickShard(int index, long tickNanos, int maxCatchUpTicks, GameServer server) {
+        this.index = index;
+        this.tickNanos = tickNanos;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.server = server;
+    }
+
+    /**
+     * Hand a session to this shard. Safe to call from any thread.
+     */
+    void add(GameSession session) {
+        sessionCount.incrementAndGet();
+        arrivals.add(session);
+    }
+
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            if (now < nextTick) {
+                LockSupport.parkNanos(nextTick - now);
+                continue;
+            }
+
+            int ticks = 0;
+            while (running && now >= nextTick && ticks < maxCatchUpTicks) {
+                tickAll(nextTick);
+                nextTick += tickNanos;
+                ticks++;
+            }
+
+            // Too far behind - drop the backlog instead of spiralling
+            if (now >= nextTick) {
+                long behind = (now - nextTick) / tickNanos + 1;
+                skippedTicks += behind;
+                nextTick += behind * tickNanos;
+            }
+        }
+    }
+
+    private void tickAll(long dueNanos) {
+        GameSession arrival;
+        while ((arrival = arrivals.poll()) != null) {
+            sessions.add(arrival);
+        }
+
+        boolean flushNeeded = false;
+        for (int i = sessions.size() - 1; i >= 0; i--) {
+            GameSession session = sessions.get(i);
+            if (session.isClosed()) {
+                // Order does not matter, so swap the last session into the gap
+                sessions.set(i, sessions.get(sessions.size() - 1));
+                sessions.remove(sessions.size() - 1);
+                sessionCount.decrementAndGet();
+                continue;
+            }
+            if (session.tick()) {
+                server.queueFlush(session);
+                flushNeeded = true;
+            }
+            session.getMetrics().recordTick(System.nanoTime() - dueNanos);
+        }
+        if (flushNeeded) {
+            server.wakeUpNetwork();
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sessions assigned to this shard, including ones about to be picked up or removed
+     */
+    int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    long getSkippedTicks() {
+        return skippedTicks;
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.sim;
+
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.GameState;
+import org.example.util.Direction;
+import org.example.util.SeededRandom;
+import org.example.world.LevelTemplate;
+import org.example.world.MazeGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Simulation layer: BatchSimulator
+ * Plays many independent games concurrently and aggregates their results.
+ * Every game gets its own state, engine and seeded Random; only the immutable
+ * level template is shared, so games never contend with each other.
+ * Simulation layer - no Swing dependencies.
+ */
+public class BatchSimulator {
+    private final LevelTemplate levelTemplate;
+    private final int tileSize;
+    private final long maxTicksPerGame;
+    private final PacmanPolicy pacmanPolicy;
+    private final int parallelism;
+
+    public BatchSimulator(LevelTemplate levelTemplate, int tileSize, long maxTicksPerGame,
+                          PacmanPolicy pacmanPolicy, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.levelTemplate = levelTemplate;
+        this.tileSize = tileSize;
+        this.maxTicksPerGame = maxTicksPerGame;
+        this.pacmanPolicy = pacmanPolicy;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Run the given number of games. Game i is seeded with baseSeed + i,
+     * so a batch gives the same results whatever the parallelism.
+     */
+    public BatchStatistics run(int games, long baseSeed) {
+        List<Callable<GameResult>> tasks = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            long seed = baseSeed + i;
+            tasks.add(() -> playGame(seed));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            List<Future<GameResult>> futures = pool.invokeAll(tasks);
+            List<GameResult> results = new ArrayList<>(games);
+            for (Future<GameResult> future : futures) {
+                results.add(future.get());
+            }
+            return new BatchStatistics(results, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulated game failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Play one game until game over, the first level clear or the tick limit
+     */
+    public GameResult playGame(long seed) {
+        Random random = new SeededRandom(seed);
+        GameEngine gameEngine = GameFactory.create(levelTemplate, tileSize, random);
+        GameState gameState = gameEngine.getGameState();
+
+        long ticks = 0;
+        while (ticks < maxTicksPerGame && !gameState.isGameOver() && gameEngine.getLevelsCompleted() == 0) {
+            Direction direction = pacmanPolicy.chooseDirection(gameState, random);
+            if (direction != null) {
+                gameState.getPacman().updateDirection(direction);
+            }
+            gameEngine.update();
+            ticks++;
+        }
+
+        boolean cleared = gameEngine.getLevelsCompleted() > 0;
+        int score = cleared ? gameEngine.getLastLevelScore() : gameState.getScore();
+        return new GameResult(score, ticks, gameEngine.getDeaths(), cleared ? ticks : -1);
+    }
+
+    /**
+     * Usage: BatchSimulator [games] [threads] [maxTicksPerGame] [seed] [mazeSize] [ghosts]
+     * With a maze size the games run on a generated maze of that size instead of the classic one.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long maxTicks = args.length > 2 ? Long.parseLong(args[2]) : 20_000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        LevelTemplate levelTemplate = LevelTemplate.CLASSIC;
+        if (args.length > 4) {
+            int mazeSize = Integer.parseInt(args[4]);
+            int ghosts = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+            levelTemplate = MazeGenerator.generate(mazeSize, mazeSize, ghosts, seed);
+        }
+
+        BatchSimulator simulator = new BatchSimulator(levelTemplate, 32, maxTicks,
+            PacmanPolicy.random(8), threads);
+        System.out.println(simulator.run(games, seed));
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.sim;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Simulation layer: BatchStatistics
+ * Aggregate statistics over a batch of simulated games.
+ * Simulation layer - no Swing dependencies.
+ */
+public final class BatchStatistics {
+    private final int games;
+    private final int[] sortedScores;
+    private final long totalTicks;
+    private final int clears;
+    private final long totalTicksToClear;
+    private final long totalDeaths;
+    private final long elapsedNanos;
+
+    public BatchStatistics(List<GameResult> results, long elapsedNanos) {
+        this.games = results.size();
+        this.sortedScores = new int[games];
+        this.elapsedNanos = elapsedNanos;
+
+        long ticks = 0;
+        long ticksToClear = 0;
+        long deaths = 0;
+        int clearCount = 0;
+        for (int i = 0; i < games; i++) {
+            GameResult result = results.get(i);
+            sortedScores[i] = result.getScore();
+            ticks += result.getTicks();
+            deaths += result.getDeaths();
+            if (result.isCleared()) {
+                clearCount++;
+                ticksToClear += result.getTicksToClear();
+            }
+        }
+        Arrays.sort(sortedScores);
+
+        this.totalTicks = ticks;
+        this.clears = clearCount;
+        this.totalTicksToClear = ticksToClear;
+        this.totalDeaths = deaths;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getTicksPerSecond() {
+        return elapsedNanos == 0 ? 0 : totalTicks * 1e9 / elapsedNanos;
+    }
+
+    public int getMinScore() {
+        return games == 0 ? 0 : sortedScores[0];
+    }
+
+    public int getMaxScore() {
+        return games == 0 ? 0 : sortedScores[games - 1];
+    }
+
+    public double getMeanScore() {
+        if (games == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int score : sortedScores) {
+            sum += score;
+        }
+        return (double) sum / games;
+    }
+
+    /**
+     * Score at the given percentile (0-100), nearest-rank
+     */
+    public int getScorePercentile(double percentile) {
+        if (games == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * games);
+        return sortedScores[Math.max(0, Math.min(games - 1, rank - 1))];
+    }
+
+    public int getClears() {
+        return clears;
+    }
+
+    /**
+     * Mean ticks needed to clear the level, over the games that cleared it
+     */
+    public double getMeanTicksToClear() {
+        return clears == 0 ? 0 : (double) totalTicksToClear / clears;
+    }
+
+    public long getTotalDeaths() {
+        return totalDeaths;
+    }
+
+    public double getMeanDeaths() {
+        return games == 0 ? 0 : (double) totalDeaths / games;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "games=%d ticks=%d ticks/s=%.0f score[min=%d p50=%d p90=%d max=%d mean=%.1f] "
+                + "clears=%d meanTicksToClear=%.1f deaths=%d meanDeaths=%.2f",
+            games, totalTicks, getTicksPerSecond(),
+            getMinScore(), getScorePercentile(50), getScorePercentile(90), getMaxScore(), getMeanScore(),
+            clears, getMeanTicksToClear(), totalDeaths, getMeanDeaths());
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.sim;
+
+/**
+ * Simulation layer: GameResult
+ * Outcome of one simulated game.
+ * Simulation layer - no Swing dependencies.
+ */
+public final class GameResult {
+    private final int score;
+    private final long ticks;
+    private final int deaths;
+    private final long ticksToClear;
+
+    /**
+     * @param ticksToClear tick on which the level was cleared, or -1 if it never was
+     */
+    public GameResult(int score, long ticks, int deaths, long ticksToClear) {
+        this.score = score;
+        this.ticks = ticks;
+        this.deaths = deaths;
+        this.ticksToClear = ticksToClear;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getDeaths() {
+        return deaths;
+    }
+
+    public boolean isCleared() {
+        return ticksToClear >= 0;
+    }
+
+    public long getTicksToClear() {
+        return ticksToClear;
+    }
+}
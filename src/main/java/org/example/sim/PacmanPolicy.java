@@ -0,0 +1,30 @@
+package org.example.sim;
+
+import org.example.game.GameState;
+import org.example.util.Direction;
+
+import java.util.Random;
+
+/**
+ * Simulation layer: PacmanPolicy
+ * Decides where Pacman goes when no player is at the keyboard.
+ * Simulation layer - no Swing dependencies.
+ */
+public interface PacmanPolicy {
+
+    /**
+     * Pick a new direction for this tick, or return null to keep the current one.
+     * The random source belongs to the game being played.
+     */
+    Direction chooseDirection(GameState gameState, Random random);
+
+    /**
+     * Policy that turns in a random direction on average once every turnInterval ticks
+     */
+    static PacmanPolicy random(int turnInterval) {
+        Direction[] directions = Direction.values();
+        return (gameState, random) -> random.nextInt(turnInterval) == 0
+            ? directions[random.nextInt(directions.length)]
+            : null;
+    }
+}
@@ -0,0 +1,282 @@
+package org.example.ui;
+
+import org.example.game.FrameSnapshot;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+/**
+ * UI layer: HudRenderer
+ * Draws the score line, the game over text and the pause banner from cached images.
+ * Fonts are created once, and each label is rendered once into an image. Numbers are
+ * drawn digit by digit from a strip holding 0-9. The score line is composed from those
+ * into its own image when the score or lives change, so a frame costs one or two blits
+ * and allocates nothing. Images are built on the first draw, for the device being painted.
+ * Only the parts that intersect the clip are drawn, so repaints elsewhere on the board
+ * leave the HUD alone. Images are rendered with the text hints of the Graphics painted to,
+ * e.g. Swing's desktop antialiasing, and rebuilt if those hints change. LCD text is
+ * rendered into translucent images, where Java2D falls back to greyscale antialiasing.
+ * UI layer - contains Graphics, fonts, images.
+ */
+public class HudRenderer {
+    private static final Color TEXT = Color.WHITE;
+    // Hints copied into the images. Only the first WATCHED_HINTS are checked for changes every
+    // frame: reading the LCD contrast boxes an Integer, and it only affects LCD text anyway.
+    private static final RenderingHints.Key[] TEXT_HINTS = {
+        RenderingHints.KEY_TEXT_ANTIALIASING,
+        RenderingHints.KEY_FRACTIONALMETRICS,
+        RenderingHints.KEY_TEXT_LCD_CONTRAST
+    };
+    private static final int WATCHED_HINTS = 2;
+
+    private final int boardWidth;
+    private final int boardHeight;
+    private final int tileSize;
+    private final Font font = new Font("Arial", Font.PLAIN, 18);
+    private final Font bannerFont = new Font("Arial", Font.BOLD, 64);
+
+    private Label gameOverLabel;
+    private Label restartLabel;
+    private Label livesLabel;
+    private Label scoreLabel;
+    private Label pausedLabel;
+    private DigitStrip digits;
+    // Values of TEXT_HINTS the images were rendered with
+    private final Object[] preparedHints = new Object[TEXT_HINTS.length];
+
+    // Score line as last composed, and what it shows
+    private BufferedImage lineImage;
+    private Graphics2D lineGraphics;
+    private int lineAscent;
+    private int lineWidth;
+    private boolean lineGameOver;
+    private int lineLives = -1;
+    private int lineScore = -1;
+
+    public HudRenderer(int boardWidth, int boardHeight, int tileSize) {
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.tileSize = tileSize;
+    }
+
+    public void draw(Graphics g, FrameSnapshot frame) {
+        if (digits == null || hintsChanged(g)) {
+            prepare(g);
+        }
+
+        // Center position
+        int midx = boardWidth / 2 - (3 * tileSize);
+        int midy = boardHeight / 2 - tileSize;
+
+        // Left corner
+        int leftX = tileSize / 2;
+        int leftY = tileSize / 2;
+
+        // Score
+        int lineTop = leftY - lineAscent;
+        int lineHeight = lineImage.getHeight();
+        if (g.hitClip(leftX, lineTop, lineImage.getWidth(), lineHeight)) {
+            if (frame.isGameOver() != lineGameOver || frame.getLives() != lineLives
+                || frame.getScore() != lineScore) {
+                composeLine(frame.isGameOver(), frame.getLives(), frame.getScore());
+            }
+            // Only the part in use, not the blank room left for longer numbers
+            g.drawImage(lineImage, leftX, lineTop, leftX + lineWidth, lineTop + lineHeight,
+                0, 0, lineWidth, lineHeight, null);
+        }
+        if (frame.isGameOver()) {
+            restartLabel.draw(g, midx, midy);
+        }
+
+        // Pause banner
+        if (frame.isPaused()) {
+            pausedLabel.draw(g, midx, midy);
+        }
+    }
+
+    private boolean hintsChanged(Graphics g) {
+        if (!(g instanceof Graphics2D)) {
+            return false;
+        }
+        for (int i = 0; i < WATCHED_HINTS; i++) {
+            if (!Objects.equals(((Graphics2D) g).getRenderingHint(TEXT_HINTS[i]), preparedHints[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void prepare(Graphics g) {
+        GraphicsConfiguration config = null;
+        RenderingHints hints = new RenderingHints(null);
+        if (g instanceof Graphics2D) {
+            Graphics2D g2 = (Graphics2D) g;
+            config = g2.getDeviceConfiguration();
+            for (int i = 0; i < TEXT_HINTS.length; i++) {
+                preparedHints[i] = g2.getRenderingHint(TEXT_HINTS[i]);
+                if (preparedHints[i] != null) {
+                    hints.put(TEXT_HINTS[i], preparedHints[i]);
+                }
+            }
+        }
+        // Metrics of g, so advances match what drawString() would use with the same hints
+        FontMetrics metrics = g.getFontMetrics(font);
+        gameOverLabel = new Label("GAME OVER: ", font, metrics, config, hints);
+        restartLabel = new Label("Press any key to RESTART ", font, metrics, config, hints);
+        livesLabel = new Label("x", font, metrics, config, hints);
+        scoreLabel = new Label(" SCORE: ", font, metrics, config, hints);
+        pausedLabel = new Label("    GAME IS PAUSED", bannerFont, g.getFontMetrics(bannerFont), config, hints);
+        digits = new DigitStrip(font, metrics, config, hints);
+
+        // Wide enough for either line with ten-digit numbers
+        int numberWidth = 10 * digits.widestDigit;
+        int width = Math.max(gameOverLabel.advance + numberWidth,
+            livesLabel.advance + numberWidth + scoreLabel.advance + numberWidth);
+        lineImage = createImage(config, width, metrics.getAscent() + metrics.getDescent());
+        if (lineGraphics != null) {
+            lineGraphics.dispose();
+        }
+        lineGraphics = lineImage.createGraphics();
+        lineGraphics.addRenderingHints(hints);
+        lineAscent = metrics.getAscent();
+        lineWidth = 0;
+        lineLives = -1;
+        lineScore = -1;
+    }
+
+    /**
+     * Redraw the score line image. Kept graphics and cached pieces, so this allocates nothing either.
+     */
+    private void composeLine(boolean gameOver, int lives, int score) {
+        lineGraphics.setComposite(AlphaComposite.Clear);
+        lineGraphics.fillRect(0, 0, lineWidth, lineImage.getHeight());
+        lineGraphics.setComposite(AlphaComposite.SrcOver);
+        if (gameOver) {
+            int x = gameOverLabel.draw(lineGraphics, 0, lineAscent);
+            lineWidth = digits.draw(lineGraphics, score, x, lineAscent);
+        } else {
+            int x = livesLabel.draw(lineGraphics, 0, lineAscent);
+            x = digits.draw(lineGraphics, lives, x, lineAscent);
+            x = scoreLabel.draw(lineGraphics, x, lineAscent);
+            lineWidth = digits.draw(lineGraphics, score, x, lineAscent);
+        }
+        lineGameOver = gameOver;
+        lineLives = lives;
+        lineScore = score;
+    }
+
+    private static BufferedImage createImage(GraphicsConfiguration config, int width, int height) {
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+        return config != null
+            ? config.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+            : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static BufferedImage renderText(String text, Font font, FontMetrics metrics, GraphicsConfiguration config,
+                                            RenderingHints hints) {
+        BufferedImage image = createImage(config, metrics.stringWidth(text), metrics.getAscent() + metrics.getDescent());
+        Graphics2D g = image.createGraphics();
+        try {
+            g.addRenderingHints(hints);
+            g.setFont(font);
+            g.setColor(TEXT);
+            g.drawString(text, 0, metrics.getAscent());
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Fixed text, pre-rendered. Leading spaces are kept as an offset rather than as blank pixels.
+     */
+    private static final class Label {
+        private final BufferedImage image;
+        private final int offset;
+        private final int ascent;
+        private final int advance;
+
+        Label(String text, Font font, FontMetrics metrics, GraphicsConfiguration config, RenderingHints hints) {
+            String trimmed = text.stripLeading();
+            this.image = renderText(trimmed, font, metrics, config, hints);
+            this.offset = metrics.stringWidth(text.substring(0, text.length() - trimmed.length()));
+            this.ascent = metrics.getAscent();
+            this.advance = metrics.stringWidth(text);
+        }
+
+        /**
+         * Draw with the baseline at y, like drawString()
+         *
+         * @return x where the text that follows starts
+         */
+        int draw(Graphics g, int x, int y) {
+            int left = x + offset;
+            int top = y - ascent;
+            if (g.hitClip(left, top, image.getWidth(), image.getHeight())) {
+                g.drawImage(image, left, top, null);
+            }
+            return x + advance;
+        }
+    }
+
+    /**
+     * The digits 0-9 side by side in one image
+     */
+    private static final class DigitStrip {
+        private final BufferedImage image;
+        private final int[] digitX = new int[10];
+        private final int[] digitWidth = new int[10];
+        private final int widestDigit;
+        private final int ascent;
+        private final int height;
+        // Digits of the number being drawn, least significant first
+        private final int[] scratch = new int[10];
+
+        DigitStrip(Font font, FontMetrics metrics, GraphicsConfiguration config, RenderingHints hints) {
+            int x = 0;
+            int widest = 0;
+            for (int d = 0; d < 10; d++) {
+                digitX[d] = x;
+                digitWidth[d] = metrics.charWidth((char) ('0' + d));
+                x += digitWidth[d];
+                widest = Math.max(widest, digitWidth[d]);
+            }
+            this.widestDigit = widest;
+            this.image = renderText("0123456789", font, metrics, config, hints);
+            this.ascent = metrics.getAscent();
+            this.height = image.getHeight();
+        }
+
+        /**
+         * Draw a non-negative number with the baseline at y; negative numbers draw as 0
+         *
+         * @return x where the text that follows starts
+         */
+        int draw(Graphics g, int value, int x, int y) {
+            int count = 0;
+            int rest = Math.max(0, value);
+            do {
+                scratch[count++] = rest % 10;
+                rest /= 10;
+            } while (rest > 0);
+
+            int top = y - ascent;
+            int width = 0;
+            for (int i = 0; i < count; i++) {
+                width += digitWidth[scratch[i]];
+            }
+            if (!g.hitClip(x, top, width, height)) {
+                return x + width;
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                int d = scratch[i];
+                int w = digitWidth[d];
+                g.drawImage(image, x, top, x + w, top + height, digitX[d], 0, digitX[d] + w, height, null);
+                x += w;
+            }
+            return x;
+        }
+    }
+}
@@ -1,201 +1,315 @@
 package org.example.ui;
 
-import org.example.entity.Creature;
-import org.example.entity.CreatureType;
-import org.example.game.GameEngine;
+import org.example.game.DirtyRegions;
+import org.example.game.FrameSnapshot;
 import org.example.game.GameState;
-import org.example.util.Direction;
+import org.example.game.SimulationThread;
+import org.example.world.Level;
 import org.example.world.Tile;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
 
 /**
  * UI layer: PacMan (View)
- * Pure view component - renders game state, no game logic.
+ * Pure view component - renders the snapshots published by the simulation thread, no game logic.
+ * Frames run at the display refresh rate and interpolate creatures between the last two ticks.
  * UI layer - contains JPanel, Graphics, images.
  */
 public class PacMan extends JPanel implements ActionListener {
-    private final GameState gameState;
-    private final GameEngine gameEngine;
+    private static final int DEFAULT_REFRESH_RATE = 60;
+
+    private final SimulationThread simulation;
     private final int boardWidth;
     private final int boardHeight;
     private final int tileSize;
 
-    // Images - UI concern
-    private Image wallImage;
-    private Image blueGhostImage;
-    private Image orangeGhostImage;
-    private Image pinkGhostImage;
-    private Image redGhostImage;
-    private Image pacmanUpImage;
-    private Image pacmanDownImage;
-    private Image pacmanLeftImage;
-    private Image pacmanRightImage;
-
-    private Timer gameLoop;
-
-    public PacMan(GameState gameState, GameEngine gameEngine, int boardWidth, int boardHeight, int tileSize) {
-        this.gameState = gameState;
-        this.gameEngine = gameEngine;
+    // Sprites for the tile size and the device the panel is on
+    private SpriteAtlas sprites;
+    private GraphicsConfiguration spritesConfig;
+
+    private Timer renderLoop;
+
+    // Walls never change during a level, so they are drawn once into this layer
+    private BufferedImage wallLayer;
+    private Level wallLayerLevel;
+
+    // Snapshot being shown and the interpolated creature positions drawn for it
+    private FrameSnapshot shown;
+    private int[] drawnX = new int[0];
+    private int[] drawnY = new int[0];
+    private int[] frameX = new int[0];
+    private int[] frameY = new int[0];
+
+    // Score and banners, drawn from cached images
+    private final HudRenderer hud;
+
+    // Debug HUD, toggled with F3
+    private final PerfOverlay overlay;
+
+    public PacMan(SimulationThread simulation, int boardWidth, int boardHeight, int tileSize) {
+        this.simulation = simulation;
         this.boardWidth = boardWidth;
         this.boardHeight = boardHeight;
         this.tileSize = tileSize;
+        this.hud = new HudRenderer(boardWidth, boardHeight, tileSize);
+        this.overlay = new PerfOverlay(simulation);
 
         setPreferredSize(new Dimension(boardWidth, boardHeight));
         setBackground(Color.BLACK);
         setFocusable(true);
 
-        loadImages();
-    }
-
-    private void loadImages() {
-        wallImage = new ImageIcon(getClass().getResource("/Pictures/wall.png")).getImage();
-        blueGhostImage = new ImageIcon(getClass().getResource("/Pictures/blueGhost.png")).getImage();
-        orangeGhostImage = new ImageIcon(getClass().getResource("/Pictures/orangeGhost.png")).getImage();
-        pinkGhostImage = new ImageIcon(getClass().getResource("/Pictures/pinkGhost.png")).getImage();
-        redGhostImage = new ImageIcon(getClass().getResource("/Pictures/redGhost.png")).getImage();
-
-        pacmanUpImage = new ImageIcon(getClass().getResource("/Pictures/pacmanUp.png")).getImage();
-        pacmanDownImage = new ImageIcon(getClass().getResource("/Pictures/pacmanDown.png")).getImage();
-        pacmanLeftImage = new ImageIcon(getClass().getResource("/Pictures/pacmanLeft.png")).getImage();
-        pacmanRightImage = new ImageIcon(getClass().getResource("/Pictures/pacmanRight.png")).getImage();
+        showFrame(simulation.getLatestSnapshot(), System.nanoTime());
     }
 
     /**
-     * Start the game loop timer
+     * Start the render timer, one frame per display refresh
      */
-    public void startGameLoop() {
-        if (gameLoop == null) {
-            gameLoop = new Timer(50, this); // 20fps (1000/50) 50ms
+    public void startRendering() {
+        if (renderLoop == null) {
+            renderLoop = new Timer(1000 / refreshRate(), this);
+            renderLoop.setCoalesce(true);
         }
-        gameLoop.start();
+        renderLoop.start();
     }
 
     /**
-     * Stop the game loop timer
+     * Stop the render timer. The simulation keeps running.
      */
-    public void stopGameLoop() {
-        if (gameLoop != null) {
-            gameLoop.stop();
+    public void stopRendering() {
+        if (renderLoop != null) {
+            renderLoop.stop();
+        }
+    }
+
+    private static int refreshRate() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return DEFAULT_REFRESH_RATE;
         }
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+            .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : rate;
     }
 
     /**
-     * Toggle game pause
+     * Toggle game pause. Applied by the simulation thread before its next tick.
      */
     public void togglePause() {
-        gameState.togglePause();
-        if (gameState.isPaused()) {
-            gameLoop.stop();
-        } else {
-            gameLoop.start();
-        }
+        GameState gameState = simulation.getGameEngine().getGameState();
+        simulation.post(gameState::togglePause);
+    }
+
+    /**
+     * Show or hide the performance overlay
+     */
+    public void toggleOverlay() {
+        overlay.toggle();
         repaint();
     }
 
     @Override
     public void paintComponent(Graphics g) {
+        long start = overlay.isVisible() ? System.nanoTime() : 0;
         super.paintComponent(g);
         draw(g);
+        if (overlay.isVisible()) {
+            overlay.recordPaint(System.nanoTime() - start);
+        }
     }
 
     /**
-     * Render the game state
+     * Render the snapshot being shown
      */
     private void draw(Graphics g) {
+        FrameSnapshot frame = shown;
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (sprites == null || spritesConfig != config) {
+            // New screen: images compatible with the old one would lose accelerated blits
+            sprites = SpriteAtlas.forTileSize(tileSize, config);
+            spritesConfig = config;
+            wallLayer = null;
+        }
+
         // Draw walls
-        for (Tile wall : gameState.getLevel().getWalls()) {
-            g.drawImage(wallImage, wall.getX(), wall.getY(), wall.getWidth(), wall.getHeight(), null);
+        Level level = frame.getLevel();
+        if (wallLayer == null || wallLayerLevel != level) {
+            renderWallLayer(level);
         }
+        g.drawImage(wallLayer, 0, 0, null);
 
-        // Draw food
+        // Draw food, only on the rows inside the clip
         g.setColor(Color.WHITE);
-        for (Tile food : gameState.getFoods()) {
+        int columnCount = level.getColumnCount();
+        int firstCell = 0;
+        int endCell = level.getRowCount() * columnCount;
+        Rectangle clip = g.getClipBounds();
+        if (clip != null) {
+            firstCell = Math.max(0, clip.y / tileSize) * columnCount;
+            endCell = Math.min(endCell, ((clip.y + clip.height) / tileSize + 1) * columnCount);
+        }
+        for (int cell = frame.nextFood(firstCell); cell >= 0 && cell < endCell; cell = frame.nextFood(cell + 1)) {
             // Food is smaller (4x4 at offset 14,14)
-            g.fillRect(food.getX() + 14, food.getY() + 14, 4, 4);
+            g.fillRect((cell % columnCount) * tileSize + 14, (cell / columnCount) * tileSize + 14, 4, 4);
         }
 
         // Draw pacman with direction-based image
-        Creature pacman = gameState.getPacman();
-        Image pacmanImage = getPacmanImage(pacman.getDirection());
-        g.drawImage(pacmanImage, pacman.getX(), pacman.getY(), tileSize, tileSize, null);
+        sprites.drawPacman(g, frame.getPacmanDirection(), drawnX[0], drawnY[0]);
 
         // Draw ghosts
-        for (Creature ghost : gameState.getGhosts()) {
-            Image ghostImage = getGhostImage(ghost.getType());
-            g.drawImage(ghostImage, ghost.getX(), ghost.getY(), tileSize, tileSize, null);
+        for (int i = 1; i < frame.getCreatureCount(); i++) {
+            if (!g.hitClip(drawnX[i], drawnY[i], tileSize, tileSize)) {
+                continue;
+            }
+            sprites.drawGhost(g, frame.getType(i), drawnX[i], drawnY[i]);
         }
 
         // Draw UI text
-        drawUI(g);
-    }
-
-    private Image getPacmanImage(Direction direction) {
-        if (direction == Direction.UP) {
-            return pacmanUpImage;
-        } else if (direction == Direction.DOWN) {
-            return pacmanDownImage;
-        } else if (direction == Direction.LEFT) {
-            return pacmanLeftImage;
+        if (overlay.isVisible()) {
+            long start = System.nanoTime();
+            drawUI(g, frame);
+            overlay.recordHud(System.nanoTime() - start);
+            overlay.draw(g, boardWidth);
         } else {
-            return pacmanRightImage;
+            drawUI(g, frame);
         }
     }
 
-    private Image getGhostImage(CreatureType type) {
-        if (type == CreatureType.BLUE_GHOST) {
-            return blueGhostImage;
-        } else if (type == CreatureType.ORANGE_GHOST) {
-            return orangeGhostImage;
-        } else if (type == CreatureType.PINK_GHOST) {
-            return pinkGhostImage;
-        } else if (type == CreatureType.RED_GHOST) {
-            return redGhostImage;
-        } else {
-            return blueGhostImage; // fallback
+    /**
+     * Pre-render the walls of a level into an image the size of the board.
+     * Redone only when a new level is swapped in.
+     */
+    private void renderWallLayer(Level level) {
+        int width = level.getBoardWidth();
+        int height = level.getBoardHeight();
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        BufferedImage layer = config != null
+            ? config.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+            : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g = layer.createGraphics();
+        try {
+            for (Tile wall : level.getWalls()) {
+                sprites.drawWall(g, wall.getX(), wall.getY());
+            }
+        } finally {
+            g.dispose();
         }
+
+        wallLayer = layer;
+        wallLayerLevel = level;
     }
 
-    private void drawUI(Graphics g) {
-        String pausedText = "    GAME IS PAUSED";
-        String gameOverText = "GAME OVER: ";
-        String restartGameText = "Press any key to RESTART ";
-        String scoreText = " SCORE: ";
-
-        // Center position
-        int midx = boardWidth / 2 - (3 * tileSize);
-        int midy = boardHeight / 2 - tileSize;
-
-        // Left corner
-        int leftX = tileSize / 2;
-        int leftY = tileSize / 2;
-
-        // Score
-        g.setFont(new Font("Arial", Font.PLAIN, 18));
-        if (gameState.isGameOver()) {
-            g.drawString(gameOverText + String.valueOf(gameState.getScore()), leftX, leftY);
-            g.drawString(restartGameText, midx, midy);
-        } else {
-            g.drawString("x" + String.valueOf(gameState.getLives()) + scoreText + String.valueOf(gameState.getScore()), leftX, leftY);
+    private void drawUI(Graphics g, FrameSnapshot frame) {
+        hud.draw(g, frame);
+    }
+
+    // ActionListener - called by the render Timer
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        showFrame(simulation.getLatestSnapshot(), System.nanoTime());
+    }
+
+    /**
+     * Move the view to a snapshot at the given time and repaint only what changed since the last frame
+     */
+    private void showFrame(FrameSnapshot frame, long now) {
+        FrameSnapshot previous = shown;
+        boolean fullRepaint = previous == null || frame.getCreatureCount() != drawnX.length;
+        if (!fullRepaint && frame != previous) {
+            // A skipped tick would lose its dirty regions, so it is repainted whole
+            fullRepaint = frame.isFullRepaint()
+                || frame.getTick() != previous.getTick() + 1
+                || frame.getLevel() != previous.getLevel()
+                || frame.isPaused() != previous.isPaused()
+                || frame.isGameOver() != previous.isGameOver();
+        }
+
+        int count = frame.getCreatureCount();
+        if (frameX.length != count) {
+            frameX = new int[count];
+            frameY = new int[count];
+        }
+        interpolate(frame, now);
+        shown = frame;
+        overlay.frameShown(frame, now);
+
+        if (fullRepaint) {
+            copyFramePositions();
+            repaint();
+            return;
+        }
+
+        // RepaintManager merges repaint(x, y, w, h) calls into their bounding box, which for
+        // creatures far apart is most of the board. We are on the EDT, so paint each region directly.
+        int moved = 0;
+        for (int i = 0; i < count; i++) {
+            if (frameX[i] != drawnX[i] || frameY[i] != drawnY[i]) {
+                moved++;
+            }
+        }
+        int tickRects = frame != previous ? frame.getDirtyCount() : 0;
+        // Above this many regions a single full repaint is cheaper
+        if (moved + tickRects > DirtyRegions.MAX_REGIONS) {
+            copyFramePositions();
+            repaint();
+            return;
         }
 
-        // Pause banner
-        if (gameState.isPaused()) {
-            g.setFont(new Font("Arial", Font.BOLD, 64));
-            g.drawString(pausedText, midx, midy);
+        for (int i = 0; i < count; i++) {
+            int oldX = drawnX[i];
+            int oldY = drawnY[i];
+            if (frameX[i] == oldX && frameY[i] == oldY) {
+                continue;
+            }
+            drawnX[i] = frameX[i];
+            drawnY[i] = frameY[i];
+            paintImmediately(Math.min(oldX, frameX[i]), Math.min(oldY, frameY[i]),
+                Math.abs(frameX[i] - oldX) + tileSize, Math.abs(frameY[i] - oldY) + tileSize);
+        }
+        for (int i = 0; i < tickRects; i++) {
+            paintImmediately(frame.getDirtyX(i), frame.getDirtyY(i), frame.getDirtyWidth(i), frame.getDirtyHeight(i));
+        }
+        if (frame != previous && (frame.isHudChanged()
+            || frame.getScore() != previous.getScore() || frame.getLives() != previous.getLives())) {
+            paintImmediately(0, 0, boardWidth, tileSize);
+        }
+        if (overlay.isVisible()) {
+            paintImmediately(overlay.getBounds(boardWidth));
         }
     }
 
-    // ActionListener - called by Timer
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        gameEngine.update();
-        repaint();
-        if (gameState.isGameOver()) {
-            gameLoop.stop();
+    /**
+     * Creature positions between the snapshot's previous and current tick.
+     * Creatures that jumped (a reset or a tunnel) snap to the new position.
+     */
+    private void interpolate(FrameSnapshot frame, long now) {
+        long tickNanos = simulation.getTickNanos();
+        double alpha = tickNanos <= 0 ? 1.0 : (double) (now - frame.getPublishNanos()) / tickNanos;
+        alpha = Math.max(0.0, Math.min(1.0, alpha));
+
+        for (int i = 0; i < frame.getCreatureCount(); i++) {
+            int fromX = frame.getPreviousX(i);
+            int fromY = frame.getPreviousY(i);
+            int toX = frame.getX(i);
+            int toY = frame.getY(i);
+            if (Math.abs(toX - fromX) > tileSize || Math.abs(toY - fromY) > tileSize) {
+                fromX = toX;
+                fromY = toY;
+            }
+            frameX[i] = fromX + (int) Math.round((toX - fromX) * alpha);
+            frameY[i] = fromY + (int) Math.round((toY - fromY) * alpha);
+        }
+    }
+
+    private void copyFramePositions() {
+        if (drawnX.length != frameX.length) {
+            drawnX = new int[frameX.length];
+            drawnY = new int[frameY.length];
         }
+        System.arraycopy(frameX, 0, drawnX, 0, frameX.length);
+        System.arraycopy(frameY, 0, drawnY, 0, frameY.length);
     }
 }
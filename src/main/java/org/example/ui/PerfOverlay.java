@@ -0,0 +1,358 @@
+package org.example.ui;
+
+import org.example.game.FrameSnapshot;
+import org.example.game.SimulationThread;
+import org.example.metrics.RollingWindow;
+
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * UI layer: PerfOverlay
+ * Debug HUD in the top right corner: frames and ticks per second, tick, frame and HUD
+ * time percentiles over the last WINDOW samples, the allocation rates of the render (EDT)
+ * and simulation threads, and the creature and food counts. The HUD line compares the
+ * cost of the game's own text drawing with this overlay's, which draws from cached fonts
+ * and char buffers.
+ * <p>
+ * Text is reformatted into reusable char buffers a few times per second and drawn with
+ * drawChars(), so showing the overlay allocates no Strings. Call everything on the EDT.
+ * UI layer - contains Graphics, fonts.
+ */
+public class PerfOverlay {
+    /**
+     * Number of recent samples percentiles are taken over
+     */
+    public static final int WINDOW = 256;
+
+    private static final long REFRESH_NANOS = 250_000_000L;
+    private static final int LINE_COUNT = 6;
+    private static final int LINE_LENGTH = 64;
+    private static final int MARGIN = 4;
+    // Opaque: a translucent fill goes through a mask blit that allocates on every frame
+    private static final Color BACKGROUND = new Color(24, 24, 24);
+    private static final Color TEXT = new Color(120, 255, 120);
+
+    private final Font font = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private FontMetrics fontMetrics;
+    private final char[][] lines = new char[LINE_COUNT][LINE_LENGTH];
+    private final int[] lineLengths = new int[LINE_COUNT];
+    private final Rectangle bounds = new Rectangle();
+    private int textWidth;
+
+    private final RollingWindow tickTimes = new RollingWindow(WINDOW);
+    private final RollingWindow frameTimes = new RollingWindow(WINDOW);
+    private final RollingWindow hudTimes = new RollingWindow(WINDOW);
+    private final RollingWindow overlayTimes = new RollingWindow(WINDOW);
+
+    private final com.sun.management.ThreadMXBean allocationCounter;
+    private final SimulationThread simulation;
+
+    private boolean visible;
+    private long framePaintNanos;
+    private long frameHudNanos;
+    private long frameOverlayNanos;
+    private long lastTick = -1;
+
+    // Counts since the text was last refreshed
+    private long refreshNanos;
+    private int refreshFrames;
+    private long refreshTick;
+    private long refreshAllocatedBytes;
+    private long refreshSimulationId = -1;
+    private long refreshSimulationBytes;
+
+    /**
+     * Overlay for the given simulation, whose thread's allocations are counted next to the EDT's
+     */
+    public PerfOverlay(SimulationThread simulation) {
+        this.simulation = simulation;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        allocationCounter = bean instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+            ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Show or hide the overlay. Statistics are only collected while it is shown.
+     */
+    public void toggle() {
+        visible = !visible;
+        tickTimes.clear();
+        frameTimes.clear();
+        hudTimes.clear();
+        overlayTimes.clear();
+        framePaintNanos = 0;
+        frameHudNanos = 0;
+        frameOverlayNanos = 0;
+        lastTick = -1;
+        refreshNanos = 0;
+        for (int i = 0; i < LINE_COUNT; i++) {
+            lineLengths[i] = 0;
+        }
+        textWidth = 0;
+    }
+
+    /**
+     * Time spent in one paint of the board, HUD text included
+     */
+    public void recordPaint(long nanos) {
+        framePaintNanos += nanos;
+    }
+
+    /**
+     * Time spent drawing the game's HUD text
+     */
+    public void recordHud(long nanos) {
+        frameHudNanos += nanos;
+    }
+
+    /**
+     * Close the previous frame and start a new one showing the given snapshot
+     */
+    public void frameShown(FrameSnapshot frame, long now) {
+        if (!visible) {
+            return;
+        }
+        if (refreshFrames > 0) {
+            frameTimes.add(framePaintNanos);
+            hudTimes.add(frameHudNanos);
+            overlayTimes.add(frameOverlayNanos);
+        }
+        framePaintNanos = 0;
+        frameHudNanos = 0;
+        frameOverlayNanos = 0;
+        if (frame.getTick() != lastTick && frame.getUpdateNanos() > 0) {
+            tickTimes.add(frame.getUpdateNanos());
+        }
+        lastTick = frame.getTick();
+        refreshFrames++;
+
+        if (refreshNanos == 0) {
+            startRefreshWindow(frame, now);
+        } else if (now - refreshNanos >= REFRESH_NANOS) {
+            refreshText(frame, now);
+            startRefreshWindow(frame, now);
+        }
+    }
+
+    private void startRefreshWindow(FrameSnapshot frame, long now) {
+        refreshNanos = now;
+        refreshFrames = 0;
+        refreshTick = frame.getTick();
+        refreshAllocatedBytes = allocatedBytes();
+        refreshSimulationId = simulation.getThreadId();
+        refreshSimulationBytes = simulationAllocatedBytes(refreshSimulationId);
+    }
+
+    private long allocatedBytes() {
+        return allocationCounter != null ? allocationCounter.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Bytes allocated by the simulation thread with the given id, or -1 if unknown
+     */
+    private long simulationAllocatedBytes(long threadId) {
+        return allocationCounter != null && threadId >= 0 ? allocationCounter.getThreadAllocatedBytes(threadId) : -1;
+    }
+
+    private void refreshText(FrameSnapshot frame, long now) {
+        double seconds = (now - refreshNanos) / 1e9;
+
+        int line = 0;
+        begin(line, "fps ");
+        appendFixed(line, (long) (refreshFrames * 10 / seconds), 1);
+        append(line, "  tps ");
+        appendFixed(line, (long) ((frame.getTick() - refreshTick) * 10 / seconds), 1);
+
+        appendPercentiles(++line, "tick  us", tickTimes);
+        appendPercentiles(++line, "frame us", frameTimes);
+
+        begin(++line, "hud   us p50 ");
+        appendMicros(line, hudTimes.percentile(50));
+        append(line, "  overlay ");
+        appendMicros(line, overlayTimes.percentile(50));
+
+        begin(++line, "alloc KB/s edt ");
+        appendRate(line, refreshAllocatedBytes, allocatedBytes(), seconds);
+        append(line, "  sim ");
+        // A restarted simulation is a different thread, whose count starts over
+        long simulationId = simulation.getThreadId();
+        appendRate(line, refreshSimulationBytes,
+            simulationId == refreshSimulationId ? simulationAllocatedBytes(simulationId) : -1, seconds);
+
+        begin(++line, "creatures ");
+        appendLong(line, frame.getCreatureCount());
+        append(line, "  food ");
+        appendLong(line, frame.getFoodCount());
+        measureText();
+    }
+
+    private void appendRate(int line, long bytesBefore, long bytesAfter, double seconds) {
+        if (bytesBefore < 0 || bytesAfter < 0) {
+            append(line, "n/a");
+        } else {
+            appendFixed(line, (long) ((bytesAfter - bytesBefore) * 10 / 1024 / seconds), 1);
+        }
+    }
+
+    private void appendPercentiles(int line, String label, RollingWindow window) {
+        begin(line, label);
+        append(line, " p50 ");
+        appendMicros(line, window.percentile(50));
+        append(line, " p99 ");
+        appendMicros(line, window.percentile(99));
+        append(line, " max ");
+        appendMicros(line, window.max());
+    }
+
+    /**
+     * Width of the widest line, once the font metrics are known
+     */
+    private void measureText() {
+        if (fontMetrics == null) {
+            return;
+        }
+        textWidth = 0;
+        for (int i = 0; i < LINE_COUNT; i++) {
+            textWidth = Math.max(textWidth, fontMetrics.charsWidth(lines[i], 0, lineLengths[i]));
+        }
+    }
+
+    /**
+     * Area the overlay covers on a board of the given width, to repaint every frame while it is shown.
+     * The rectangle is reused by the next call.
+     */
+    public Rectangle getBounds(int boardWidth) {
+        int lineHeight = fontMetrics != null ? fontMetrics.getHeight() : font.getSize() + 4;
+        int width = Math.max(textWidth, 24 * font.getSize()) + 2 * MARGIN;
+        bounds.setBounds(boardWidth - width, 0, width, LINE_COUNT * lineHeight + 2 * MARGIN);
+        return bounds;
+    }
+
+    /**
+     * Draw the overlay in the top right corner of a board of the given width
+     */
+    public void draw(Graphics g, int boardWidth) {
+        if (!visible) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (fontMetrics == null) {
+            fontMetrics = g.getFontMetrics(font);
+            measureText();
+        }
+        Rectangle area = getBounds(boardWidth);
+        if (!g.hitClip(area.x, area.y, area.width, area.height)) {
+            return;
+        }
+        g.setFont(font);
+        g.setColor(BACKGROUND);
+        g.fillRect(area.x, area.y, area.width, area.height);
+        g.setColor(TEXT);
+        int lineHeight = fontMetrics.getHeight();
+        int baseline = MARGIN + fontMetrics.getAscent();
+        for (int i = 0; i < LINE_COUNT; i++) {
+            g.drawChars(lines[i], 0, lineLengths[i], area.x + MARGIN, baseline + i * lineHeight);
+        }
+        frameOverlayNanos += System.nanoTime() - start;
+    }
+
+    private void begin(int line, String text) {
+        lineLengths[line] = 0;
+        append(line, text);
+    }
+
+    private void append(int line, String text) {
+        int length = Math.min(text.length(), LINE_LENGTH - lineLengths[line]);
+        text.getChars(0, length, lines[line], lineLengths[line]);
+        lineLengths[line] += length;
+    }
+
+    private void appendMicros(int line, long nanos) {
+        appendFixed(line, nanos / 100, 1);
+    }
+
+    private void appendFixed(int line, long value, int decimals) {
+        lineLengths[line] = appendFixed(lines[line], lineLengths[line], value, decimals);
+    }
+
+    private void appendLong(int line, long value) {
+        lineLengths[line] = appendLong(lines[line], lineLengths[line], value);
+    }
+
+    /**
+     * Text of a line as last formatted, for tests
+     */
+    String lineText(int line) {
+        return new String(lines[line], 0, lineLengths[line]);
+    }
+
+    /**
+     * Write value / 10^decimals with the given number of decimals (0 to 18) at chars[length].
+     * Nothing is written if it does not fit.
+     *
+     * @return the new length
+     */
+    static int appendFixed(char[] chars, int length, long value, int decimals) {
+        if (decimals <= 0) {
+            return appendLong(chars, length, value);
+        }
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+        // Both parts are smaller than value in magnitude, so Math.abs cannot overflow
+        long whole = Math.abs(value / scale);
+        long fraction = Math.abs(value % scale);
+        int sign = value < 0 ? 1 : 0;
+        if (length + sign + digitCount(whole) + 1 + decimals > chars.length) {
+            return length;
+        }
+        if (sign > 0) {
+            chars[length++] = '-';
+        }
+        length = appendLong(chars, length, whole);
+        chars[length++] = '.';
+        for (long digit = scale / 10; digit > 0; digit /= 10) {
+            chars[length++] = (char) ('0' + fraction / digit % 10);
+        }
+        return length;
+    }
+
+    /**
+     * Write a whole number at chars[length]. Nothing is written if it does not fit.
+     *
+     * @return the new length
+     */
+    static int appendLong(char[] chars, int length, long value) {
+        int digits = digitCount(value);
+        int end = length + digits + (value < 0 ? 1 : 0);
+        if (end > chars.length) {
+            return length;
+        }
+        if (value < 0) {
+            chars[length] = '-';
+        }
+        // Digits are taken from the negated value, which holds Long.MIN_VALUE too
+        long rest = value < 0 ? value : -value;
+        for (int i = end - 1; i >= end - digits; i--) {
+            chars[i] = (char) ('0' - rest % 10);
+            rest /= 10;
+        }
+        return end;
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.ui;
+
+import org.example.entity.CreatureType;
+import org.example.metrics.AssetLoadEvent;
+import org.example.metrics.FlightEvents;
+import org.example.util.Direction;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UI layer: SpriteAtlas
+ * Every sprite of the game, scaled to one tile size and packed side by side in a single
+ * compatible image. Sprites are found by Direction or CreatureType ordinal and drawn
+ * as unscaled copies of their cell, which Java2D can do with a plain accelerated blit.
+ * One atlas is built per tile size and device, the first time it is asked for, and then
+ * shared, so a window moved to another screen gets images compatible with that screen.
+ * UI layer - contains Graphics, images.
+ */
+public final class SpriteAtlas {
+    private static final String WALL = "/Pictures/wall.png";
+    // By Direction ordinal
+    private static final String[] PACMAN = {
+        "/Pictures/pacmanUp.png", "/Pictures/pacmanDown.png",
+        "/Pictures/pacmanLeft.png", "/Pictures/pacmanRight.png"
+    };
+    // By CreatureType ordinal; Pacman has no ghost sprite and falls back to blue
+    private static final String[] GHOSTS = {
+        "/Pictures/blueGhost.png", "/Pictures/redGhost.png", "/Pictures/blueGhost.png",
+        "/Pictures/pinkGhost.png", "/Pictures/orangeGhost.png"
+    };
+
+    private static final Map<Key, SpriteAtlas> CACHE = new ConcurrentHashMap<>();
+
+    private final int tileSize;
+    private final BufferedImage image;
+    private final int wallX;
+    private final int[] pacmanX = new int[Direction.values().length];
+    private final int[] ghostX = new int[CreatureType.values().length];
+
+    private SpriteAtlas(int tileSize, GraphicsConfiguration config) {
+        this.tileSize = tileSize;
+
+        // Each file is loaded and packed once, however many slots use it
+        Map<String, Integer> packed = new HashMap<>();
+        String[] resources = new String[1 + PACMAN.length + GHOSTS.length];
+        resources[0] = WALL;
+        System.arraycopy(PACMAN, 0, resources, 1, PACMAN.length);
+        System.arraycopy(GHOSTS, 0, resources, 1 + PACMAN.length, GHOSTS.length);
+        for (String resource : resources) {
+            packed.putIfAbsent(resource, packed.size() * tileSize);
+        }
+
+        int width = packed.size() * tileSize;
+        this.image = config != null
+            ? config.createCompatibleImage(width, tileSize, Transparency.TRANSLUCENT)
+            : new BufferedImage(width, tileSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            // Copy the scaled pixels as they are rather than blending them onto the empty atlas
+            g.setComposite(AlphaComposite.Src);
+            for (Map.Entry<String, Integer> sprite : packed.entrySet()) {
+                g.drawImage(loadImage(sprite.getKey()), sprite.getValue(), 0, tileSize, tileSize, null);
+            }
+        } finally {
+            g.dispose();
+        }
+
+        this.wallX = packed.get(WALL);
+        for (int i = 0; i < pacmanX.length; i++) {
+            pacmanX[i] = packed.get(PACMAN[i]);
+        }
+        for (int i = 0; i < ghostX.length; i++) {
+            ghostX[i] = packed.get(GHOSTS[i]);
+        }
+    }
+
+    /**
+     * The atlas for a tile size on a device, built on first use
+     *
+     * @param config device the atlas is drawn to, or null for plain ARGB images
+     */
+    public static SpriteAtlas forTileSize(int tileSize, GraphicsConfiguration config) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+        }
+        return CACHE.computeIfAbsent(new Key(tileSize, config), key -> new SpriteAtlas(tileSize, config));
+    }
+
+    private static Image loadImage(String resource) {
+        AssetLoadEvent event = FlightEvents.beginAssetLoad();
+        ImageIcon icon = new ImageIcon(SpriteAtlas.class.getResource(resource));
+        if (event != null) {
+            event.finish(resource, AssetLoadEvent.IMAGE, icon.getImageLoadStatus() == MediaTracker.COMPLETE);
+        }
+        return icon.getImage();
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public void drawWall(Graphics g, int x, int y) {
+        drawCell(g, wallX, x, y);
+    }
+
+    /**
+     * Draw Pacman facing a direction
+     */
+    public void drawPacman(Graphics g, Direction direction, int x, int y) {
+        drawCell(g, pacmanX[direction.ordinal()], x, y);
+    }
+
+    public void drawGhost(Graphics g, CreatureType type, int x, int y) {
+        drawCell(g, ghostX[type.ordinal()], x, y);
+    }
+
+    private static final class Key {
+        private final int tileSize;
+        private final GraphicsConfiguration config;
+
+        Key(int tileSize, GraphicsConfiguration config) {
+            this.tileSize = tileSize;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return tileSize == key.tileSize && Objects.equals(config, key.config);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tileSize + Objects.hashCode(config);
+        }
+    }
+
+    private void drawCell(Graphics g, int cellX, int x, int y) {
+        g.drawImage(image, x, y, x + tileSize, y + tileSize, cellX, 0, cellX + tileSize, tileSize, null);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.util;
+
+/**
+ * Utility: CellBits
+ * Helpers for bitsets of map cells packed into long words, one bit per cell
+ * (cell index = row * columnCount + col).
+ * Domain layer - no Swing dependencies.
+ */
+public final class CellBits {
+
+    private CellBits() {
+    }
+
+    /**
+     * Number of long words needed for the given number of cells
+     */
+    public static int wordCount(int cellCount) {
+        return (cellCount + 63) >>> 6;
+    }
+
+    public static boolean get(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    public static void clear(long[] bits, int cell) {
+        bits[cell >>> 6] &= ~(1L << cell);
+    }
+
+    /**
+     * First set cell at or after fromCell and below cellCount, or -1 if there is none
+     */
+    public static int next(long[] bits, int fromCell, int cellCount) {
+        if (fromCell >= cellCount) {
+            return -1;
+        }
+        int word = fromCell >>> 6;
+        long remaining = bits[word] & (-1L << fromCell);
+        while (true) {
+            if (remaining != 0) {
+                int cell = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                return cell < cellCount ? cell : -1;
+            }
+            if (++word == bits.length) {
+                return -1;
+            }
+            remaining = bits[word];
+        }
+    }
+}
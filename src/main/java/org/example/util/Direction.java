@@ -21,6 +21,22 @@ public enum Direction {
         return charValue;
     }
 
+    /**
+     * The direction pointing the other way
+     */
+    public Direction opposite() {
+        switch (this) {
+            case UP:
+                return DOWN;
+            case DOWN:
+                return UP;
+            case LEFT:
+                return RIGHT;
+            default:
+                return LEFT;
+        }
+    }
+
     /**
      * Convert character to Direction enum
      */
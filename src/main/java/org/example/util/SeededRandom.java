@@ -0,0 +1,62 @@
+package org.example.util;
+
+import java.util.Random;
+
+/**
+ * Utility: SeededRandom
+ * Random source that remembers its seed and exposes its generator state, so a game
+ * can be recorded, snapshotted and replayed exactly. Produces the same sequence as
+ * java.util.Random with the same seed, but without the atomic update: an instance
+ * must be confined to one thread (the one running the game).
+ * Domain layer - no Swing dependencies.
+ */
+public class SeededRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long seed;
+    private long state;
+
+    public SeededRandom(long seed) {
+        super(seed);
+        setSeed(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        // Also called by the Random constructor, before this class's fields are initialised
+        super.setSeed(seed);
+        this.seed = seed;
+        this.state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * Seed the source was created with or last reset to
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Current 48-bit generator state. Does not cover a pending nextGaussian() value.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Continue the sequence from a state returned by getState()
+     */
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Utility: Varint
+ * Unsigned LEB128 encoding of non-negative longs: 7 bits per byte, high bit set on
+ * every byte but the last. Small values, like tick deltas, take a single byte.
+ * Domain layer - no Swing dependencies.
+ */
+public final class Varint {
+    /**
+     * Longest encoding of a long
+     */
+    public static final int MAX_BYTES = 10;
+
+    private Varint() {
+    }
+
+    /**
+     * Number of bytes the value encodes to
+     */
+    public static int size(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    /**
+     * Encode into an array
+     *
+     * @return position after the encoded value
+     */
+    public static int put(byte[] buffer, int position, long value) {
+        checkNotNegative(value);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    public static void write(ByteBuffer buffer, long value) {
+        checkNotNegative(value);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static long read(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 7 * MAX_BYTES; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longer than " + MAX_BYTES + " bytes");
+    }
+
+    private static void checkNotNegative(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Varint value must not be negative: " + value);
+        }
+    }
+
+    /**
+     * Map signed values to unsigned ones so small magnitudes stay small: 0, -1, 1, -2 become 0, 1, 2, 3
+     */
+    public static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,515 @@
+package org.example.world;
+
+import org.example.entity.CreatureType;
+import org.example.metrics.FlightEvents;
+import org.example.metrics.LevelLoadEvent;
+import org.example.util.CellBits;
+import org.example.util.Direction;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Domain model: CompiledLevel
+ * A maze parsed once into the tables the game runs on: wall grid, food spawn bits,
+ * creature spawn points, tunnel cells and the open-neighbour table (one bit per direction).
+ * Cells are indexed row * columnCount + col.
+ * Compiled levels are immutable. Those compiled from map text are cached by content hash,
+ * so a maze is parsed once however many templates, levels and restarts use it. The cache
+ * holds them through soft references, so mazes nothing uses any more can be collected when
+ * memory runs short instead of staying for the life of the process.
+ * Tiles, which depend on the tile size, are built on first use per tile size and shared the same way.
+ * <p>
+ * Map characters: X wall, space food, O open without food (on the edge of an open row, a tunnel),
+ * P Pacman, r b p o the red, blue, pink and orange ghosts. Creature cells hold no food.
+ * Domain layer - no Swing dependencies.
+ */
+public final class CompiledLevel {
+    /**
+     * Neighbour value for a blocked direction
+     */
+    public static final int NONE = -1;
+
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Map<Long, CacheEntry> CACHE = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<CompiledLevel> COLLECTED = new ReferenceQueue<>();
+
+    private final byte[] cells;
+    private final int rowCount;
+    private final int columnCount;
+    private final long contentHash;
+    private final boolean[] wallGrid;
+    private final long[] foodBits;
+    private final int foodCount;
+    private final long[] tunnelBits;
+    private final boolean[] tunnelRows;
+    private final byte[] exits;
+    private final int[] neighborOffsets;
+    private final CreatureType[] spawnTypes;
+    private final int[] spawnCells;
+    private final Map<Integer, TileGrid> tileGrids = new ConcurrentHashMap<>();
+
+    /**
+     * @param cells map characters, row by row; kept, not copied
+     */
+    private CompiledLevel(byte[] cells, int rowCount, int columnCount, long contentHash) {
+        this.cells = cells;
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.contentHash = contentHash;
+        int cellCount = rowCount * columnCount;
+        this.wallGrid = new boolean[cellCount];
+        this.foodBits = new long[CellBits.wordCount(cellCount)];
+        this.tunnelBits = new long[foodBits.length];
+        this.tunnelRows = new boolean[rowCount];
+        this.exits = new byte[cellCount];
+        this.neighborOffsets = new int[DIRECTIONS.length];
+        for (Direction direction : DIRECTIONS) {
+            neighborOffsets[direction.ordinal()] = direction == Direction.UP ? -columnCount
+                : direction == Direction.DOWN ? columnCount : direction == Direction.LEFT ? -1 : 1;
+        }
+
+        int food = 0;
+        int spawns = 0;
+        int pacmanCell = NONE;
+        for (int cell = 0; cell < cellCount; cell++) {
+            byte tileMapChar = cells[cell];
+            switch (tileMapChar) {
+                case 'X':
+                    wallGrid[cell] = true;
+                    break;
+                case ' ':
+                    CellBits.set(foodBits, cell);
+                    food++;
+                    break;
+                case 'O':
+                    break;
+                case 'P':
+                    if (pacmanCell != NONE) {
+                        throw new IllegalArgumentException("Second Pacman at row " + cell / columnCount
+                            + ", column " + cell % columnCount);
+                    }
+                    pacmanCell = cell;
+                    spawns++;
+                    break;
+                default:
+                    if (ghostType(tileMapChar) == null) {
+                        throw new IllegalArgumentException("Unknown map character '" + (char) tileMapChar
+                            + "' at row " + cell / columnCount + ", column " + cell % columnCount);
+                    }
+                    spawns++;
+                    break;
+            }
+        }
+        this.foodCount = food;
+
+        // Pacman always spawns first, then the ghosts in map order
+        this.spawnTypes = new CreatureType[spawns];
+        this.spawnCells = new int[spawns];
+        int spawn = 0;
+        if (pacmanCell != NONE) {
+            spawnTypes[spawn] = CreatureType.PACMAN;
+            spawnCells[spawn++] = pacmanCell;
+        }
+        for (int cell = 0; spawn < spawns; cell++) {
+            CreatureType ghost = ghostType(cells[cell]);
+            if (ghost != null) {
+                spawnTypes[spawn] = ghost;
+                spawnCells[spawn++] = cell;
+            }
+        }
+
+        computeExits();
+        findTunnels();
+    }
+
+    private static CreatureType ghostType(byte tileMapChar) {
+        switch (tileMapChar) {
+            case 'r':
+                return CreatureType.RED_GHOST;
+            case 'b':
+                return CreatureType.BLUE_GHOST;
+            case 'p':
+                return CreatureType.PINK_GHOST;
+            case 'o':
+                return CreatureType.ORANGE_GHOST;
+            default:
+                return null;
+        }
+    }
+
+    private void computeExits() {
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < columnCount; c++) {
+                int cell = r * columnCount + c;
+                if (wallGrid[cell]) {
+                    continue;
+                }
+                int open = 0;
+                if (r > 0 && !wallGrid[cell - columnCount]) {
+                    open |= 1 << Direction.UP.ordinal();
+                }
+                if (r < rowCount - 1 && !wallGrid[cell + columnCount]) {
+                    open |= 1 << Direction.DOWN.ordinal();
+                }
+                if (c > 0 && !wallGrid[cell - 1]) {
+                    open |= 1 << Direction.LEFT.ordinal();
+                }
+                if (c < columnCount - 1 && !wallGrid[cell + 1]) {
+                    open |= 1 << Direction.RIGHT.ordinal();
+                }
+                exits[cell] = (byte) open;
+            }
+        }
+    }
+
+    /**
+     * An O cell on the left or right edge is a tunnel mouth when the open row runs up to it
+     */
+    private void findTunnels() {
+        for (int r = 0; r < rowCount; r++) {
+            markTunnel(r, 0, 1);
+            markTunnel(r, columnCount - 1, -1);
+        }
+    }
+
+    private void markTunnel(int row, int edgeCol, int inward) {
+        int rowStart = row * columnCount;
+        if (cells[rowStart + edgeCol] != 'O') {
+            return;
+        }
+        for (int c = edgeCol; c >= 0 && c < columnCount; c += inward) {
+            byte tileMapChar = cells[rowStart + c];
+            if (tileMapChar == 'X') {
+                return;
+            }
+            if (tileMapChar != 'O') {
+                // Reached the maze: everything from the edge up to here is tunnel
+                for (int t = edgeCol; t != c; t += inward) {
+                    CellBits.set(tunnelBits, rowStart + t);
+                }
+                tunnelRows[row] = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compiled form of a tile map, from the cache when the same map was compiled before
+     */
+    public static CompiledLevel compile(String[] tileMap) {
+        return compile(tileMap, true);
+    }
+
+    /**
+     * Compile a tile map without looking in or adding to the cache, e.g. to measure compiling
+     */
+    public static CompiledLevel compileUncached(String[] tileMap) {
+        return compile(tileMap, false);
+    }
+
+    private static CompiledLevel compile(String[] tileMap, boolean useCache) {
+        LevelLoadEvent event = FlightEvents.beginLevelLoad();
+        if (tileMap.length == 0) {
+            throw new IllegalArgumentException("Tile map has no rows");
+        }
+        int columnCount = tileMap[0].length();
+        byte[] cells = new byte[tileMap.length * columnCount];
+        for (int r = 0; r < tileMap.length; r++) {
+            String row = tileMap[r];
+            if (row.length() != columnCount) {
+                throw new IllegalArgumentException("Tile map rows differ in length: " + row);
+            }
+            for (int c = 0; c < columnCount; c++) {
+                char tileMapChar = row.charAt(c);
+                if (tileMapChar > 0x7F) {
+                    throw new IllegalArgumentException("Unknown map character '" + tileMapChar
+                        + "' at row " + r + ", column " + c);
+                }
+                cells[r * columnCount + c] = (byte) tileMapChar;
+            }
+        }
+        CompiledLevel compiled = useCache ? compile(cells, tileMap.length, columnCount)
+            : compileUncached(cells, tileMap.length, columnCount);
+        if (event != null) {
+            // A newly compiled level keeps the cells it was given
+            event.finish(LevelLoadEvent.TILE_MAP, null, compiled.rowCount, compiled.columnCount, 0,
+                compiled.getFoodCount(), compiled.getContentHash(), compiled.cells != cells);
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiled form of a grid of map characters, from the cache when the same map was compiled before
+     *
+     * @param cells map characters, row by row; the array is kept and must not be changed afterwards
+     */
+    static CompiledLevel compile(byte[] cells, int rowCount, int columnCount) {
+        long hash = hash(cells, columnCount);
+        CompiledLevel cached = cached(hash);
+        if (cached != null && cached.sameCells(cells, rowCount, columnCount)) {
+            return cached;
+        }
+        CompiledLevel compiled = new CompiledLevel(cells, rowCount, columnCount, hash);
+        if (cached == null) {
+            CacheEntry entry = new CacheEntry(compiled);
+            // Replaces an entry whose level was collected, but not one another thread just added
+            CacheEntry kept = CACHE.merge(hash, entry, (old, fresh) -> old.get() != null ? old : fresh);
+            CompiledLevel raced = kept.get();
+            if (kept != entry && raced != null && raced.sameCells(cells, rowCount, columnCount)) {
+                return raced;
+            }
+        }
+        // A hash collision keeps the first level in the cache; this one is simply not cached
+        return compiled;
+    }
+
+    /**
+     * Compile a grid of map characters without caching it, for generated mazes that are used once
+     *
+     * @param cells map characters, row by row; the array is kept and must not be changed afterwards
+     */
+    static CompiledLevel compileUncached(byte[] cells, int rowCount, int columnCount) {
+        return new CompiledLevel(cells, rowCount, columnCount, hash(cells, columnCount));
+    }
+
+    private boolean sameCells(byte[] otherCells, int otherRowCount, int otherColumnCount) {
+        return rowCount == otherRowCount && columnCount == otherColumnCount && Arrays.equals(cells, otherCells);
+    }
+
+    /**
+     * Cached level with the given content hash, or null
+     */
+    static CompiledLevel cached(long contentHash) {
+        removeCollected();
+        CacheEntry entry = CACHE.get(contentHash);
+        return entry != null ? entry.get() : null;
+    }
+
+    private static void removeCollected() {
+        Reference<? extends CompiledLevel> collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            CACHE.remove(((CacheEntry) collected).contentHash, collected);
+        }
+    }
+
+    /**
+     * Cached level, which the garbage collector may clear when memory runs short
+     */
+    private static final class CacheEntry extends SoftReference<CompiledLevel> {
+        private final long contentHash;
+
+        CacheEntry(CompiledLevel level) {
+            super(level, COLLECTED);
+            this.contentHash = level.contentHash;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the map rows, with a \n after each row
+     */
+    private static long hash(byte[] cells, int columnCount) {
+        long hash = FNV_OFFSET;
+        for (int rowStart = 0; rowStart < cells.length; rowStart += columnCount) {
+            for (int i = rowStart; i < rowStart + columnCount; i++) {
+                hash = hashStep(hash, cells[i]);
+            }
+            hash = hashStep(hash, '\n');
+        }
+        return hash;
+    }
+
+    static long hashStep(long hash, int c) {
+        return (hash ^ c) * FNV_PRIME;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * One row of the tile map, as written in the source map
+     */
+    public String getRow(int row) {
+        return new String(cells, row * columnCount, columnCount, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Map character of a cell
+     */
+    public char getTileChar(int row, int col) {
+        return (char) cells[row * columnCount + col];
+    }
+
+    /**
+     * Whether the cell is a wall. Cells outside the map are never walls.
+     */
+    public boolean isWall(int row, int col) {
+        if (row >= 0 && row < rowCount && col >= 0 && col < columnCount) {
+            return wallGrid[row * columnCount + col];
+        }
+        return false;
+    }
+
+    /**
+     * Whether the cell holds food when the level starts
+     */
+    public boolean isFoodSpawn(int row, int col) {
+        if (row >= 0 && row < rowCount && col >= 0 && col < columnCount) {
+            return CellBits.get(foodBits, row * columnCount + col);
+        }
+        return false;
+    }
+
+    /**
+     * Copy the food spawn bits, in the layout used by CellBits, into an array of getFoodWordCount() words
+     */
+    public void copyFoodBits(long[] to) {
+        System.arraycopy(foodBits, 0, to, 0, foodBits.length);
+    }
+
+    /**
+     * One word of the food spawn bits
+     */
+    public long getFoodWord(int index) {
+        return foodBits[index];
+    }
+
+    public int getFoodWordCount() {
+        return foodBits.length;
+    }
+
+    /**
+     * Number of food pellets when the level starts
+     */
+    public int getFoodCount() {
+        return foodCount;
+    }
+
+    /**
+     * Whether the cell is part of a tunnel leading off the edge of the board
+     */
+    public boolean isTunnel(int row, int col) {
+        if (row >= 0 && row < rowCount && col >= 0 && col < columnCount) {
+            return CellBits.get(tunnelBits, row * columnCount + col);
+        }
+        return false;
+    }
+
+    /**
+     * Whether the row has a tunnel on either edge
+     */
+    public boolean isTunnelRow(int row) {
+        return row >= 0 && row < rowCount && tunnelRows[row];
+    }
+
+    /**
+     * Open neighbour of an open cell in the given direction, or NONE if either is a wall or off the map
+     */
+    public int getNeighbor(int cell, Direction direction) {
+        int ordinal = direction.ordinal();
+        return (exits[cell] & (1 << ordinal)) != 0 ? cell + neighborOffsets[ordinal] : NONE;
+    }
+
+    /**
+     * Number of open neighbours of a cell
+     */
+    public int getExitCount(int cell) {
+        return Integer.bitCount(exits[cell]);
+    }
+
+    /**
+     * Number of creature spawn points; Pacman's, if the map has one, comes first
+     */
+    public int getSpawnCount() {
+        return spawnCells.length;
+    }
+
+    public CreatureType getSpawnType(int spawn) {
+        return spawnTypes[spawn];
+    }
+
+    public int getSpawnRow(int spawn) {
+        return spawnCells[spawn] / columnCount;
+    }
+
+    public int getSpawnColumn(int spawn) {
+        return spawnCells[spawn] % columnCount;
+    }
+
+    /**
+     * Tiles for a tile size, built once and shared by every level of this maze
+     */
+    TileGrid getTiles(int tileSize) {
+        TileGrid tiles = tileGrids.get(tileSize);
+        if (tiles == null) {
+            LevelLoadEvent event = FlightEvents.beginLevelLoad();
+            tiles = new TileGrid(tileSize);
+            if (event != null) {
+                event.finish(LevelLoadEvent.TILES, null, rowCount, columnCount, tileSize, getFoodCount(),
+                    contentHash, false);
+            }
+            TileGrid raced = tileGrids.putIfAbsent(tileSize, tiles);
+            if (raced != null) {
+                tiles = raced;
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Immutable tiles of this maze at one tile size
+     */
+    final class TileGrid {
+        private final Tile[] tiles;
+        private final Set<Tile> walls;
+
+        private TileGrid(int tileSize) {
+            tiles = new Tile[rowCount * columnCount];
+            Set<Tile> wallTiles = new HashSet<>();
+            for (int r = 0; r < rowCount; r++) {
+                for (int c = 0; c < columnCount; c++) {
+                    int cell = r * columnCount + c;
+                    int x = c * tileSize;
+                    int y = r * tileSize;
+                    byte tileMapChar = cells[cell];
+                    TileType type = tileMapChar == 'X' ? TileType.WALL
+                        : tileMapChar == ' ' ? TileType.FOOD
+                        : tileMapChar == 'O' ? TileType.SKIP
+                        : TileType.EMPTY; // Characters for creatures are handled separately
+                    tiles[cell] = new Tile(type, x, y, tileSize, tileSize);
+                    if (type == TileType.WALL) {
+                        wallTiles.add(tiles[cell]);
+                    }
+                }
+            }
+            walls = Collections.unmodifiableSet(wallTiles);
+        }
+
+        Tile get(int cell) {
+            return tiles[cell];
+        }
+
+        Set<Tile> getWalls() {
+            return walls;
+        }
+    }
+}
@@ -1,69 +1,50 @@
 package org.example.world;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
+import org.example.util.CellBits;
+
 import java.util.Set;
 
 /**
  * Domain model: Level
  * Represents the game level with tiles, walls, and food.
+ * Walls, tiles and spawn food come from a shared CompiledLevel; a level only owns
+ * its remaining food, so creating and restarting levels does not parse the map again.
+ * Remaining food is one bit per cell plus a counter, so eating and
+ * checking for food cost the same however many pellets are left.
  * Domain layer - no Swing dependencies.
  */
 public class Level {
+    private final CompiledLevel compiled;
     private final int rowCount;
     private final int columnCount;
     private final int tileSize;
-    private final List<List<Tile>> tiles;
-    private final Set<Tile> walls;
-    private final Set<Tile> foods;
-    private final String[] tileMap;
+    private final long[] foodBits;
+    private int foodCount;
 
     public Level(int rowCount, int columnCount, int tileSize, String[] tileMap) {
-        this.rowCount = rowCount;
-        this.columnCount = columnCount;
-        this.tileSize = tileSize;
-        this.tileMap = tileMap;
-        this.tiles = new ArrayList<>();
-        this.walls = new HashSet<>();
-        this.foods = new HashSet<>();
-        loadMap();
-    }
-
-    private void loadMap() {
-        tiles.clear();
-        walls.clear();
-        foods.clear();
-
-        for (int r = 0; r < rowCount; r++) {
-            List<Tile> row = new ArrayList<>();
-            String mapRow = tileMap[r];
-            
-            for (int c = 0; c < columnCount; c++) {
-                char tileMapChar = mapRow.charAt(c);
-                int x = c * tileSize;
-                int y = r * tileSize;
-
-                Tile tile;
-                if (tileMapChar == 'X') {
-                    tile = new Tile(TileType.WALL, x, y, tileSize, tileSize);
-                    walls.add(tile);
-                } else if (tileMapChar == ' ') {
-                    // Empty space with food
-                    tile = new Tile(TileType.FOOD, x, y, tileSize, tileSize);
-                    foods.add(tile);
-                } else if (tileMapChar == 'O') {
-                    tile = new Tile(TileType.SKIP, x, y, tileSize, tileSize);
-                } else {
-                    // Characters for creatures are handled separately
-                    tile = new Tile(TileType.EMPTY, x, y, tileSize, tileSize);
-                }
-                row.add(tile);
-            }
-            tiles.add(row);
+        this(CompiledLevel.compile(tileMap), tileSize);
+        if (rowCount != this.rowCount || columnCount != this.columnCount) {
+            throw new IllegalArgumentException("Tile map is " + this.rowCount + "x" + this.columnCount
+                + ", not " + rowCount + "x" + columnCount);
         }
     }
 
+    public Level(CompiledLevel compiled, int tileSize) {
+        this.compiled = compiled;
+        this.rowCount = compiled.getRowCount();
+        this.columnCount = compiled.getColumnCount();
+        this.tileSize = tileSize;
+        this.foodBits = new long[compiled.getFoodWordCount()];
+        restoreFood();
+    }
+
+    /**
+     * The compiled maze this level plays on
+     */
+    public CompiledLevel getCompiled() {
+        return compiled;
+    }
+
     public int getRowCount() {
         return rowCount;
     }
@@ -84,36 +65,166 @@ public class Level {
         return rowCount * tileSize;
     }
 
+    /**
+     * Wall tiles, built on first use and shared by every level of the same maze and tile size
+     */
     public Set<Tile> getWalls() {
-        return walls;
+        return compiled.getTiles(tileSize).getWalls();
+    }
+
+    /**
+     * Check whether the cell at the given row and column is a wall.
+     * Cells outside the map are never walls.
+     */
+    public boolean isWall(int row, int col) {
+        return compiled.isWall(row, col);
+    }
+
+    /**
+     * Whether the cell is part of a tunnel leading off the edge of the board
+     */
+    public boolean isTunnel(int row, int col) {
+        return compiled.isTunnel(row, col);
     }
 
-    public Set<Tile> getFoods() {
-        return foods;
+    /**
+     * Whether the row has a tunnel on either edge
+     */
+    public boolean isTunnelRow(int row) {
+        return compiled.isTunnelRow(row);
     }
 
     public Tile getTile(int row, int col) {
         if (row >= 0 && row < rowCount && col >= 0 && col < columnCount) {
-            return tiles.get(row).get(col);
+            return compiled.getTiles(tileSize).get(row * columnCount + col);
         }
         return null;
     }
 
     /**
-     * Reload the level map
+     * Put the level back as it started. Walls never change, so only the food is restored.
      */
     public void reload() {
-        loadMap();
+        restoreFood();
+    }
+
+    /**
+     * Put every food pellet of the map back
+     */
+    public void restoreFood() {
+        compiled.copyFoodBits(foodBits);
+        foodCount = compiled.getFoodCount();
+    }
+
+    /**
+     * Check whether the cell at the given row and column still holds food
+     */
+    public boolean hasFoodAt(int row, int col) {
+        if (row >= 0 && row < rowCount && col >= 0 && col < columnCount) {
+            return CellBits.get(foodBits, row * columnCount + col);
+        }
+        return false;
+    }
+
+    /**
+     * Eat the food in a cell
+     *
+     * @return true if the cell held food
+     */
+    public boolean removeFood(int row, int col) {
+        if (!hasFoodAt(row, col)) {
+            return false;
+        }
+        CellBits.clear(foodBits, row * columnCount + col);
+        foodCount--;
+        return true;
+    }
+
+    /**
+     * Index (row * columnCount + col) of the first cell at or after fromCell that holds food,
+     * or -1 if there is none. Use it to walk the remaining food:
+     * {@code for (int cell = level.nextFood(0); cell >= 0; cell = level.nextFood(cell + 1))}
+     */
+    public int nextFood(int fromCell) {
+        return CellBits.next(foodBits, fromCell, rowCount * columnCount);
+    }
+
+    /**
+     * Copy of the remaining-food bits, in the layout used by CellBits
+     */
+    public long[] copyFoodBits() {
+        return foodBits.clone();
+    }
+
+    /**
+     * One word of the remaining-food bits, in the layout used by CellBits
+     */
+    public long getFoodWord(int index) {
+        return foodBits[index];
+    }
+
+    /**
+     * Whether the cell holds food when the level starts
+     */
+    public boolean isFoodSpawn(int row, int col) {
+        return compiled.isFoodSpawn(row, col);
+    }
+
+    /**
+     * Number of long words in the food bitset
+     */
+    public int getFoodWordCount() {
+        return foodBits.length;
+    }
+
+    /**
+     * Number of food words that differ from the level's initial food
+     */
+    public int countFoodChanges() {
+        int count = 0;
+        for (int w = 0; w < foodBits.length; w++) {
+            if (foodBits[w] != compiled.getFoodWord(w)) {
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
-     * Remove a food tile
+     * Write the food words that differ from the level's initial food as (word index, bits) pairs.
+     * The arrays must have room for countFoodChanges() entries.
+     *
+     * @return number of pairs written
      */
-    public void removeFood(Tile food) {
-        foods.remove(food);
+    public int saveFoodChanges(int[] wordIndices, long[] words) {
+        int count = 0;
+        for (int w = 0; w < foodBits.length; w++) {
+            if (foodBits[w] != compiled.getFoodWord(w)) {
+                wordIndices[count] = w;
+                words[count] = foodBits[w];
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Set the food to the initial food with the changes written by saveFoodChanges() applied
+     */
+    public void restoreFoodChanges(int[] wordIndices, long[] words, int count) {
+        restoreFood();
+        for (int i = 0; i < count; i++) {
+            int w = wordIndices[i];
+            foodCount += Long.bitCount(words[i]) - Long.bitCount(compiled.getFoodWord(w));
+            foodBits[w] = words[i];
+        }
+    }
+
+    public int getFoodCount() {
+        return foodCount;
     }
 
     public boolean hasFood() {
-        return !foods.isEmpty();
+        return foodCount > 0;
     }
 }
@@ -0,0 +1,183 @@
+package org.example.world;
+
+import org.example.metrics.FlightEvents;
+import org.example.metrics.LevelLoadEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Domain model: LevelLoader
+ * Reads level files: one map row per line, in the characters described in CompiledLevel,
+ * with \n or \r\n line ends and optional blank lines at the end.
+ * Files are memory-mapped and scanned in place. The content hash is computed from the raw
+ * bytes first, so a maze that is already compiled is returned from the cache without
+ * building a single String. Each load is a LevelLoad Flight Recorder event, marked as a
+ * cache hit when no compiling was needed.
+ * Domain layer - no Swing dependencies.
+ */
+public final class LevelLoader {
+    /**
+     * Classpath directory of the levels that ship with the game
+     */
+    public static final String BUNDLED_DIRECTORY = "/Levels/";
+
+    private LevelLoader() {
+    }
+
+    /**
+     * Load a level file from disk
+     */
+    public static LevelTemplate load(Path file) throws IOException {
+        LevelLoadEvent event = FlightEvents.beginLevelLoad();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Level file too large: " + file);
+            }
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), event, LevelLoadEvent.FILE, file);
+        }
+    }
+
+    /**
+     * Load a level from the classpath, e.g. "/Levels/classic.txt"
+     */
+    public static LevelTemplate loadResource(String resource) throws IOException {
+        LevelLoadEvent event = FlightEvents.beginLevelLoad();
+        try (InputStream in = LevelLoader.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No level resource " + resource);
+            }
+            return parse(ByteBuffer.wrap(in.readAllBytes()), event, LevelLoadEvent.RESOURCE, resource);
+        }
+    }
+
+    /**
+     * Load one of the levels that ship with the game, by name without extension
+     */
+    public static LevelTemplate loadBundled(String name) {
+        try {
+            return loadResource(BUNDLED_DIRECTORY + name + ".txt");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read bundled level " + name, e);
+        }
+    }
+
+    /**
+     * Parse level file content, from the buffer's position to its limit. The buffer is not modified.
+     */
+    public static LevelTemplate parse(ByteBuffer content) {
+        return parse(content, FlightEvents.beginLevelLoad(), LevelLoadEvent.BUFFER, null);
+    }
+
+    /**
+     * Parse and finish the load event, if there is one
+     */
+    private static LevelTemplate parse(ByteBuffer content, LevelLoadEvent event, String kind, Object source) {
+        int start = content.position();
+        int limit = content.limit();
+
+        // First pass: size and content hash, straight from the bytes
+        long hash = CompiledLevel.FNV_OFFSET;
+        int rowCount = 0;
+        int columnCount = -1;
+        boolean ended = false;
+        for (int lineStart = start; lineStart < limit; ) {
+            int lineEnd = lineEnd(content, lineStart, limit);
+            int length = lineEnd - lineStart;
+            if (length == 0) {
+                ended = true;
+            } else {
+                if (ended) {
+                    throw new IllegalArgumentException("Blank line inside the map before row " + rowCount);
+                }
+                if (columnCount >= 0 && length != columnCount) {
+                    throw new IllegalArgumentException("Row " + rowCount + " has " + length
+                        + " cells, expected " + columnCount);
+                }
+                columnCount = length;
+                for (int i = lineStart; i < lineEnd; i++) {
+                    byte b = content.get(i);
+                    if (b < 0) {
+                        throw new IllegalArgumentException("Non-ASCII byte in row " + rowCount);
+                    }
+                    hash = CompiledLevel.hashStep(hash, b);
+                }
+                hash = CompiledLevel.hashStep(hash, '\n');
+                rowCount++;
+            }
+            lineStart = nextLine(content, lineStart, limit);
+        }
+        if (rowCount == 0) {
+            throw new IllegalArgumentException("Level has no rows");
+        }
+
+        CompiledLevel cached = CompiledLevel.cached(hash);
+        if (cached != null && sameRows(content, cached, rowCount, columnCount)) {
+            finish(event, kind, source, cached, true);
+            return new LevelTemplate(cached);
+        }
+
+        // Second pass: new maze, so copy the cells out and compile them
+        byte[] cells = new byte[rowCount * columnCount];
+        int lineStart = start;
+        for (int r = 0; r < rowCount; r++) {
+            content.get(lineStart, cells, r * columnCount, columnCount);
+            lineStart = nextLine(content, lineStart, limit);
+        }
+        CompiledLevel compiled = CompiledLevel.compile(cells, rowCount, columnCount);
+        finish(event, kind, source, compiled, false);
+        return new LevelTemplate(compiled);
+    }
+
+    private static void finish(LevelLoadEvent event, String kind, Object source, CompiledLevel compiled,
+                               boolean cacheHit) {
+        if (event != null) {
+            event.finish(kind, source != null ? source.toString() : null, compiled.getRowCount(),
+                compiled.getColumnCount(), 0, compiled.getFoodCount(), compiled.getContentHash(), cacheHit);
+        }
+    }
+
+    /**
+     * End of the line's cells: the next \n, less a \r before it, or the limit
+     */
+    private static int lineEnd(ByteBuffer content, int lineStart, int limit) {
+        int i = lineStart;
+        while (i < limit && content.get(i) != '\n') {
+            i++;
+        }
+        if (i > lineStart && content.get(i - 1) == '\r') {
+            i--;
+        }
+        return i;
+    }
+
+    private static int nextLine(ByteBuffer content, int lineStart, int limit) {
+        int i = lineStart;
+        while (i < limit && content.get(i) != '\n') {
+            i++;
+        }
+        return i + 1;
+    }
+
+    private static boolean sameRows(ByteBuffer content, CompiledLevel compiled, int rowCount, int columnCount) {
+        if (compiled.getRowCount() != rowCount || compiled.getColumnCount() != columnCount) {
+            return false;
+        }
+        int lineStart = content.position();
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < columnCount; c++) {
+                if (content.get(lineStart + c) != compiled.getTileChar(r, c)) {
+                    return false;
+                }
+            }
+            lineStart = nextLine(content, lineStart, content.limit());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.world;
+
+import org.example.entity.Creature;
+import org.example.entity.CreatureType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Domain model: LevelTemplate
+ * Immutable description of a maze that levels and creatures are built from.
+ * One template can be shared by any number of games and threads.
+ * Templates of the same map share one CompiledLevel.
+ * Domain layer - no Swing dependencies.
+ */
+public final class LevelTemplate {
+    /**
+     * The stock 21x19 maze, from the Levels/classic.txt resource
+     */
+    public static final LevelTemplate CLASSIC = LevelLoader.loadBundled("classic");
+
+    private final CompiledLevel compiled;
+
+    public LevelTemplate(String[] tileMap) {
+        this(CompiledLevel.compile(tileMap));
+    }
+
+    public LevelTemplate(CompiledLevel compiled) {
+        this.compiled = compiled;
+    }
+
+    public int getRowCount() {
+        return compiled.getRowCount();
+    }
+
+    public int getColumnCount() {
+        return compiled.getColumnCount();
+    }
+
+    /**
+     * Identity of the maze: equal for templates with the same tile map
+     */
+    public long getContentHash() {
+        return compiled.getContentHash();
+    }
+
+    /**
+     * One row of the tile map, as written in the source map
+     */
+    public String getRow(int row) {
+        return compiled.getRow(row);
+    }
+
+    public CompiledLevel getCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Create a fresh level from this template
+     */
+    public Level createLevel(int tileSize) {
+        return new Level(compiled, tileSize);
+    }
+
+    /**
+     * Create creatures at their spawn points. Pacman is always at index 0.
+     */
+    public List<Creature> createCreatures(int tileSize) {
+        if (compiled.getSpawnCount() == 0 || compiled.getSpawnType(0) != CreatureType.PACMAN) {
+            throw new IllegalStateException("Map has no Pacman (P)");
+        }
+        List<Creature> creatures = new ArrayList<>(compiled.getSpawnCount());
+        for (int i = 0; i < compiled.getSpawnCount(); i++) {
+            int x = compiled.getSpawnColumn(i) * tileSize;
+            int y = compiled.getSpawnRow(i) * tileSize;
+            creatures.add(new Creature(compiled.getSpawnType(i), x, y, tileSize));
+        }
+        return creatures;
+    }
+}
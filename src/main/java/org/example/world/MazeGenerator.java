@@ -0,0 +1,327 @@
+package org.example.world;
+
+import org.example.metrics.FlightEvents;
+import org.example.metrics.LevelLoadEvent;
+import org.example.util.SeededRandom;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Domain model: MazeGenerator
+ * Builds Pac-Man style mazes of any size from a seed, for stress tests and benchmarks.
+ * Mazes are mirror-symmetric left to right, fully connected and free of dead ends, with
+ * tunnels off both edges, a ghost house in the middle ringed by a corridor, Pacman below it
+ * and any number of ghosts: the house fills first, the rest spawn across the maze.
+ * <p>
+ * The left half is a spanning tree over a lattice of corridor cells, carved row by row with
+ * Eller's algorithm so the working state is one row wide. It is mirrored to the right and
+ * joined across the middle, then every dead end is opened into a loop.
+ * Cells are written straight into the compiled form; no map text is built. Generated
+ * levels are not cached, so a big maze is freed once its last template is dropped.
+ * The same arguments always give the same maze.
+ * Domain layer - no Swing dependencies.
+ */
+public final class MazeGenerator {
+    /**
+     * Smallest number of rows and columns a maze can have
+     */
+    public static final int MIN_SIZE = 15;
+
+    private static final byte WALL = 'X';
+    private static final byte FOOD = ' ';
+    private static final byte OPEN = 'O';
+    private static final byte[] GHOSTS = {'r', 'b', 'p', 'o'};
+    private static final int HOUSE_HEIGHT = 3;
+    private static final int TUNNEL_SPACING = 16;
+    private static final int CROSSING_SPACING = 4;
+
+    private final int rowCount;
+    private final int columnCount;
+    private final Random random;
+    private final byte[] cells;
+
+    // Lattice of corridor cells in the left half: node (i, j) is cell (2i + 1, 2j + 1)
+    private final int nodeRows;
+    private final int nodeColumns;
+    // Innermost lattice column on the left and its mirror on the right
+    private final int innerColumn;
+    private final int mirroredInnerColumn;
+
+    private MazeGenerator(int rowCount, int columnCount, long seed) {
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.random = new SeededRandom(seed);
+        this.cells = new byte[rowCount * columnCount];
+        Arrays.fill(cells, WALL);
+
+        int halfWidth = (columnCount + 1) / 2;
+        this.nodeRows = (rowCount - 1) / 2;
+        this.nodeColumns = halfWidth / 2;
+        this.innerColumn = 2 * nodeColumns - 1;
+        this.mirroredInnerColumn = columnCount - 1 - innerColumn;
+    }
+
+    /**
+     * Generate a maze
+     *
+     * @param ghostCount ghosts to spawn, at most one per 16 cells
+     */
+    public static LevelTemplate generate(int rowCount, int columnCount, int ghostCount, long seed) {
+        if (rowCount < MIN_SIZE || columnCount < MIN_SIZE) {
+            throw new IllegalArgumentException("Maze must be at least " + MIN_SIZE + "x" + MIN_SIZE
+                + ": " + rowCount + "x" + columnCount);
+        }
+        if ((long) rowCount * columnCount > Integer.MAX_VALUE / 8) {
+            throw new IllegalArgumentException("Maze too large: " + rowCount + "x" + columnCount);
+        }
+        if (ghostCount < 0 || ghostCount > rowCount * columnCount / 16) {
+            throw new IllegalArgumentException("Ghost count out of range: " + ghostCount);
+        }
+        LevelLoadEvent event = FlightEvents.beginLevelLoad();
+        MazeGenerator generator = new MazeGenerator(rowCount, columnCount, seed);
+        generator.carveSpanningTree();
+        generator.joinHalves();
+        generator.removeDeadEnds();
+        generator.addTunnels();
+        generator.placeHouseAndCreatures(ghostCount);
+        CompiledLevel compiled = CompiledLevel.compileUncached(generator.cells, rowCount, columnCount);
+        if (event != null) {
+            event.finish(LevelLoadEvent.GENERATED, null, rowCount, columnCount, 0, compiled.getFoodCount(),
+                compiled.getContentHash(), false);
+        }
+        return new LevelTemplate(compiled);
+    }
+
+    /**
+     * Open a cell and its mirror image
+     */
+    private void open(int row, int col, byte value) {
+        cells[row * columnCount + col] = value;
+        cells[row * columnCount + columnCount - 1 - col] = value;
+    }
+
+    private boolean isOpen(int row, int col) {
+        return cells[row * columnCount + col] != WALL;
+    }
+
+    /**
+     * Eller's algorithm: one lattice row at a time, tracking which nodes of the row are
+     * already connected through the rows above. Every node ends up in a single tree.
+     */
+    private void carveSpanningTree() {
+        // Set label of each node in the current row; labels are roots in parent
+        int[] label = new int[nodeColumns];
+        int[] parent = new int[nodeColumns];
+        boolean[] labelUsed = new boolean[nodeColumns];
+        boolean[] labelGoesDown = new boolean[nodeColumns];
+        int[] labelLastColumn = new int[nodeColumns];
+        boolean[] down = new boolean[nodeColumns];
+        for (int j = 0; j < nodeColumns; j++) {
+            label[j] = j;
+            parent[j] = j;
+        }
+
+        for (int i = 0; i < nodeRows; i++) {
+            int row = 2 * i + 1;
+            boolean lastRow = i == nodeRows - 1;
+            for (int j = 0; j < nodeColumns; j++) {
+                open(row, 2 * j + 1, FOOD);
+            }
+
+            // Join neighbours that are not connected yet; on the last row, all of them
+            for (int j = 0; j < nodeColumns - 1; j++) {
+                int a = find(parent, label[j]);
+                int b = find(parent, label[j + 1]);
+                if (a != b && (lastRow || random.nextBoolean())) {
+                    parent[a] = b;
+                    open(row, 2 * j + 2, FOOD);
+                }
+            }
+            if (lastRow) {
+                break;
+            }
+
+            // Every set continues down at least once
+            Arrays.fill(labelGoesDown, false);
+            for (int j = 0; j < nodeColumns; j++) {
+                int set = find(parent, label[j]);
+                label[j] = set;
+                down[j] = random.nextBoolean();
+                labelGoesDown[set] |= down[j];
+                labelLastColumn[set] = j;
+            }
+            for (int j = 0; j < nodeColumns; j++) {
+                int set = label[j];
+                if (!labelGoesDown[set] && labelLastColumn[set] == j) {
+                    down[j] = true;
+                }
+            }
+
+            // Next row: nodes below a passage keep their set, the rest start new ones
+            Arrays.fill(labelUsed, false);
+            for (int j = 0; j < nodeColumns; j++) {
+                if (down[j]) {
+                    open(row + 1, 2 * j + 1, FOOD);
+                    labelUsed[label[j]] = true;
+                }
+            }
+            int free = 0;
+            for (int j = 0; j < nodeColumns; j++) {
+                if (!down[j]) {
+                    while (labelUsed[free]) {
+                        free++;
+                    }
+                    label[j] = free++;
+                }
+                parent[label[j]] = label[j];
+            }
+        }
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    /**
+     * Open a passage across the middle between the innermost column and its mirror
+     */
+    private void openCrossing(int row) {
+        for (int c = innerColumn + 1; c < mirroredInnerColumn; c++) {
+            cells[row * columnCount + c] = FOOD;
+        }
+    }
+
+    private void joinHalves() {
+        if (innerColumn + 1 >= mirroredInnerColumn) {
+            return; // the halves already touch
+        }
+        openCrossing(2 * random.nextInt(nodeRows) + 1);
+        for (int i = 0; i < nodeRows; i++) {
+            if (random.nextInt(CROSSING_SPACING) == 0) {
+                openCrossing(2 * i + 1);
+            }
+        }
+    }
+
+    /**
+     * Give every corridor cell with a single way out a second one
+     */
+    private void removeDeadEnds() {
+        int[] candidates = new int[4];
+        for (int i = 0; i < nodeRows; i++) {
+            for (int j = 0; j < nodeColumns; j++) {
+                int row = 2 * i + 1;
+                int col = 2 * j + 1;
+                int exits = 0;
+                int closed = 0;
+                // 0 up, 1 down, 2 left, 3 right or across the middle
+                if (isOpen(row - 1, col)) {
+                    exits++;
+                } else if (i > 0) {
+                    candidates[closed++] = 0;
+                }
+                if (isOpen(row + 1, col)) {
+                    exits++;
+                } else if (i < nodeRows - 1) {
+                    candidates[closed++] = 1;
+                }
+                if (isOpen(row, col - 1)) {
+                    exits++;
+                } else if (j > 0) {
+                    candidates[closed++] = 2;
+                }
+                if (isOpen(row, col + 1)) {
+                    exits++;
+                } else {
+                    candidates[closed++] = 3;
+                }
+                if (exits != 1 || closed == 0) {
+                    continue;
+                }
+                switch (candidates[random.nextInt(closed)]) {
+                    case 0:
+                        open(row - 1, col, FOOD);
+                        break;
+                    case 1:
+                        open(row + 1, col, FOOD);
+                        break;
+                    case 2:
+                        open(row, col - 1, FOOD);
+                        break;
+                    default:
+                        if (j < nodeColumns - 1) {
+                            open(row, col + 1, FOOD);
+                        } else {
+                            openCrossing(row);
+                        }
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lead some corridor rows off both edges of the board
+     */
+    private void addTunnels() {
+        int tunnels = Math.max(1, nodeRows / TUNNEL_SPACING);
+        for (int t = 0; t < tunnels; t++) {
+            open(2 * random.nextInt(nodeRows) + 1, 0, OPEN);
+        }
+    }
+
+    /**
+     * Stamp the ghost house over the middle of the maze, ringed by a corridor that reconnects
+     * every passage the house cuts, then place Pacman and the ghosts
+     */
+    private void placeHouseAndCreatures(int ghostCount) {
+        // Interior width with the parity of the board, so the house sits exactly in the middle
+        int interiorWidth = columnCount % 2 == 0 ? 8 : 7;
+        int boxHeight = HOUSE_HEIGHT + 4;
+        int boxWidth = interiorWidth + 4;
+        int top = (rowCount - boxHeight) / 2;
+        int left = (columnCount - boxWidth) / 2;
+        int bottom = top + boxHeight - 1;
+        int right = left + boxWidth - 1;
+
+        for (int r = top; r <= bottom; r++) {
+            for (int c = left; c <= right; c++) {
+                int ring = Math.min(Math.min(r - top, bottom - r), Math.min(c - left, right - c));
+                byte value = ring == 0 ? FOOD : ring == 1 ? WALL : OPEN;
+                cells[r * columnCount + c] = value;
+            }
+        }
+        // Door in the middle of the top wall
+        int middle = columnCount / 2;
+        cells[(top + 1) * columnCount + middle] = OPEN;
+        cells[(top + 1) * columnCount + columnCount - 1 - middle] = OPEN;
+
+        int pacmanRow = bottom;
+        int pacmanCol = middle;
+        cells[pacmanRow * columnCount + pacmanCol] = 'P';
+
+        int placed = 0;
+        for (int r = top + 2; r <= bottom - 2 && placed < ghostCount; r++) {
+            for (int c = left + 2; c <= right - 2 && placed < ghostCount; c++) {
+                cells[r * columnCount + c] = GHOSTS[placed % GHOSTS.length];
+                placed++;
+            }
+        }
+        // The rest spawn on food away from Pacman
+        int minDistance = Math.min(rowCount, columnCount) / 4;
+        while (placed < ghostCount) {
+            int r = random.nextInt(rowCount);
+            int c = random.nextInt(columnCount);
+            int cell = r * columnCount + c;
+            if (cells[cell] == FOOD && Math.abs(r - pacmanRow) + Math.abs(c - pacmanCol) >= minDistance) {
+                cells[cell] = GHOSTS[placed % GHOSTS.length];
+                placed++;
+            }
+        }
+    }
+}
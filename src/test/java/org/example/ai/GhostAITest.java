@@ -0,0 +1,121 @@
+package org.example.ai;
+
+import junit.framework.TestCase;
+import org.example.collision.CollisionService;
+import org.example.entity.Creature;
+import org.example.entity.CreatureType;
+import org.example.game.GameEngine;
+import org.example.game.GameState;
+import org.example.util.Direction;
+import org.example.world.Level;
+
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Unit test for the distance-field ghost AI.
+ */
+public class GhostAITest extends TestCase {
+    private static final int TILE_SIZE = 32;
+
+    private static final String[] TILE_MAP = {
+        "XXXXXXXXX",
+        "X       X",
+        "X XXXXX X",
+        "X       X",
+        "XXXXXXXXX"
+    };
+
+    public void testDistanceFieldCountsSteps() {
+        Level level = new Level(5, 9, TILE_SIZE, TILE_MAP);
+        NavigationGrid grid = NavigationGrid.forLevel(level.getCompiled());
+        DistanceField field = new DistanceField(grid);
+
+        int target = 1 * 9 + 1;
+        field.retarget(target);
+
+        assertEquals(0, field.distanceFrom(target));
+        assertEquals(6, field.distanceFrom(1 * 9 + 7));
+        assertEquals(2, field.distanceFrom(3 * 9 + 1));
+        assertEquals(8, field.distanceFrom(3 * 9 + 7));
+        assertEquals(DistanceField.UNREACHABLE, field.distanceFrom(2 * 9 + 4));
+
+        // Distances from the old target's search must not leak into the new one
+        field.retarget(3 * 9 + 7);
+        assertEquals(2, field.distanceFrom(1 * 9 + 7));
+        assertEquals(8, field.distanceFrom(target));
+        assertEquals(0, field.distanceFrom(3 * 9 + 7));
+    }
+
+    public void testGridIsSharedPerCompiledMaze() {
+        Level level = new Level(5, 9, TILE_SIZE, TILE_MAP);
+        NavigationGrid grid = NavigationGrid.forLevel(level.getCompiled());
+        assertSame(grid, NavigationGrid.forLevel(new Level(5, 9, TILE_SIZE, TILE_MAP).getCompiled()));
+
+        // Two AIs steering on two levels of the same maze share one grid
+        GhostAI first = steerOnce(level);
+        GhostAI second = steerOnce(new Level(5, 9, TILE_SIZE, TILE_MAP));
+        assertSame(grid, first.getGrid());
+        assertSame(grid, second.getGrid());
+
+        // Scatter fields are searched in full and cannot be pointed elsewhere
+        DistanceField corner = grid.getScatterField(GhostPersonality.BLINKY);
+        assertEquals(1 * 9 + 7, corner.getTarget());
+        assertEquals(8, corner.distanceFrom(3 * 9 + 1));
+        try {
+            corner.retarget(1 * 9 + 1);
+            fail("retargeted a shared field");
+        } catch (IllegalStateException expected) {
+            // fixed target
+        }
+    }
+
+    public void testGhostsStayOutOfTunnelMouths() {
+        String[] tunnelMap = {
+            "XXXXX",
+            "OO OO",
+            "XXXXX"
+        };
+        Level level = new Level(3, 5, TILE_SIZE, tunnelMap);
+        NavigationGrid grid = NavigationGrid.forLevel(level.getCompiled());
+        int inner = 1 * 5 + 1;
+
+        assertEquals(1 * 5, level.getCompiled().getNeighbor(inner, Direction.LEFT));
+        assertEquals(NavigationGrid.NONE, grid.getNeighbor(inner, Direction.LEFT));
+        assertEquals(inner + 1, grid.getNeighbor(inner, Direction.RIGHT));
+        assertFalse(grid.isWalkable(1 * 5));
+        assertEquals(inner, grid.toWalkableCell(1, 0));
+    }
+
+    public void testTargetsInsideWallsSnapToWalkableCells() {
+        NavigationGrid grid = NavigationGrid.forLevel(new Level(5, 9, TILE_SIZE, TILE_MAP).getCompiled());
+
+        assertEquals(1 * 9 + 1, grid.toWalkableCell(0, 0));
+        assertEquals(3 * 9 + 7, grid.toWalkableCell(99, 99));
+    }
+
+    public void testRedGhostCatchesStandingPacman() {
+        Level level = new Level(5, 9, TILE_SIZE, TILE_MAP);
+        Creature pacman = new Creature(CreatureType.PACMAN, 7 * TILE_SIZE, 3 * TILE_SIZE, TILE_SIZE);
+        Creature ghost = new Creature(CreatureType.RED_GHOST, 1 * TILE_SIZE, 1 * TILE_SIZE, TILE_SIZE);
+        ghost.updateDirection(Direction.RIGHT);
+
+        GameState gameState = new GameState(level, pacman, Collections.singletonList(ghost), new Random(3));
+        GameEngine gameEngine = new GameEngine(gameState, new CollisionService(), TILE_SIZE);
+        gameEngine.setGhostAI(new GhostAI());
+
+        for (int tick = 0; tick < 400 && gameEngine.getDeaths() == 0; tick++) {
+            gameEngine.update();
+        }
+        assertEquals(1, gameEngine.getDeaths());
+    }
+
+    private static GhostAI steerOnce(Level level) {
+        Creature pacman = new Creature(CreatureType.PACMAN, 7 * TILE_SIZE, 3 * TILE_SIZE, TILE_SIZE);
+        Creature ghost = new Creature(CreatureType.RED_GHOST, 1 * TILE_SIZE, 1 * TILE_SIZE, TILE_SIZE);
+        GameState gameState = new GameState(level, pacman, Collections.singletonList(ghost), new Random(3));
+        GhostAI ai = new GhostAI();
+        ai.steer(gameState);
+        return ai;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.collision;
+
+import junit.framework.TestCase;
+import org.example.world.Level;
+import org.example.world.Tile;
+
+/**
+ * Unit test for CollisionService wall queries.
+ */
+public class CollisionServiceTest extends TestCase {
+    private static final int TILE_SIZE = 32;
+
+    private static final String[] TILE_MAP = {
+        "XXXXX",
+        "X   X",
+        "X X O",
+        "X   X",
+        "XXXXX"
+    };
+
+    /**
+     * The grid lookup must agree with testing the box against every wall tile
+     */
+    public void testGridLookupMatchesWallScan() {
+        CollisionService collisionService = new CollisionService();
+        Level level = new Level(5, 5, TILE_SIZE, TILE_MAP);
+
+        for (int y = -TILE_SIZE; y <= level.getBoardHeight(); y += TILE_SIZE / 4) {
+            for (int x = -TILE_SIZE; x <= level.getBoardWidth(); x += TILE_SIZE / 4) {
+                boolean expected = false;
+                for (Tile wall : level.getWalls()) {
+                    if (collisionService.checkCollision(x, y, TILE_SIZE, TILE_SIZE,
+                            wall.getX(), wall.getY(), wall.getWidth(), wall.getHeight())) {
+                        expected = true;
+                        break;
+                    }
+                }
+                assertEquals("box at " + x + "," + y, expected,
+                    collisionService.collidesWithWall(level, x, y, TILE_SIZE, TILE_SIZE));
+            }
+        }
+    }
+
+    public void testCellsOutsideMapAreNotWalls() {
+        Level level = new Level(5, 5, TILE_SIZE, TILE_MAP);
+
+        assertTrue(level.isWall(0, 0));
+        assertFalse(level.isWall(2, 4));
+        assertFalse(level.isWall(-1, 0));
+        assertFalse(level.isWall(0, 5));
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.entity;
+
+import junit.framework.TestCase;
+import org.example.util.Direction;
+import org.example.util.Position;
+
+/**
+ * Unit test for CreatureStore, and for Creature as a view onto one of its slots.
+ */
+public class CreatureStoreTest extends TestCase {
+    private static final int TILE_SIZE = 32;
+    private static final int SPEED = TILE_SIZE / 4;
+
+    public void testAddStartsStillAndFacingUp() {
+        // Capacity 1, so the later adds grow the arrays
+        CreatureStore store = new CreatureStore(TILE_SIZE, 1);
+        assertEquals(0, store.add(CreatureType.PACMAN, 32, 64));
+        assertEquals(1, store.add(CreatureType.RED_GHOST, 96, 128));
+        assertEquals(2, store.add(CreatureType.PINK_GHOST, 160, 192));
+        assertEquals(3, store.size());
+
+        assertEquals(CreatureType.PACMAN, store.getType(0));
+        assertEquals(CreatureType.PINK_GHOST, store.getType(2));
+        for (int i = 0; i < store.size(); i++) {
+            assertEquals(store.getStartX(i), store.getX(i));
+            assertEquals(store.getStartY(i), store.getY(i));
+            assertEquals(0, store.getVelocityX(i));
+            assertEquals(0, store.getVelocityY(i));
+            assertEquals(Direction.UP, store.getDirection(i));
+        }
+        assertEquals(96, store.getX(1));
+        assertEquals(128, store.getY(1));
+    }
+
+    public void testUpdateDirectionSetsVelocity() {
+        CreatureStore store = new CreatureStore(TILE_SIZE, 2);
+        int i = store.add(CreatureType.BLUE_GHOST, 64, 64);
+        assertVelocity(store, i, Direction.UP, 0, -SPEED);
+        assertVelocity(store, i, Direction.DOWN, 0, SPEED);
+        assertVelocity(store, i, Direction.LEFT, -SPEED, 0);
+        assertVelocity(store, i, Direction.RIGHT, SPEED, 0);
+
+        store.move(i);
+        store.move(i);
+        assertEquals(64 + 2 * SPEED, store.getX(i));
+        store.moveBack(i);
+        assertEquals(64 + SPEED, store.getX(i));
+        assertEquals(64, store.getY(i));
+    }
+
+    public void testResetStopsAtStartAndKeepsDirection() {
+        CreatureStore store = new CreatureStore(TILE_SIZE, 2);
+        int a = store.add(CreatureType.PACMAN, 32, 32);
+        int b = store.add(CreatureType.RED_GHOST, 64, 64);
+        store.updateDirection(a, Direction.RIGHT);
+        store.updateDirection(b, Direction.DOWN);
+        store.move(a);
+        store.move(b);
+
+        store.reset(a);
+        assertEquals(32, store.getX(a));
+        assertEquals(0, store.getVelocityX(a));
+        assertEquals(Direction.RIGHT, store.getDirection(a));
+        // Only the one creature
+        assertEquals(64 + SPEED, store.getY(b));
+        assertEquals(SPEED, store.getVelocityY(b));
+
+        store.resetAll();
+        assertEquals(64, store.getY(b));
+        assertEquals(0, store.getVelocityY(b));
+        assertEquals(Direction.DOWN, store.getDirection(b));
+    }
+
+    public void testSaveAndRestoreState() {
+        CreatureStore store = new CreatureStore(TILE_SIZE, 2);
+        store.add(CreatureType.PACMAN, 32, 32);
+        store.add(CreatureType.RED_GHOST, 64, 64);
+        store.updateDirection(1, Direction.LEFT);
+        store.move(1);
+
+        int[] x = new int[3];
+        int[] y = new int[3];
+        int[] velocityX = new int[3];
+        int[] velocityY = new int[3];
+        byte[] direction = new byte[3];
+        store.saveState(x, y, velocityX, velocityY, direction, 1);
+        assertEquals(64 - SPEED, x[2]);
+        assertEquals(-SPEED, velocityX[2]);
+
+        store.resetAll();
+        store.updateDirection(1, Direction.UP);
+        store.restoreState(x, y, velocityX, velocityY, direction, 1);
+        assertEquals(64 - SPEED, store.getX(1));
+        assertEquals(-SPEED, store.getVelocityX(1));
+        assertEquals(Direction.LEFT, store.getDirection(1));
+        assertEquals(32, store.getX(0));
+    }
+
+    public void testCreatureIsViewOntoStore() {
+        Creature creature = new Creature(CreatureType.RED_GHOST, 96, 128, TILE_SIZE);
+        creature.updateDirection(Direction.RIGHT);
+        creature.move();
+
+        CreatureStore store = new CreatureStore(TILE_SIZE, 1);
+        store.add(CreatureType.PACMAN, 0, 0);
+        assertSame(creature, store.adopt(creature));
+        assertSame(store, creature.getStore());
+        assertEquals(1, creature.getIndex());
+
+        // Adopting keeps the moving state
+        assertEquals(96 + SPEED, store.getX(1));
+        assertEquals(SPEED, store.getVelocityX(1));
+        assertEquals(Direction.RIGHT, store.getDirection(1));
+        assertEquals(96, creature.getStartX());
+
+        // Changes through either side show through the other
+        store.updateDirection(1, Direction.DOWN);
+        assertEquals(Direction.DOWN, creature.getDirection());
+        assertEquals(SPEED, creature.getVelocityY());
+        creature.setPosition(10, 20);
+        assertEquals(10, store.getX(1));
+        assertEquals(20, store.getY(1));
+        creature.reset();
+        assertEquals(96, store.getX(1));
+        assertEquals(0, store.getVelocityY(1));
+        assertEquals(0, store.getX(0));
+    }
+
+    public void testAdoptRejectsOtherTileSize() {
+        Creature creature = new Creature(CreatureType.PACMAN, 0, 0, 16);
+        try {
+            new CreatureStore(TILE_SIZE, 1).adopt(creature);
+            fail("Expected a creature with another tile size to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Positions are copies: they do not follow the creature, and changing one does not move it
+     */
+    public void testPositionIsCopy() {
+        Creature creature = new Creature(CreatureType.PACMAN, 32, 64, TILE_SIZE);
+        Position position = creature.getPosition();
+        assertEquals(new Position(32, 64), position);
+        assertNotSame(position, creature.getPosition());
+
+        creature.updateDirection(Direction.LEFT);
+        creature.move();
+        assertEquals(32, position.getX());
+        assertEquals(new Position(32 - SPEED, 64), creature.getPosition());
+
+        position.setX(0);
+        creature.getStartPosition().setY(0);
+        assertEquals(32 - SPEED, creature.getX());
+        assertEquals(64, creature.getStartY());
+    }
+
+    private static void assertVelocity(CreatureStore store, int i, Direction direction,
+                                       int velocityX, int velocityY) {
+        store.updateDirection(i, direction);
+        assertEquals(direction, store.getDirection(i));
+        assertEquals(velocityX, store.getVelocityX(i));
+        assertEquals(velocityY, store.getVelocityY(i));
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.game;
+
+import junit.framework.TestCase;
+import org.example.ai.GhostAI;
+import org.example.entity.Creature;
+import org.example.util.Direction;
+import org.example.world.LevelTemplate;
+
+import java.util.Random;
+
+/**
+ * Unit test: dirty rectangles cover a box before and after it moved, too many of them fall
+ * back to a full repaint, and the engine flags HUD changes and resets.
+ */
+public class DirtyRegionsTest extends TestCase {
+    private static final int TILE_SIZE = 32;
+
+    public void testMoveCoversOldAndNewBounds() {
+        DirtyRegions dirty = new DirtyRegions();
+        dirty.addMove(10, 20, 18, 20, TILE_SIZE, TILE_SIZE);
+        assertRect(dirty, 0, 10, 20, 40, 32);
+
+        // Up and left: the rectangle starts at the new position
+        dirty.addMove(50, 60, 42, 52, TILE_SIZE, TILE_SIZE);
+        assertRect(dirty, 1, 42, 52, 40, 40);
+
+        // Standing still adds nothing
+        dirty.addMove(5, 5, 5, 5, TILE_SIZE, TILE_SIZE);
+        assertEquals(2, dirty.size());
+    }
+
+    public void testFallsBackToFullRepaintAboveMaxRegions() {
+        DirtyRegions dirty = new DirtyRegions();
+        for (int i = 0; i < DirtyRegions.MAX_REGIONS; i++) {
+            dirty.add(i, 0, 1, 1);
+        }
+        assertEquals(DirtyRegions.MAX_REGIONS, dirty.size());
+        assertFalse(dirty.isFullRepaint());
+        assertRect(dirty, DirtyRegions.MAX_REGIONS - 1, DirtyRegions.MAX_REGIONS - 1, 0, 1, 1);
+
+        dirty.add(0, 0, 1, 1);
+        assertTrue(dirty.isFullRepaint());
+        assertEquals(0, dirty.size());
+        dirty.addMove(0, 0, 8, 0, TILE_SIZE, TILE_SIZE);
+        assertEquals(0, dirty.size());
+
+        dirty.clear();
+        assertFalse(dirty.isFullRepaint());
+        dirty.add(1, 2, 3, 4);
+        assertRect(dirty, 0, 1, 2, 3, 4);
+    }
+
+    public void testFlagsAreClearedEachTick() {
+        DirtyRegions dirty = new DirtyRegions();
+        dirty.add(1, 2, 3, 4);
+        dirty.markHud();
+        assertTrue(dirty.isHudChanged());
+        assertFalse(dirty.isFullRepaint());
+        assertEquals(1, dirty.size());
+
+        dirty.markAll();
+        assertTrue(dirty.isFullRepaint());
+        assertEquals(0, dirty.size());
+
+        dirty.clear();
+        assertFalse(dirty.isHudChanged());
+        assertFalse(dirty.isFullRepaint());
+        assertEquals(0, dirty.size());
+    }
+
+    public void testEngineMarksPacmanFoodAndDeaths() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, TILE_SIZE, new Random(3));
+        // Chasing ghosts, so Pacman gets caught
+        gameEngine.setGhostAI(new GhostAI());
+        GameState gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+        DirtyRegions dirty = gameEngine.getDirtyRegions();
+        Creature pacman = gameState.getPacman();
+        Random input = new Random(4);
+        Direction[] directions = Direction.values();
+
+        boolean sawFood = false;
+        boolean sawDeath = false;
+        for (int tick = 0; tick < 20_000 && !(sawFood && sawDeath); tick++) {
+            if (input.nextInt(8) == 0) {
+                pacman.updateDirection(directions[input.nextInt(4)]);
+            }
+            int oldX = pacman.getX();
+            int oldY = pacman.getY();
+            int score = gameState.getScore();
+            int deaths = gameEngine.getDeaths();
+            gameEngine.update();
+
+            if (gameEngine.getDeaths() != deaths) {
+                assertTrue(dirty.isFullRepaint());
+                sawDeath = true;
+                continue;
+            }
+            if (dirty.isFullRepaint()) {
+                continue; // level cleared
+            }
+            // Pacman is always redrawn first, over his old and new box
+            assertTrue(dirty.size() > 0);
+            assertCovers(dirty, 0, oldX, oldY);
+            assertCovers(dirty, 0, pacman.getX(), pacman.getY());
+            assertEquals(gameState.getScore() != score, dirty.isHudChanged());
+            sawFood |= dirty.isHudChanged();
+        }
+        assertTrue("no food eaten", sawFood);
+        assertTrue("no deaths", sawDeath);
+    }
+
+    private static void assertRect(DirtyRegions dirty, int i, int x, int y, int width, int height) {
+        assertEquals(x, dirty.getX(i));
+        assertEquals(y, dirty.getY(i));
+        assertEquals(width, dirty.getWidth(i));
+        assertEquals(height, dirty.getHeight(i));
+    }
+
+    private static void assertCovers(DirtyRegions dirty, int i, int x, int y) {
+        assertTrue(x >= dirty.getX(i) && x + TILE_SIZE <= dirty.getX(i) + dirty.getWidth(i));
+        assertTrue(y >= dirty.getY(i) && y + TILE_SIZE <= dirty.getY(i) + dirty.getHeight(i));
+    }
+}
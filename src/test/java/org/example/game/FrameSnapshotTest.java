@@ -0,0 +1,68 @@
+package org.example.game;
+
+import junit.framework.TestCase;
+import org.example.world.LevelTemplate;
+
+import java.util.Random;
+
+/**
+ * Unit test: snapshots carry consecutive ticks for interpolation, and the
+ * simulation thread applies posted commands and publishes what they did.
+ */
+public class FrameSnapshotTest extends TestCase {
+
+    public void testSnapshotKeepsPreviousTickPositions() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, new Random(3));
+        FrameSnapshot first = FrameSnapshot.capture(gameEngine, 0, null);
+        assertTrue(first.isFullRepaint());
+
+        gameEngine.update();
+        FrameSnapshot second = FrameSnapshot.capture(gameEngine, 1, first);
+        assertFalse(second.isFullRepaint());
+        assertEquals(gameEngine.getGameState().getGhosts().size() + 1, second.getCreatureCount());
+        for (int i = 0; i < second.getCreatureCount(); i++) {
+            assertEquals(first.getX(i), second.getPreviousX(i));
+            assertEquals(first.getY(i), second.getPreviousY(i));
+        }
+        assertEquals(gameEngine.getGameState().getPacman().getX(), second.getX(0));
+    }
+
+    public void testSnapshotFoodIsACopy() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, new Random(3));
+        GameState gameState = gameEngine.getGameState();
+        int cell = gameState.getLevel().nextFood(0);
+        int columns = gameState.getLevel().getColumnCount();
+
+        FrameSnapshot snapshot = FrameSnapshot.capture(gameEngine, 0, null);
+        assertTrue(gameState.removeFood(cell / columns, cell % columns));
+        assertTrue(snapshot.hasFoodAt(cell));
+        assertFalse(FrameSnapshot.capture(gameEngine, 1, snapshot).hasFoodAt(cell));
+    }
+
+    public void testPostedCommandRunsOnSimulationThread() throws InterruptedException {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, new Random(3));
+        SimulationThread simulation = new SimulationThread(gameEngine, 200, 5);
+        simulation.start();
+        try {
+            simulation.post(gameEngine.getGameState()::togglePause);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!simulation.getLatestSnapshot().isPaused() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(simulation.getLatestSnapshot().isPaused());
+        } finally {
+            simulation.stop();
+        }
+        assertFalse(simulation.isRunning());
+    }
+
+    public void testSimulationStopsRightAfterStart() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, new Random(3));
+        SimulationThread simulation = new SimulationThread(gameEngine, 200, 5);
+        for (int i = 0; i < 100; i++) {
+            simulation.start();
+            simulation.stop();
+            assertFalse(simulation.isRunning());
+        }
+    }
+}
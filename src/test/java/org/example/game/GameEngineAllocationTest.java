@@ -0,0 +1,56 @@
+package org.example.game;
+
+import junit.framework.TestCase;
+import org.example.ai.GhostAI;
+import org.example.util.AllocationCounter;
+import org.example.util.Direction;
+import org.example.world.LevelTemplate;
+
+import java.util.Random;
+
+/**
+ * Unit test: a steady-state GameEngine.update() must not allocate.
+ */
+public class GameEngineAllocationTest extends TestCase {
+    private static final Direction[] TURNS = {Direction.LEFT, Direction.UP, Direction.RIGHT, Direction.DOWN};
+
+    public void testSteadyStateTickAllocatesNothing() {
+        assertTickAllocatesNothing(false);
+    }
+
+    public void testSteadyStateTickWithGhostAIAllocatesNothing() {
+        assertTickAllocatesNothing(true);
+    }
+
+    private void assertTickAllocatesNothing(boolean withGhostAI) {
+        if (!AllocationCounter.isSupported()) {
+            return; // allocation counters not available on this JVM
+        }
+
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, new Random(1));
+        if (withGhostAI) {
+            gameEngine.setGhostAI(new GhostAI());
+        }
+        GameState gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+
+        // Warm up so class loading and lazy initialisation are out of the way
+        play(gameEngine, 50_000);
+
+        long before = AllocationCounter.currentThreadAllocatedBytes();
+        play(gameEngine, 50_000);
+        long allocated = AllocationCounter.currentThreadAllocatedBytes() - before;
+
+        assertTrue("ghosts should have caught pacman at least once", gameEngine.getDeaths() > 0);
+        assertEquals("bytes allocated by 50k ticks", 0, allocated);
+    }
+
+    private static void play(GameEngine gameEngine, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (i % 16 == 0) {
+                gameEngine.getGameState().getPacman().updateDirection(TURNS[(i / 16) % TURNS.length]);
+            }
+            gameEngine.update();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.game;
+
+import junit.framework.TestCase;
+import org.example.entity.CreatureStore;
+import org.example.util.Direction;
+import org.example.world.Level;
+import org.example.world.LevelTemplate;
+
+import java.util.Random;
+
+/**
+ * Unit test: clearing a level puts the creatures back the same way a death does.
+ */
+public class GameEngineTest extends TestCase {
+    private static final int TILE_SIZE = 32;
+
+    public void testLevelClearResetsCreaturesLikeADeath() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, TILE_SIZE, new Random(3));
+        GameState gameState = gameEngine.getGameState();
+        Level level = gameState.getLevel();
+        int initialFood = level.getFoodCount();
+
+        // Walk away from the start, with a turn left buffered
+        gameState.getPacman().updateDirection(Direction.LEFT);
+        for (int i = 0; i < 3; i++) {
+            gameEngine.update();
+        }
+        gameEngine.getInputQueue().offer(Direction.DOWN, 0);
+        assertFalse(gameState.getPacman().getX() == gameState.getPacman().getStartX());
+
+        int columns = level.getColumnCount();
+        for (int cell = level.nextFood(0); cell >= 0; cell = level.nextFood(cell + 1)) {
+            gameState.removeFood(cell / columns, cell % columns);
+        }
+        gameEngine.update();
+
+        assertEquals(0, gameEngine.getDeaths());
+        assertEquals(1, gameEngine.getLevelsCompleted());
+        assertEquals(initialFood, level.getFoodCount());
+        assertTrue(gameEngine.getDirtyRegions().isFullRepaint());
+        assertNull(gameEngine.getBufferedTurn());
+
+        // Back at the start and facing up, like a fresh Pacman after a death
+        assertEquals(gameState.getPacman().getStartX(), gameState.getPacman().getX());
+        assertEquals(gameState.getPacman().getStartY(), gameState.getPacman().getY());
+        assertEquals(Direction.UP, gameState.getPacman().getDirection());
+        assertEquals(0, gameState.getPacman().getVelocityX());
+        assertEquals(-TILE_SIZE / 4, gameState.getPacman().getVelocityY());
+
+        CreatureStore ghosts = gameState.getGhostStore();
+        for (int i = 0; i < ghosts.size(); i++) {
+            assertEquals(ghosts.getStartX(i), ghosts.getX(i));
+            assertEquals(ghosts.getStartY(i), ghosts.getY(i));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.game;
+
+import junit.framework.TestCase;
+import org.example.world.LevelTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit test: the loop stops on its tick budget, on game over unless told otherwise, and stop();
+ * catch-up after a stall is capped and the dropped ticks are counted.
+ */
+public class HeadlessGameLoopTest extends TestCase {
+    private static final int TICKS_PER_SECOND = 50;
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / TICKS_PER_SECOND;
+    private static final long STALL_NANOS = 10 * TICK_NANOS;
+
+    private GameEngine gameEngine;
+    private GameState gameState;
+
+    @Override
+    protected void setUp() {
+        gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, 1L);
+        gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+    }
+
+    public void testStopsAfterTickBudget() {
+        HeadlessGameLoop loop = HeadlessGameLoop.maxSpeed(gameEngine, 500);
+        loop.start();
+        assertEquals(500, loop.getTickCount());
+        assertFalse(loop.isRunning());
+        assertEquals(0, loop.getSkippedTicks());
+
+        // A used up budget does not run again
+        loop.start();
+        assertEquals(500, loop.getTickCount());
+    }
+
+    public void testStopsWhenGameOver() {
+        HeadlessGameLoop loop = HeadlessGameLoop.maxSpeed(gameEngine, 1_000);
+        loop.setTickHooks(() -> gameState.setGameOver(loop.getTickCount() == 9), null);
+        loop.start();
+        assertEquals(10, loop.getTickCount());
+        assertFalse(loop.isRunning());
+    }
+
+    public void testKeepsTickingAfterGameOverWhenAsked() {
+        HeadlessGameLoop loop = HeadlessGameLoop.maxSpeed(gameEngine, 50);
+        loop.setStopWhenGameOver(false);
+        gameState.setGameOver(true);
+        loop.start();
+        assertEquals(50, loop.getTickCount());
+    }
+
+    public void testStopFromHook() {
+        HeadlessGameLoop loop = HeadlessGameLoop.maxSpeed(gameEngine, HeadlessGameLoop.UNLIMITED);
+        loop.setTickHooks(null, () -> {
+            if (loop.getTickCount() == 30) {
+                loop.stop();
+            }
+        });
+        loop.start();
+        assertEquals(30, loop.getTickCount());
+    }
+
+    public void testCatchUpIsCappedAndBacklogSkipped() {
+        // The first tick stalls for 10 tick lengths; only 3 late ticks may then run back to back
+        HeadlessGameLoop loop = HeadlessGameLoop.fixedRate(gameEngine, TICKS_PER_SECOND, 3, 6);
+        FakeClock clock = new FakeClock();
+        loop.setClock(clock);
+        loop.setTickHooks(() -> stallOnFirstTick(loop, clock), clock::recordTick);
+        loop.start();
+        assertEquals(6, loop.getTickCount());
+        // Ticks 2-4 catch up to 80 ms, and the backlog up to the stall's end at 200 ms is dropped
+        assertEquals(7, loop.getSkippedTicks());
+        assertEquals(STALL_NANOS, clock.tickTimes[1]);
+        assertEquals(STALL_NANOS, clock.tickTimes[3]);
+        // Then back on schedule, waiting for the next tick
+        assertEquals(STALL_NANOS + TICK_NANOS, clock.tickTimes[4]);
+        assertEquals(STALL_NANOS + 2 * TICK_NANOS, clock.tickTimes[5]);
+        assertEquals(2, clock.parks);
+    }
+
+    public void testCatchUpWithinCapSkipsNothing() {
+        HeadlessGameLoop loop = HeadlessGameLoop.fixedRate(gameEngine, TICKS_PER_SECOND, 20, 12);
+        FakeClock clock = new FakeClock();
+        loop.setClock(clock);
+        loop.setTickHooks(() -> stallOnFirstTick(loop, clock), clock::recordTick);
+        loop.start();
+        assertEquals(12, loop.getTickCount());
+        assertEquals(0, loop.getSkippedTicks());
+        // All ten late ticks run back to back, then the eleventh waits for its time
+        assertEquals(STALL_NANOS, clock.tickTimes[10]);
+        assertEquals(STALL_NANOS + TICK_NANOS, clock.tickTimes[11]);
+    }
+
+    public void testPausedGameParksAtMaxSpeed() {
+        HeadlessGameLoop loop = HeadlessGameLoop.maxSpeed(gameEngine, 40);
+        FakeClock clock = new FakeClock();
+        loop.setClock(clock);
+        loop.setTickHooks(() -> gameState.setPaused(loop.getTickCount() >= 10 && loop.getTickCount() < 30), null);
+        loop.start();
+        assertEquals(40, loop.getTickCount());
+        // One park before each of the 20 paused ticks, none while playing
+        assertEquals(20, clock.parks);
+        assertEquals(20 * TimeUnit.MILLISECONDS.toNanos(1), clock.now);
+    }
+
+    private static void stallOnFirstTick(HeadlessGameLoop loop, FakeClock clock) {
+        if (loop.getTickCount() == 0) {
+            clock.now += STALL_NANOS;
+        }
+    }
+
+    /**
+     * Time that only moves when the loop parks or a test moves it
+     */
+    private static final class FakeClock implements HeadlessGameLoop.Clock {
+        private long now;
+        private int parks;
+        private final long[] tickTimes = new long[64];
+        private int ticks;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public void parkNanos(long nanos) {
+            parks++;
+            now += nanos;
+        }
+
+        void recordTick() {
+            tickTimes[ticks++] = now;
+        }
+    }
+}
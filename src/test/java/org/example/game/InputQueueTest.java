@@ -0,0 +1,95 @@
+package org.example.game;
+
+import junit.framework.TestCase;
+import org.example.util.Direction;
+import org.example.world.LevelTemplate;
+
+import java.util.Random;
+
+/**
+ * Unit test: the input queue hands turns across threads in order, and the engine
+ * applies queued turns at the start of a tick, holding buffered ones until they fit.
+ */
+public class InputQueueTest extends TestCase {
+
+    public void testFifoWithWrapAroundAndFullQueue() {
+        InputQueue queue = new InputQueue(3);
+        assertEquals(4, queue.capacity());
+        assertNull(queue.poll());
+
+        for (int round = 0; round < 10; round++) {
+            assertTrue(queue.offer(Direction.LEFT, 1));
+            assertTrue(queue.offer(Direction.UP, 2));
+            assertTrue(queue.offer(Direction.RIGHT, 3));
+            assertTrue(queue.offer(Direction.DOWN, 4));
+            assertFalse(queue.offer(Direction.UP, 5));
+
+            assertEquals(Direction.LEFT, queue.poll());
+            assertEquals(1, queue.getLastPolledNanos());
+            assertEquals(Direction.UP, queue.poll());
+            assertEquals(Direction.RIGHT, queue.poll());
+            assertEquals(Direction.DOWN, queue.poll());
+            assertEquals(4, queue.getLastPolledNanos());
+            assertNull(queue.poll());
+        }
+    }
+
+    public void testTurnsCrossThreadsInOrder() throws InterruptedException {
+        final InputQueue queue = new InputQueue(8);
+        final int turns = 100000;
+        final Direction[] values = Direction.values();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < turns; i++) {
+                while (!queue.offer(values[i & 3], i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+
+        for (int i = 0; i < turns; i++) {
+            Direction turn;
+            while ((turn = queue.poll()) == null) {
+                Thread.yield();
+            }
+            assertEquals(values[i & 3], turn);
+            assertEquals(i, queue.getLastPolledNanos());
+        }
+        producer.join();
+        assertNull(queue.poll());
+    }
+
+    public void testQueuedTurnAppliedAtNextTick() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, new Random(5));
+        gameEngine.getInputQueue().offer(Direction.LEFT, System.nanoTime());
+        assertEquals(Direction.UP, gameEngine.getGameState().getPacman().getDirection());
+
+        gameEngine.update();
+        assertEquals(Direction.LEFT, gameEngine.getGameState().getPacman().getDirection());
+    }
+
+    public void testBufferedTurnWaitsForGap() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, new Random(5));
+        gameEngine.setTurnBuffering(true);
+        GameState gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+
+        // Pacman starts at row 15, col 9 with a wall above him
+        gameEngine.getInputQueue().offer(Direction.LEFT, System.nanoTime());
+        gameEngine.update();
+        assertEquals(Direction.LEFT, gameState.getPacman().getDirection());
+
+        gameEngine.getInputQueue().offer(Direction.UP, System.nanoTime());
+        gameEngine.update();
+        assertEquals(Direction.UP, gameEngine.getBufferedTurn());
+        assertEquals(Direction.LEFT, gameState.getPacman().getDirection());
+
+        // Column 8 is open above row 15, so the turn is taken once Pacman gets there
+        for (int i = 0; i < 8 && gameEngine.getBufferedTurn() != null; i++) {
+            gameEngine.update();
+        }
+        assertNull(gameEngine.getBufferedTurn());
+        assertEquals(Direction.UP, gameState.getPacman().getDirection());
+        assertEquals(8 * 32, gameState.getPacman().getX());
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.game;
+
+import junit.framework.TestCase;
+import org.example.ai.GhostAI;
+import org.example.util.Direction;
+import org.example.world.LevelTemplate;
+
+import java.util.Random;
+
+/**
+ * Unit test: restoring a snapshot replays the game from that point exactly.
+ */
+public class StateSnapshotTest extends TestCase {
+    private static final int TICKS = 600;
+
+    public void testRestoreReplaysSameFuture() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, 77L);
+        GameState gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+        play(gameEngine, new Random(1), 300, null);
+
+        StateSnapshot snapshot = gameState.snapshot();
+        assertTrue(snapshot.hasRandomState());
+        assertTrue(snapshot.getFoodChangeCount() > 0);
+        assertTrue(snapshot.getFoodChangeCount() <= gameState.getLevel().getFoodWordCount());
+
+        int[] first = new int[3 * TICKS];
+        play(gameEngine, new Random(2), TICKS, first);
+        int foodAfter = gameState.getLevel().getFoodCount();
+
+        gameState.restore(snapshot);
+        assertEquals(snapshot.getScore(), gameState.getScore());
+        int[] second = new int[3 * TICKS];
+        play(gameEngine, new Random(2), TICKS, second);
+
+        for (int i = 0; i < first.length; i++) {
+            assertEquals("trace differs at " + i, first[i], second[i]);
+        }
+        assertEquals(foodAfter, gameState.getLevel().getFoodCount());
+    }
+
+    public void testEngineRestoreReplaysSameFutureWithGhostAIAndBufferedTurns() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, 21L);
+        gameEngine.setGhostAI(new GhostAI());
+        gameEngine.setTurnBuffering(true);
+        GameState gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+        // Far enough into the scatter/chase schedule that a reset would change it
+        playQueued(gameEngine, new Random(3), 200, null);
+
+        StateSnapshot snapshot = gameEngine.snapshot();
+        assertTrue(snapshot.hasEngineState());
+        assertEquals(gameEngine.getGhostAI().getPhaseTicks(), snapshot.getGhostPhaseTicks());
+
+        int[] first = new int[3 * TICKS];
+        playQueued(gameEngine, new Random(4), TICKS, first);
+        int deathsAfter = gameEngine.getDeaths();
+
+        gameEngine.restore(snapshot);
+        assertEquals(snapshot.getBufferedTurn(), gameEngine.getBufferedTurn());
+        int[] second = new int[3 * TICKS];
+        playQueued(gameEngine, new Random(4), TICKS, second);
+
+        for (int i = 0; i < first.length; i++) {
+            assertEquals("trace differs at " + i, first[i], second[i]);
+        }
+        assertEquals(deathsAfter, gameEngine.getDeaths());
+    }
+
+    public void testEngineRestoreNeedsEngineSnapshot() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, 5L);
+        try {
+            gameEngine.restore(gameEngine.getGameState().snapshot());
+            fail("Expected a game state snapshot to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    public void testSnapshotIntoReusesSnapshot() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, 5L);
+        GameState gameState = gameEngine.getGameState();
+        StateSnapshot snapshot = gameState.snapshot();
+        gameEngine.update();
+        assertSame(snapshot, gameState.snapshotInto(snapshot));
+        assertEquals(gameState.getPacman().getX(), snapshot.getX(0));
+        assertEquals(gameState.getGhostStore().getY(0), snapshot.getY(1));
+    }
+
+    public void testRestoreRejectsOtherGame() {
+        StateSnapshot snapshot = GameFactory.create(LevelTemplate.CLASSIC, 32, 5L).getGameState().snapshot();
+        try {
+            GameFactory.create(LevelTemplate.CLASSIC, 32, 5L).getGameState().restore(snapshot);
+            fail("Expected the snapshot to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Play with turns through the input queue, so blocked turns are buffered
+     */
+    private static void playQueued(GameEngine gameEngine, Random input, int ticks, int[] trace) {
+        GameState gameState = gameEngine.getGameState();
+        Direction[] directions = Direction.values();
+        for (int i = 0; i < ticks; i++) {
+            if (input.nextInt(6) == 0) {
+                gameEngine.getInputQueue().offer(directions[input.nextInt(4)], 0);
+            }
+            gameEngine.update();
+            if (trace != null) {
+                trace[3 * i] = gameState.getPacman().getX() * 31 + gameState.getPacman().getY();
+                trace[3 * i + 1] = gameState.getGhostStore().getX(0) * 31 + gameState.getGhostStore().getY(0);
+                trace[3 * i + 2] = gameState.getScore();
+            }
+        }
+    }
+
+    private static void play(GameEngine gameEngine, Random input, int ticks, int[] trace) {
+        GameState gameState = gameEngine.getGameState();
+        Direction[] directions = Direction.values();
+        for (int i = 0; i < ticks; i++) {
+            if (input.nextInt(5) == 0) {
+                gameState.getPacman().updateDirection(directions[input.nextInt(4)]);
+            }
+            gameEngine.update();
+            if (trace != null) {
+                trace[3 * i] = gameState.getPacman().getX();
+                trace[3 * i + 1] = gameState.getGhostStore().getY(0);
+                trace[3 * i + 2] = gameState.getScore();
+            }
+        }
+    }
+}
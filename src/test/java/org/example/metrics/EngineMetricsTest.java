@@ -0,0 +1,148 @@
+package org.example.metrics;
+
+import junit.framework.TestCase;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.util.Direction;
+import org.example.world.LevelTemplate;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit test: histogram percentiles stay within their bucket error, engine counters match
+ * the game, and metrics reach sinks and JMX without changing how the game plays.
+ */
+public class EngineMetricsTest extends TestCase {
+
+    public void testHistogramBuckets() {
+        for (long value = 0; value < 1L << 20; value = value * 3 / 2 + 1) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.lowestValueAt(index) <= value);
+            assertTrue(value <= LatencyHistogram.highestValueAt(index));
+            long width = LatencyHistogram.highestValueAt(index) - LatencyHistogram.lowestValueAt(index) + 1;
+            assertTrue(width == 1 || width * 128 <= value * 2);
+        }
+        int last = LatencyHistogram.indexOf(LatencyHistogram.HIGHEST_TRACKABLE_NANOS);
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_NANOS, LatencyHistogram.highestValueAt(last));
+    }
+
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 100);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100, histogram.getMin());
+        assertEquals(10_000_000, histogram.getMax());
+        assertEquals(5_000_050.0, histogram.getMean(), 1.0);
+        assertWithin(5_000_000, histogram.getValueAtPercentile(50));
+        assertWithin(9_900_000, histogram.getValueAtPercentile(99));
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(-5);
+        other.record(Long.MAX_VALUE);
+        histogram.add(other);
+        assertEquals(100_002, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_NANOS, histogram.getMax());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    public void testCountersMatchTheGame() {
+        GameEngine measured = runGame(new EngineMetrics(4));
+        GameEngine plain = runGame(null);
+        EngineMetrics metrics = measured.getMetrics();
+
+        // Timing does not change the game
+        assertEquals(plain.getGameState().getScore(), measured.getGameState().getScore());
+        assertEquals(plain.getDeaths(), measured.getDeaths());
+
+        assertEquals(measured.getSimulatedTicks(), metrics.getTicks());
+        assertEquals(measured.getDeaths(), metrics.getGhostCollisions());
+        assertEquals(measured.getLevelsCompleted(), metrics.getLevelResets());
+        assertEquals(measured.getGameState().getScore() / 10, metrics.getFoodEaten());
+        assertTrue(metrics.getGhostCollisions() > 0);
+
+        long timed = (metrics.getTicks() + 3) / 4;
+        assertEquals(timed, metrics.getTickLatency().getCount());
+        for (TickPhase phase : TickPhase.values()) {
+            assertEquals(timed, metrics.getPhaseLatency(phase).getCount());
+        }
+        assertTrue(metrics.getTickLatency().getMax() > 0);
+    }
+
+    public void testReportAndJmx() throws Exception {
+        EngineMetrics metrics = runGame(new EngineMetrics()).getMetrics();
+
+        final List<String> names = new ArrayList<>();
+        metrics.report(new MetricsSink() {
+            @Override
+            public void counter(String name, long value) {
+                names.add(name);
+            }
+
+            @Override
+            public void latency(String name, LatencyHistogram histogram) {
+                names.add(name);
+            }
+        });
+        assertEquals(5 + TickPhase.values().length, names.size());
+        assertTrue(names.contains("ticks"));
+        assertTrue(names.contains("moveGhosts"));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        MetricsMBeans.register("test", metrics);
+        try {
+            assertEquals(metrics.getTicks(), server.getAttribute(MetricsMBeans.engineName("test"), "Ticks"));
+            assertEquals(metrics.getTickLatency().getMax(),
+                server.getAttribute(MetricsMBeans.latencyName("test", "tick"), "MaxNanos"));
+            assertTrue(server.isRegistered(MetricsMBeans.latencyName("test", "checkFoodCollisions")));
+            try {
+                MetricsMBeans.register("test", metrics);
+                fail("should reject a second registration");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        } finally {
+            MetricsMBeans.unregister("test");
+        }
+        assertFalse(server.isRegistered(MetricsMBeans.engineName("test")));
+        assertTrue(server.queryNames(MetricsMBeans.latencyName("test", "*"), null).isEmpty());
+    }
+
+    public void testSamplePeriodMustBePowerOfTwo() {
+        try {
+            new EngineMetrics(3);
+            fail("should reject 3");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static GameEngine runGame(EngineMetrics metrics) {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, 11L);
+        gameEngine.setMetrics(metrics);
+        gameEngine.getGameState().setLives(Integer.MAX_VALUE);
+        Direction[] turns = Direction.values();
+        Random random = new Random(3L);
+        for (int tick = 0; tick < 20_000; tick++) {
+            if (tick % 8 == 0) {
+                gameEngine.getInputQueue().offer(turns[random.nextInt(turns.length)], System.nanoTime());
+            }
+            gameEngine.update();
+        }
+        return gameEngine;
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " not within 1% of " + expected, Math.abs(actual - expected) <= expected / 100);
+    }
+}
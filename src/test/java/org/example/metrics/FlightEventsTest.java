@@ -0,0 +1,117 @@
+package org.example.metrics;
+
+import junit.framework.TestCase;
+import org.example.entity.Creature;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.world.LevelLoader;
+import org.example.world.LevelTemplate;
+import org.example.world.MazeGenerator;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Unit test: ticks, level loads and game resets show up in a Flight Recorder recording
+ * with their fields, and ticks are not traced once the recording stops.
+ * Level loads cover parsing with and without a cache hit, maze generation and tile building.
+ */
+public class FlightEventsTest extends TestCase {
+
+    public void testEventsAreRecorded() throws Exception {
+        Path file = Files.createTempFile("pacman", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.pacman.Tick").withThreshold(Duration.ZERO);
+            recording.enable("org.example.pacman.LevelLoad");
+            recording.enable("org.example.pacman.GameReset");
+            recording.start();
+
+            GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, 5L);
+            assertTrue(FlightEvents.isTickRecorded());
+            for (int i = 0; i < 100; i++) {
+                gameEngine.update();
+            }
+            List<Creature> creatures = LevelTemplate.CLASSIC.createCreatures(32);
+            gameEngine.getGameState().resetGame(LevelTemplate.CLASSIC.createLevel(32),
+                creatures.get(0), creatures.subList(1, creatures.size()));
+
+            // A map no other test compiles: the first parse compiles it, the second hits the cache
+            LevelTemplate parsed = LevelLoader.parse(ByteBuffer.wrap(uniqueMap()));
+            assertSame(parsed.getCompiled(), LevelLoader.parse(ByteBuffer.wrap(uniqueMap())).getCompiled());
+            parsed.createLevel(7).getWalls();
+            MazeGenerator.generate(MazeGenerator.MIN_SIZE, MazeGenerator.MIN_SIZE, 1, 3L);
+
+            recording.stop();
+            assertFalse(FlightEvents.isTickRecorded());
+            recording.dump(file);
+        }
+
+        int ticks = 0;
+        int misses = 0;
+        int hits = 0;
+        int tiles = 0;
+        int generated = 0;
+        int resets = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            String name = event.getEventType().getName();
+            if ("org.example.pacman.Tick".equals(name)) {
+                ticks++;
+                assertEquals(ticks, event.getLong("tick"));
+                assertEquals(5, event.getInt("creatureCount"));
+                assertTrue(event.getDuration("moveGhosts").toNanos() > 0);
+            } else if ("org.example.pacman.LevelLoad".equals(name)) {
+                String kind = event.getString("kind");
+                if (LevelLoadEvent.BUFFER.equals(kind)) {
+                    assertEquals(21, event.getInt("rowCount"));
+                    if (event.getBoolean("cacheHit")) {
+                        hits++;
+                    } else {
+                        misses++;
+                    }
+                } else if (LevelLoadEvent.TILES.equals(kind)) {
+                    tiles++;
+                    assertEquals(7, event.getInt("tileSize"));
+                } else if (LevelLoadEvent.GENERATED.equals(kind)) {
+                    generated++;
+                    assertEquals(MazeGenerator.MIN_SIZE, event.getInt("columnCount"));
+                }
+            } else if ("org.example.pacman.GameReset".equals(name)) {
+                resets++;
+                assertEquals(GameResetEvent.NEW_GAME, event.getString("kind"));
+                assertEquals(3, event.getInt("livesLeft"));
+            }
+        }
+        Files.delete(file);
+        assertEquals(100, ticks);
+        assertEquals(1, misses);
+        assertEquals(1, hits);
+        assertEquals(1, tiles);
+        assertEquals(1, generated);
+        assertEquals(1, resets);
+    }
+
+    /**
+     * The classic map with one food cell turned into an empty one
+     */
+    private static byte[] uniqueMap() throws Exception {
+        byte[] map;
+        try (InputStream in = FlightEventsTest.class.getResourceAsStream(LevelLoader.BUNDLED_DIRECTORY + "classic.txt")) {
+            map = in.readAllBytes();
+        }
+        int food = 0;
+        for (int i = 0; i < map.length; i++) {
+            if (map[i] == ' ' && ++food == 17) {
+                map[i] = 'O';
+                break;
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.metrics;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test: RollingWindow keeps only the most recent samples and reports exact percentiles.
+ */
+public class RollingWindowTest extends TestCase {
+
+    public void testEmptyWindowReportsZero() {
+        RollingWindow window = new RollingWindow(8);
+        assertEquals(0, window.size());
+        assertEquals(0, window.percentile(50));
+        assertEquals(0, window.max());
+        assertEquals(0.0, window.mean());
+    }
+
+    public void testPercentilesAreExact() {
+        RollingWindow window = new RollingWindow(100);
+        for (int i = 100; i >= 1; i--) {
+            window.add(i);
+        }
+        assertEquals(1, window.percentile(0));
+        assertEquals(50, window.percentile(50));
+        assertEquals(99, window.percentile(99));
+        assertEquals(100, window.max());
+        assertEquals(50.5, window.mean());
+    }
+
+    public void testOldSamplesAreForgotten() {
+        RollingWindow window = new RollingWindow(4);
+        window.add(1000);
+        window.add(1);
+        assertEquals(1000, window.max());
+        for (int i = 0; i < 4; i++) {
+            window.add(5);
+        }
+        assertEquals(4, window.size());
+        assertEquals(5, window.max());
+        assertEquals(5, window.percentile(0));
+
+        window.clear();
+        assertEquals(0, window.size());
+        window.add(7);
+        assertEquals(7, window.percentile(50));
+    }
+
+    public void testRejectsBadArguments() {
+        try {
+            new RollingWindow(0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new RollingWindow(4).percentile(101);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
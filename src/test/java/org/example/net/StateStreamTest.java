@@ -0,0 +1,110 @@
+package org.example.net;
+
+import junit.framework.TestCase;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.GameState;
+import org.example.util.Direction;
+import org.example.world.Level;
+import org.example.world.LevelTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Unit test: a decoder fed the stream holds the same state as the game after every tick,
+ * and a late joiner catches up from a sync message.
+ */
+public class StateStreamTest extends TestCase {
+    private static final int TICKS = 3000;
+
+    public void testDecoderTracksGame() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, 11L);
+        GameState gameState = gameEngine.getGameState();
+        gameState.setLives(Integer.MAX_VALUE);
+        StateEncoder encoder = new StateEncoder(100);
+        StateDecoder decoder = new StateDecoder();
+        StateDecoder lateJoiner = null;
+        ByteBuffer buffer = ByteBuffer.allocate(StateEncoder.maxMessageBytes(gameState.getLevel(), 5));
+
+        Random input = new Random(3);
+        Direction[] directions = Direction.values();
+        long deltaBytes = 0;
+        int deltas = 0;
+        for (int tick = 1; tick <= TICKS; tick++) {
+            if (input.nextInt(5) == 0) {
+                gameState.getPacman().updateDirection(directions[input.nextInt(4)]);
+            }
+            gameEngine.update();
+
+            buffer.clear();
+            encoder.encode(gameState, tick, buffer);
+            buffer.flip();
+            boolean delta = buffer.get(0) == StreamFormat.DELTA;
+            if (delta) {
+                deltaBytes += buffer.remaining();
+                deltas++;
+            }
+            decodeAll(decoder, buffer.duplicate());
+            assertState(gameState, decoder);
+
+            if (tick == TICKS / 2) {
+                lateJoiner = new StateDecoder();
+                ByteBuffer sync = ByteBuffer.allocate(buffer.capacity());
+                encoder.writeSync(sync);
+                sync.flip();
+                decodeAll(lateJoiner, sync);
+            } else if (lateJoiner != null) {
+                decodeAll(lateJoiner, buffer.duplicate());
+            }
+        }
+        assertEquals(TICKS, decoder.getTick());
+        assertState(gameState, lateJoiner);
+        assertTrue(deltas > TICKS / 2);
+        // Most ticks move a few creatures and maybe eat one pellet
+        assertTrue("mean delta size " + (double) deltaBytes / deltas, deltaBytes < 16L * deltas);
+    }
+
+    public void testLateJoinerWaitsForKeyframe() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, 32, 11L);
+        StateEncoder encoder = new StateEncoder(1000);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        encoder.encode(gameEngine.getGameState(), 0, buffer);
+        gameEngine.update();
+        buffer.clear();
+        encoder.encode(gameEngine.getGameState(), 1, buffer);
+        buffer.flip();
+
+        StateDecoder decoder = new StateDecoder();
+        assertFalse(decoder.decode(buffer));
+        assertFalse(decoder.isSynced());
+    }
+
+    private static void decodeAll(StateDecoder decoder, ByteBuffer messages) {
+        while (messages.hasRemaining()) {
+            decoder.decode(messages);
+        }
+    }
+
+    private static void assertState(GameState gameState, StateDecoder decoder) {
+        assertTrue(decoder.isSynced());
+        assertEquals(gameState.getScore(), decoder.getScore());
+        assertEquals(gameState.getLives(), decoder.getLives());
+        assertEquals(gameState.isGameOver(), decoder.isGameOver());
+        assertEquals(gameState.getPacman().getX(), decoder.getX(0));
+        assertEquals(gameState.getPacman().getY(), decoder.getY(0));
+        assertEquals(gameState.getPacman().getDirection(), decoder.getDirection(0));
+        for (int i = 0; i < gameState.getGhostStore().size(); i++) {
+            assertEquals(gameState.getGhostStore().getX(i), decoder.getX(i + 1));
+            assertEquals(gameState.getGhostStore().getY(i), decoder.getY(i + 1));
+            assertEquals(gameState.getGhostStore().getType(i), decoder.getType(i + 1));
+        }
+        Level level = gameState.getLevel();
+        for (int r = 0; r < level.getRowCount(); r++) {
+            for (int c = 0; c < level.getColumnCount(); c++) {
+                assertEquals(level.isWall(r, c), decoder.isWall(r, c));
+                assertEquals(level.hasFoodAt(r, c), decoder.hasFoodAt(r, c));
+            }
+        }
+    }
+}
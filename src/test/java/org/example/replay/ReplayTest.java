@@ -0,0 +1,85 @@
+package org.example.replay;
+
+import junit.framework.TestCase;
+import org.example.ai.GhostAI;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.GameState;
+import org.example.util.Direction;
+import org.example.util.SeededRandom;
+import org.example.world.LevelTemplate;
+
+import java.util.Random;
+
+/**
+ * Unit test: a recorded game, pauses included, plays back to the same outcome.
+ */
+public class ReplayTest extends TestCase {
+    private static final int TILE_SIZE = 32;
+
+    public void testSeededRandomMatchesJavaUtilRandom() {
+        Random expected = new Random(42);
+        SeededRandom actual = new SeededRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(expected.nextInt(4), actual.nextInt(4));
+        }
+
+        long state = actual.getState();
+        int next = actual.nextInt();
+        actual.setState(state);
+        assertEquals(next, actual.nextInt());
+        assertEquals(42, actual.getSeed());
+    }
+
+    public void testRecordedGamePlaysBackIdentically() {
+        long seed = 1234;
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, TILE_SIZE, seed);
+        gameEngine.setGhostAI(new GhostAI());
+        gameEngine.setTurnBuffering(true);
+        GameState gameState = gameEngine.getGameState();
+        ReplayRecorder recorder = ReplayRecorder.attach(gameEngine, seed, LevelTemplate.CLASSIC);
+
+        // Input comes from a different random source than the game
+        Random player = new Random(99);
+        Direction[] directions = Direction.values();
+        for (int i = 0; i < 20000 && !gameState.isGameOver(); i++) {
+            if (player.nextInt(6) == 0) {
+                gameEngine.getInputQueue().offer(directions[player.nextInt(4)], System.nanoTime());
+            }
+            if (i % 3000 == 1000 || i % 3000 == 1050) {
+                gameState.togglePause();
+            }
+            gameEngine.update();
+        }
+        Replay recorded = recorder.finish(gameEngine);
+        assertTrue(recorded.getTurnCount() > 0);
+
+        Replay replay = Replay.fromBytes(recorded.toBytes());
+        assertEquals(seed, replay.getSeed());
+        assertTrue(replay.isGhostAI());
+        assertTrue(replay.isTurnBuffering());
+
+        GameEngine playback = ReplayPlayer.play(replay, LevelTemplate.CLASSIC);
+        assertTrue(replay.matches(playback));
+        assertEquals(gameState.getPacman().getX(), playback.getGameState().getPacman().getX());
+        assertEquals(gameState.getPacman().getY(), playback.getGameState().getPacman().getY());
+        assertEquals(gameEngine.getDeaths(), playback.getDeaths());
+    }
+
+    public void testReplayRejectsOtherLevel() {
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, TILE_SIZE, 1);
+        Replay replay = ReplayRecorder.attach(gameEngine, 1, LevelTemplate.CLASSIC).finish(gameEngine);
+
+        String[] rows = new String[LevelTemplate.CLASSIC.getRowCount()];
+        for (int r = 0; r < rows.length; r++) {
+            rows[r] = LevelTemplate.CLASSIC.getRow(r);
+        }
+        rows[1] = rows[1].replace(' ', 'X');
+        try {
+            ReplayPlayer.play(replay, new LevelTemplate(rows));
+            fail("Expected a level mismatch");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.rl;
+
+import junit.framework.TestCase;
+import org.example.entity.CreatureType;
+import org.example.util.AllocationCounter;
+import org.example.world.Level;
+import org.example.world.LevelTemplate;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+/**
+ * Unit test: observation planes match the game, episodes are reproducible from their seed,
+ * a vectorized batch matches envs stepped one by one, and stepping does not allocate.
+ */
+public class PacmanEnvTest extends TestCase {
+    private static final int TILE_SIZE = 32;
+
+    public void testObservationPlanes() {
+        PacmanEnv env = new PacmanEnv(LevelTemplate.CLASSIC, TILE_SIZE, 1000, true);
+        env.reset(5L);
+        for (int i = 0; i < 40; i++) {
+            env.step(i % PacmanEnv.ACTION_COUNT);
+        }
+        FloatBuffer observation = FloatBuffer.allocate(env.observationSize());
+        env.writeObservation(observation);
+        assertFalse(observation.hasRemaining());
+
+        Level level = env.getGameEngine().getGameState().getLevel();
+        int columns = env.getColumnCount();
+        int plane = env.getRowCount() * columns;
+        int[] creatures = new int[PacmanEnv.CHANNELS];
+        for (int r = 0; r < env.getRowCount(); r++) {
+            for (int c = 0; c < columns; c++) {
+                int cell = r * columns + c;
+                assertEquals(level.isWall(r, c) ? 1f : 0f, observation.get(PacmanEnv.CHANNEL_WALLS * plane + cell));
+                assertEquals(level.hasFoodAt(r, c) ? 1f : 0f, observation.get(PacmanEnv.CHANNEL_FOOD * plane + cell));
+                for (int channel = PacmanEnv.CHANNEL_FOOD + 1; channel < PacmanEnv.CHANNELS; channel++) {
+                    creatures[channel] += (int) observation.get(channel * plane + cell);
+                }
+            }
+        }
+        // One Pacman and one ghost of each colour on the classic map
+        for (int channel = PacmanEnv.CHANNEL_FOOD + 1; channel < PacmanEnv.CHANNELS; channel++) {
+            assertEquals(1, creatures[channel]);
+        }
+        assertEquals(2 + CreatureType.values().length, PacmanEnv.CHANNELS);
+    }
+
+    public void testSameSeedSameEpisode() {
+        float[] first = playEpisode(9L);
+        float[] second = playEpisode(9L);
+        assertTrue(java.util.Arrays.equals(first, second));
+    }
+
+    private static float[] playEpisode(long seed) {
+        PacmanEnv env = new PacmanEnv(LevelTemplate.CLASSIC, TILE_SIZE, 500, true);
+        env.reset(seed);
+        Random actions = new Random(2);
+        float reward = 0;
+        while (!env.isDone()) {
+            reward += env.step(actions.nextInt(PacmanEnv.ACTION_COUNT));
+        }
+        FloatBuffer observation = FloatBuffer.allocate(env.observationSize() + 1);
+        env.writeObservation(observation);
+        observation.put(reward);
+        return observation.array();
+    }
+
+    public void testVectorEnvMatchesSequentialEnvs() {
+        int envCount = 6;
+        long maxTicks = 150;
+        PacmanEnv[] expected = new PacmanEnv[envCount];
+        long[] episodes = new long[envCount];
+        for (int i = 0; i < envCount; i++) {
+            expected[i] = new PacmanEnv(LevelTemplate.CLASSIC, TILE_SIZE, maxTicks, true);
+            expected[i].reset(100L + i);
+        }
+
+        try (VectorEnv vectorEnv = new VectorEnv(LevelTemplate.CLASSIC, TILE_SIZE, maxTicks, true, envCount, 3)) {
+            vectorEnv.reset(100L);
+            Random input = new Random(4);
+            int[] actions = new int[envCount];
+            FloatBuffer observation = FloatBuffer.allocate(vectorEnv.getObservationSize());
+            int doneCount = 0;
+            for (int step = 0; step < 400; step++) {
+                for (int i = 0; i < envCount; i++) {
+                    actions[i] = input.nextInt(PacmanEnv.ACTION_COUNT);
+                }
+                vectorEnv.step(actions);
+
+                for (int i = 0; i < envCount; i++) {
+                    float reward = expected[i].step(actions[i]);
+                    boolean done = expected[i].isDone();
+                    if (done) {
+                        episodes[i]++;
+                        expected[i].reset(100L + i + episodes[i] * envCount);
+                        doneCount++;
+                    }
+                    assertEquals(reward, vectorEnv.getReward(i));
+                    assertEquals(done, vectorEnv.isDone(i));
+
+                    observation.clear();
+                    expected[i].writeObservation(observation);
+                    observation.flip();
+                    assertEquals(observation, vectorEnv.getObservation(i));
+                }
+            }
+            assertTrue("episodes should end and restart", doneCount >= envCount);
+        }
+    }
+
+    public void testStepAndObservationAllocateNothing() {
+        if (!AllocationCounter.isSupported()) {
+            return; // allocation counters not available on this JVM
+        }
+
+        PacmanEnv env = new PacmanEnv(LevelTemplate.CLASSIC, TILE_SIZE, Long.MAX_VALUE, true);
+        env.reset(1L);
+        env.getGameEngine().getGameState().setLives(Integer.MAX_VALUE);
+        FloatBuffer observation = FloatBuffer.allocate(env.observationSize());
+
+        // Warm up so class loading and lazy initialisation are out of the way
+        play(env, observation, 200_000);
+
+        long before = AllocationCounter.currentThreadAllocatedBytes();
+        play(env, observation, 100_000);
+        long allocated = AllocationCounter.currentThreadAllocatedBytes() - before;
+
+        assertFalse(env.isDone());
+        assertEquals("bytes allocated by 100k steps", 0, allocated);
+    }
+
+    private static void play(PacmanEnv env, FloatBuffer observation, int steps) {
+        for (int i = 0; i < steps; i++) {
+            env.step((i / 16) % PacmanEnv.ACTION_COUNT);
+            observation.clear();
+            env.writeObservation(observation);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.rl;
+
+import junit.framework.TestCase;
+import org.example.world.LevelTemplate;
+
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Unit test: an agent stepping a batch through the shared-memory channel sees exactly
+ * what an in-process VectorEnv produces, and bad requests are rejected without harm.
+ */
+public class SharedMemoryChannelTest extends TestCase {
+    private static final int ENVS = 3;
+    private static final long MAX_TICKS = 200;
+
+    public void testAgentSeesSameStateAsVectorEnv() throws Exception {
+        Path dir = Files.createTempDirectory("pacman-shm");
+        Path file = dir.resolve("channel");
+        try (SharedMemoryChannel channel = new SharedMemoryChannel(file, LevelTemplate.CLASSIC, 32, MAX_TICKS,
+            true, ENVS, 1);
+             VectorEnv expected = new VectorEnv(LevelTemplate.CLASSIC, 32, MAX_TICKS, true, ENVS, 1)) {
+            Thread server = new Thread(channel, "pacman-shm-server");
+            server.start();
+
+            SharedMemoryAgent agent = new SharedMemoryAgent(file);
+            assertEquals(ENVS, agent.getEnvCount());
+            assertEquals(expected.getObservationSize(), agent.getObservationSize());
+
+            try {
+                agent.step(new int[ENVS]);
+                fail("step before reset should be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            agent.reset(77L);
+            expected.reset(77L);
+            assertSameState(expected, agent);
+
+            Random input = new Random(8);
+            int[] actions = new int[ENVS];
+            for (int step = 0; step < 500; step++) {
+                for (int i = 0; i < ENVS; i++) {
+                    actions[i] = input.nextInt(PacmanEnv.ACTION_COUNT);
+                }
+                agent.step(actions);
+                expected.step(actions);
+                assertSameState(expected, agent);
+            }
+
+            actions[0] = PacmanEnv.ACTION_COUNT;
+            try {
+                agent.step(actions);
+                fail("an action out of range should be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            assertSameState(expected, agent);
+
+            agent.closeServer();
+            server.join(5000);
+            assertFalse(server.isAlive());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+
+    public void testFailedConstructorDeletesFile() throws Exception {
+        Path dir = Files.createTempDirectory("pacman-shm");
+        Path file = dir.resolve("channel");
+        try {
+            new SharedMemoryChannel(file, LevelTemplate.CLASSIC, 32, MAX_TICKS, true, ENVS, 0);
+            fail("parallelism 0 should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertFalse(Files.exists(file));
+        Files.delete(dir);
+    }
+
+    private static void assertSameState(VectorEnv expected, SharedMemoryAgent agent) {
+        for (int i = 0; i < ENVS; i++) {
+            FloatBuffer observation = agent.getObservation(i);
+            assertEquals(expected.getObservation(i), observation);
+            assertEquals(expected.getReward(i), agent.getReward(i));
+            assertEquals(expected.isDone(i), agent.isDone(i));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.server;
+
+import junit.framework.TestCase;
+import org.example.util.Direction;
+import org.example.world.LevelTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+/**
+ * Unit test: loopback clients each get their own game and a stream of frames.
+ */
+public class GameServerTest extends TestCase {
+    private static final int CLIENTS = 16;
+
+    public void testClientsGetIndependentGames() throws IOException, InterruptedException {
+        GameServer server = new GameServer(LevelTemplate.CLASSIC, 32, 2, 200);
+        InetSocketAddress address = server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        LoopbackClient[] clients = new LoopbackClient[CLIENTS];
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients[i] = new LoopbackClient(address);
+            }
+            // Half of the clients walk left, the others stay put
+            for (int i = 0; i < CLIENTS; i += 2) {
+                clients[i].sendTurn(Direction.LEFT);
+            }
+
+            for (int i = 0; i < CLIENTS; i++) {
+                StateFrame frame = clients[i].readFrame();
+                long firstTick = frame.getTick();
+                while (frame.getTick() < firstTick + 20) {
+                    frame = clients[i].readFrame();
+                }
+                assertEquals(3, frame.getLives());
+                assertEquals(5, frame.getCreatureCount());
+                if (i % 2 == 0) {
+                    assertTrue("client " + i + " should have moved", frame.getX(0) < 9 * 32);
+                } else {
+                    assertEquals(9 * 32, frame.getX(0));
+                }
+            }
+
+            assertEquals(CLIENTS, server.getSessionCount());
+            for (GameSession session : server.getSessions()) {
+                assertTrue(session.getMetrics().getTicks() > 0);
+                assertTrue(session.getMetrics().getFramesSent() > 0);
+            }
+        } finally {
+            for (LoopbackClient client : clients) {
+                if (client != null) {
+                    client.close();
+                }
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getSessionCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getSessionCount());
+        server.stop();
+    }
+}
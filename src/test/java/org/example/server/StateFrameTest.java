@@ -0,0 +1,76 @@
+package org.example.server;
+
+import junit.framework.TestCase;
+import org.example.entity.CreatureStore;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.GameState;
+import org.example.util.AllocationCounter;
+import org.example.world.LevelTemplate;
+import org.example.world.MazeGenerator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Unit test: frames round-trip for large generated mazes, and sessions reuse their frame buffers.
+ */
+public class StateFrameTest extends TestCase {
+    private static final int TILE_SIZE = 32;
+
+    public void testLargeMazeRoundTrips() {
+        // More than 255 creatures, on a board more than 32767 pixels wide
+        LevelTemplate maze = MazeGenerator.generate(31, 1100, 300, 5L);
+        GameEngine gameEngine = GameFactory.create(maze, TILE_SIZE, 5L);
+        GameState gameState = gameEngine.getGameState();
+        gameEngine.update();
+
+        ByteBuffer buffer = StateFrame.encode(42L, gameState, null);
+        int length = buffer.getInt();
+        assertEquals(buffer.remaining(), length);
+        StateFrame frame = StateFrame.decode(buffer);
+        assertFalse(buffer.hasRemaining());
+
+        CreatureStore ghosts = gameState.getGhostStore();
+        assertEquals(42L, frame.getTick());
+        assertEquals(301, frame.getCreatureCount());
+        assertEquals(gameState.getPacman().getX(), frame.getX(0));
+        assertEquals(gameState.getPacman().getY(), frame.getY(0));
+        int widest = 0;
+        for (int i = 0; i < ghosts.size(); i++) {
+            assertEquals(ghosts.getX(i), frame.getX(i + 1));
+            assertEquals(ghosts.getY(i), frame.getY(i + 1));
+            widest = Math.max(widest, ghosts.getX(i));
+        }
+        assertTrue(widest > Short.MAX_VALUE);
+    }
+
+    public void testEncodeReusesLargeEnoughBuffer() {
+        GameState gameState = GameFactory.create(LevelTemplate.CLASSIC, TILE_SIZE, 1L).getGameState();
+        ByteBuffer first = StateFrame.encode(1L, gameState, null);
+        assertSame(first, StateFrame.encode(2L, gameState, first));
+        assertEquals(2L, first.getLong(StateFrame.LENGTH_BYTES));
+
+        ByteBuffer small = ByteBuffer.allocate(8);
+        assertNotSame(small, StateFrame.encode(3L, gameState, small));
+    }
+
+    public void testSessionTickAllocatesNothing() {
+        if (!AllocationCounter.isSupported()) {
+            return; // allocation counters not available on this JVM
+        }
+
+        GameEngine gameEngine = GameFactory.create(LevelTemplate.CLASSIC, TILE_SIZE, 1L);
+        gameEngine.getGameState().setLives(Integer.MAX_VALUE);
+        // Never flushed, so every tick drops the frame before and reuses its buffer
+        GameSession session = new GameSession(1L, null, gameEngine);
+        for (int i = 0; i < 50_000; i++) {
+            session.tick();
+        }
+        long before = AllocationCounter.currentThreadAllocatedBytes();
+        for (int i = 0; i < 10_000; i++) {
+            session.tick();
+        }
+        assertEquals(0, AllocationCounter.currentThreadAllocatedBytes() - before);
+        assertEquals(59_999, session.getMetrics().getFramesDropped());
+    }
+}
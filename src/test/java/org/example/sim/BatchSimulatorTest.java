@@ -0,0 +1,26 @@
+package org.example.sim;
+
+import junit.framework.TestCase;
+import org.example.world.LevelTemplate;
+
+/**
+ * Unit test for BatchSimulator.
+ */
+public class BatchSimulatorTest extends TestCase {
+
+    /**
+     * Games are isolated and seeded, so the thread count must not change the outcome
+     */
+    public void testResultsDoNotDependOnParallelism() {
+        BatchStatistics serial = new BatchSimulator(LevelTemplate.CLASSIC, 32, 2_000,
+            PacmanPolicy.random(8), 1).run(16, 7);
+        BatchStatistics parallel = new BatchSimulator(LevelTemplate.CLASSIC, 32, 2_000,
+            PacmanPolicy.random(8), 4).run(16, 7);
+
+        assertEquals(16, parallel.getGames());
+        assertEquals(serial.getTotalTicks(), parallel.getTotalTicks());
+        assertEquals(serial.getTotalDeaths(), parallel.getTotalDeaths());
+        assertEquals(serial.getMeanScore(), parallel.getMeanScore());
+        assertEquals(serial.getClears(), parallel.getClears());
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.ui;
+
+import junit.framework.TestCase;
+import org.example.game.FrameSnapshot;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.GameState;
+import org.example.util.AllocationCounter;
+import org.example.world.LevelTemplate;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Unit test: the cached HUD draws the same pixels as drawString() did, and allocates nothing once warm.
+ */
+public class HudRendererTest extends TestCase {
+    private static final int TILE_SIZE = 32;
+    private static final int WIDTH = 19 * TILE_SIZE;
+    private static final int HEIGHT = 21 * TILE_SIZE;
+
+    private GameEngine gameEngine;
+    private HudRenderer hud;
+
+    @Override
+    protected void setUp() {
+        gameEngine = GameFactory.create(LevelTemplate.CLASSIC, TILE_SIZE, 1L);
+        hud = new HudRenderer(WIDTH, HEIGHT, TILE_SIZE);
+    }
+
+    public void testScoreLineMatchesDrawString() {
+        GameState gameState = gameEngine.getGameState();
+        gameState.setLives(2);
+        gameState.setScore(1234567890);
+        assertSamePixels(snapshot());
+        gameState.setScore(0);
+        assertSamePixels(snapshot());
+    }
+
+    public void testBannersMatchDrawString() {
+        GameState gameState = gameEngine.getGameState();
+        gameState.setScore(4560);
+        gameState.setPaused(true);
+        assertSamePixels(snapshot());
+        gameState.setPaused(false);
+        gameState.setGameOver(true);
+        assertSamePixels(snapshot());
+    }
+
+    public void testAntialiasedTextMatchesDrawString() {
+        GameState gameState = gameEngine.getGameState();
+        gameState.setScore(98760);
+        gameState.setPaused(true);
+        assertSamePixels(snapshot(), RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Switching back rebuilds the images without antialiasing
+        assertSamePixels(snapshot(), RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+    }
+
+    public void testDrawAllocatesNothing() {
+        if (!AllocationCounter.isSupported()) {
+            return; // allocation counters not available on this JVM
+        }
+
+        gameEngine.getGameState().setPaused(true);
+        FrameSnapshot frame = snapshot();
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                hud.draw(g, frame);
+            }
+            long before = AllocationCounter.currentThreadAllocatedBytes();
+            for (int i = 0; i < 1_000; i++) {
+                hud.draw(g, frame);
+            }
+            assertEquals(0, AllocationCounter.currentThreadAllocatedBytes() - before);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private FrameSnapshot snapshot() {
+        return FrameSnapshot.capture(gameEngine, 0, null);
+    }
+
+    private void assertSamePixels(FrameSnapshot frame) {
+        assertSamePixels(frame, RenderingHints.VALUE_TEXT_ANTIALIAS_DEFAULT);
+    }
+
+    private void assertSamePixels(FrameSnapshot frame, Object textAntialiasing) {
+        BufferedImage expected = render(frame, true, textAntialiasing);
+        BufferedImage actual = render(frame, false, textAntialiasing);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals("pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    private BufferedImage render(FrameSnapshot frame, boolean withDrawString, Object textAntialiasing) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, textAntialiasing);
+            g.setColor(Color.WHITE);
+            if (withDrawString) {
+                drawWithStrings(g, frame);
+            } else {
+                hud.draw(g, frame);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * The HUD as PacMan.drawUI() used to draw it
+     */
+    private static void drawWithStrings(Graphics g, FrameSnapshot frame) {
+        int midx = WIDTH / 2 - (3 * TILE_SIZE);
+        int midy = HEIGHT / 2 - TILE_SIZE;
+        int leftX = TILE_SIZE / 2;
+        int leftY = TILE_SIZE / 2;
+
+        g.setFont(new Font("Arial", Font.PLAIN, 18));
+        if (frame.isGameOver()) {
+            g.drawString("GAME OVER: " + frame.getScore(), leftX, leftY);
+            g.drawString("Press any key to RESTART ", midx, midy);
+        } else {
+            g.drawString("x" + frame.getLives() + " SCORE: " + frame.getScore(), leftX, leftY);
+        }
+        if (frame.isPaused()) {
+            g.setFont(new Font("Arial", Font.BOLD, 64));
+            g.drawString("    GAME IS PAUSED", midx, midy);
+        }
+    }
+}
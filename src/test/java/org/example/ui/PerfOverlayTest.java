@@ -0,0 +1,142 @@
+package org.example.ui;
+
+import junit.framework.TestCase;
+import org.example.game.FrameSnapshot;
+import org.example.game.GameEngine;
+import org.example.game.GameFactory;
+import org.example.game.SimulationThread;
+import org.example.util.AllocationCounter;
+import org.example.world.LevelTemplate;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Unit test: the overlay formats numbers into its char buffers correctly, reports both
+ * threads' allocation rates, and allocates nothing per frame while shown.
+ */
+public class PerfOverlayTest extends TestCase {
+    private static final int TILE_SIZE = 32;
+    private static final int WIDTH = 19 * TILE_SIZE;
+    private static final int HEIGHT = 21 * TILE_SIZE;
+    private static final int ALLOCATION_LINE = 4;
+    private static final long FRAME_NANOS = 50_000_000L;
+
+    private GameEngine gameEngine;
+    private SimulationThread simulation;
+    private FrameSnapshot[] frames;
+
+    @Override
+    protected void setUp() {
+        gameEngine = GameFactory.create(LevelTemplate.CLASSIC, TILE_SIZE, 1L);
+        simulation = new SimulationThread(gameEngine, 60, 5);
+        // Alternating ticks, so each frame adds a tick time
+        frames = new FrameSnapshot[]{
+            FrameSnapshot.capture(gameEngine, 1, null, 40_000),
+            FrameSnapshot.capture(gameEngine, 2, null, 60_000)
+        };
+    }
+
+    @Override
+    protected void tearDown() {
+        simulation.stop();
+    }
+
+    public void testAppendLong() {
+        assertEquals("0", formatLong(0));
+        assertEquals("42", formatLong(42));
+        assertEquals("-7", formatLong(-7));
+        assertEquals(Long.toString(Long.MAX_VALUE), formatLong(Long.MAX_VALUE));
+        assertEquals(Long.toString(Long.MIN_VALUE), formatLong(Long.MIN_VALUE));
+
+        // Appends after what is there, and leaves the buffer alone when the number does not fit
+        char[] chars = {'x', ' ', 0, 0};
+        assertEquals(4, PerfOverlay.appendLong(chars, 2, 12));
+        assertEquals("x 12", new String(chars));
+        assertEquals(2, PerfOverlay.appendLong(chars, 2, -12));
+        assertEquals("x 12", new String(chars));
+    }
+
+    public void testAppendFixed() {
+        assertEquals("123.4", formatFixed(1234, 1));
+        assertEquals("0.05", formatFixed(5, 2));
+        assertEquals("-0.5", formatFixed(-5, 1));
+        assertEquals("-12.30", formatFixed(-1230, 2));
+        assertEquals("7", formatFixed(7, 0));
+        assertEquals("-922337203685477580.8", formatFixed(Long.MIN_VALUE, 1));
+
+        char[] chars = new char[4];
+        assertEquals(0, PerfOverlay.appendFixed(chars, 0, 1234, 1));
+        assertEquals(4, PerfOverlay.appendFixed(chars, 0, 123, 1));
+        assertEquals("12.3", new String(chars));
+    }
+
+    public void testAllocationLineShowsRenderAndSimulationThreads() {
+        PerfOverlay overlay = new PerfOverlay(simulation);
+        overlay.toggle();
+        showFrames(overlay, 0, 10);
+        String stopped = overlay.lineText(ALLOCATION_LINE);
+        assertTrue(stopped, stopped.startsWith("alloc KB/s edt "));
+        if (AllocationCounter.isSupported()) {
+            assertTrue(stopped, stopped.endsWith("  sim n/a"));
+        }
+
+        simulation.start();
+        while (simulation.getLatestSnapshot().getTick() == 0) {
+            Thread.yield();
+        }
+        showFrames(overlay, 10, 10);
+        String running = overlay.lineText(ALLOCATION_LINE);
+        assertTrue(running, running.startsWith("alloc KB/s edt "));
+        assertTrue(running, running.contains("  sim "));
+        if (AllocationCounter.isSupported()) {
+            assertFalse(running, running.endsWith("n/a"));
+        }
+    }
+
+    public void testShownOverlayAllocatesNothing() {
+        if (!AllocationCounter.isSupported()) {
+            return; // allocation counters not available on this JVM
+        }
+
+        PerfOverlay overlay = new PerfOverlay(simulation);
+        overlay.toggle();
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            // Every fifth frame refreshes the text, so both paths are measured
+            drawFrames(overlay, g, 0, 20_000);
+            long before = AllocationCounter.currentThreadAllocatedBytes();
+            drawFrames(overlay, g, 20_000, 1_000);
+            assertEquals(0, AllocationCounter.currentThreadAllocatedBytes() - before);
+        } finally {
+            g.dispose();
+        }
+        assertTrue(overlay.lineText(0).startsWith("fps "));
+    }
+
+    private void showFrames(PerfOverlay overlay, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            overlay.frameShown(frames[i % 2], (i + 1) * FRAME_NANOS);
+        }
+    }
+
+    private void drawFrames(PerfOverlay overlay, Graphics g, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            overlay.frameShown(frames[i % 2], (i + 1) * FRAME_NANOS);
+            overlay.recordPaint(1_000);
+            overlay.recordHud(100);
+            overlay.draw(g, WIDTH);
+        }
+    }
+
+    private static String formatLong(long value) {
+        char[] chars = new char[32];
+        return new String(chars, 0, PerfOverlay.appendLong(chars, 0, value));
+    }
+
+    private static String formatFixed(long value, int decimals) {
+        char[] chars = new char[32];
+        return new String(chars, 0, PerfOverlay.appendFixed(chars, 0, value, decimals));
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.ui;
+
+import junit.framework.TestCase;
+import org.example.entity.CreatureType;
+import org.example.util.Direction;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Unit test: atlas sprites draw the same pixels as scaling each picture to the tile size.
+ * The pictures are 16x16; at fractional scales the old per-draw scaling depended on the
+ * position drawn at, so only whole multiples are compared.
+ */
+public class SpriteAtlasTest extends TestCase {
+
+    public void testAtlasIsSharedPerTileSizeAndDevice() {
+        SpriteAtlas atlas = SpriteAtlas.forTileSize(32, null);
+        assertSame(atlas, SpriteAtlas.forTileSize(32, null));
+        assertNotSame(atlas, SpriteAtlas.forTileSize(16, null));
+        assertEquals(16, SpriteAtlas.forTileSize(16, null).getTileSize());
+
+        GraphicsConfiguration config = deviceConfiguration();
+        SpriteAtlas onDevice = SpriteAtlas.forTileSize(32, config);
+        assertNotSame(atlas, onDevice);
+        assertSame(onDevice, SpriteAtlas.forTileSize(32, config));
+    }
+
+    public void testSpritesMatchScaledPicturesOnDevice() {
+        SpriteAtlas atlas = SpriteAtlas.forTileSize(32, deviceConfiguration());
+        assertSamePixels("/Pictures/pinkGhost.png", 32, (g, x, y) -> atlas.drawGhost(g, CreatureType.PINK_GHOST, x, y));
+    }
+
+    /**
+     * Configuration of an offscreen image, the one device there is when running headless
+     */
+    private static GraphicsConfiguration deviceConfiguration() {
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        try {
+            return g.getDeviceConfiguration();
+        } finally {
+            g.dispose();
+        }
+    }
+
+    public void testSpritesMatchScaledPictures() {
+        for (int tileSize : new int[]{16, 32, 48}) {
+            SpriteAtlas atlas = SpriteAtlas.forTileSize(tileSize, null);
+            assertSamePixels("/Pictures/wall.png", tileSize, (g, x, y) -> atlas.drawWall(g, x, y));
+            assertSamePixels("/Pictures/pacmanUp.png", tileSize, (g, x, y) -> atlas.drawPacman(g, Direction.UP, x, y));
+            assertSamePixels("/Pictures/pacmanLeft.png", tileSize, (g, x, y) -> atlas.drawPacman(g, Direction.LEFT, x, y));
+            assertSamePixels("/Pictures/redGhost.png", tileSize, (g, x, y) -> atlas.drawGhost(g, CreatureType.RED_GHOST, x, y));
+            assertSamePixels("/Pictures/orangeGhost.png", tileSize,
+                (g, x, y) -> atlas.drawGhost(g, CreatureType.ORANGE_GHOST, x, y));
+        }
+    }
+
+    private interface Sprite {
+        void draw(Graphics g, int x, int y);
+    }
+
+    private void assertSamePixels(String resource, int tileSize, Sprite sprite) {
+        Image picture = new ImageIcon(getClass().getResource(resource)).getImage();
+        BufferedImage expected = newBoard(tileSize);
+        BufferedImage actual = newBoard(tileSize);
+        Graphics expectedGraphics = expected.getGraphics();
+        Graphics actualGraphics = actual.getGraphics();
+        try {
+            expectedGraphics.drawImage(picture, 5, 7, tileSize, tileSize, null);
+            sprite.draw(actualGraphics, 5, 7);
+        } finally {
+            expectedGraphics.dispose();
+            actualGraphics.dispose();
+        }
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(resource + " at " + tileSize + " pixel " + x + "," + y,
+                    expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    private static BufferedImage newBoard(int tileSize) {
+        return new BufferedImage(tileSize + 10, tileSize + 14, BufferedImage.TYPE_INT_RGB);
+    }
+}
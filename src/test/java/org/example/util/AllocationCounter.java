@@ -0,0 +1,39 @@
+package org.example.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Test helper: AllocationCounter
+ * Bytes allocated by the calling thread, for tests that check a hot path allocates nothing.
+ * Not every JVM counts allocations; such tests skip their check when isSupported() is false.
+ */
+public final class AllocationCounter {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private AllocationCounter() {
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        return threadBean.isThreadAllocatedMemorySupported() ? threadBean : null;
+    }
+
+    /**
+     * Whether this JVM counts the bytes each thread allocates
+     */
+    public static boolean isSupported() {
+        return THREADS != null && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+}
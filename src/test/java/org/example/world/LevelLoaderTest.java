@@ -0,0 +1,106 @@
+package org.example.world;
+
+import junit.framework.TestCase;
+import org.example.entity.CreatureType;
+import org.example.util.Direction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit test: level files parse into compiled levels, which are cached by content.
+ */
+public class LevelLoaderTest extends TestCase {
+
+    public void testSameMazeIsCompiledOnce() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int r = 0; r < LevelTemplate.CLASSIC.getRowCount(); r++) {
+            text.append(LevelTemplate.CLASSIC.getRow(r)).append("\r\n");
+        }
+        text.append("\r\n");
+        Path file = Files.createTempFile("classic", ".txt");
+        try {
+            Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+            LevelTemplate loaded = LevelLoader.load(file);
+            assertSame(LevelTemplate.CLASSIC.getCompiled(), loaded.getCompiled());
+            assertSame(LevelTemplate.CLASSIC.getCompiled(), new LevelTemplate(text.toString().split("\r\n")).getCompiled());
+        } finally {
+            Files.delete(file);
+        }
+
+        // Levels of one maze share their tiles
+        Level first = LevelTemplate.CLASSIC.createLevel(32);
+        Level second = LevelTemplate.CLASSIC.createLevel(32);
+        assertSame(first.getWalls(), second.getWalls());
+        assertSame(first.getTile(0, 0), second.getTile(0, 0));
+        assertNotSame(first.getWalls(), LevelTemplate.CLASSIC.createLevel(16).getWalls());
+    }
+
+    public void testCompileUncachedBypassesCache() {
+        String[] tileMap = {
+            "XXXXX",
+            "XP rX",
+            "XXXXX"
+        };
+        CompiledLevel uncached = CompiledLevel.compileUncached(tileMap);
+        CompiledLevel cached = CompiledLevel.compile(tileMap);
+        assertNotSame(uncached, cached);
+        assertEquals(uncached.getContentHash(), cached.getContentHash());
+        assertSame(cached, CompiledLevel.compile(tileMap));
+        assertNotSame(cached, CompiledLevel.compileUncached(tileMap));
+    }
+
+    public void testCompiledTables() {
+        CompiledLevel compiled = LevelLoader.parse(ByteBuffer.wrap((
+            "XXXXXXX\n" +
+            "OO P  O\n" +
+            "OOOXrXX\n" +
+            "XXXXXXX\n").getBytes(StandardCharsets.US_ASCII))).getCompiled();
+
+        assertEquals(4, compiled.getRowCount());
+        assertEquals(7, compiled.getColumnCount());
+        assertEquals(3, compiled.getFoodCount());
+        assertTrue(compiled.isFoodSpawn(1, 2));
+        assertFalse(compiled.isFoodSpawn(1, 3));
+
+        assertEquals(2, compiled.getSpawnCount());
+        assertEquals(CreatureType.PACMAN, compiled.getSpawnType(0));
+        assertEquals(1, compiled.getSpawnRow(0));
+        assertEquals(3, compiled.getSpawnColumn(0));
+        assertEquals(CreatureType.RED_GHOST, compiled.getSpawnType(1));
+
+        // Both ends of row 1 lead off the board; row 2's O cells are walled in
+        assertTrue(compiled.isTunnelRow(1));
+        assertTrue(compiled.isTunnel(1, 0));
+        assertTrue(compiled.isTunnel(1, 1));
+        assertTrue(compiled.isTunnel(1, 6));
+        assertFalse(compiled.isTunnel(1, 2));
+        assertFalse(compiled.isTunnelRow(2));
+
+        int pacman = 7 + 3;
+        assertEquals(pacman + 1, compiled.getNeighbor(pacman, Direction.RIGHT));
+        assertEquals(pacman - 1, compiled.getNeighbor(pacman, Direction.LEFT));
+        assertEquals(CompiledLevel.NONE, compiled.getNeighbor(pacman, Direction.DOWN));
+        assertEquals(CompiledLevel.NONE, compiled.getNeighbor(pacman, Direction.UP));
+        assertEquals(CompiledLevel.NONE, compiled.getNeighbor(7, Direction.LEFT));
+    }
+
+    public void testBadMapsAreRejected() {
+        assertRejected("XXX\nX?X\nXXX\n");
+        assertRejected("XXX\nXX\nXXX\n");
+        assertRejected("XXX\n\nXXX\n");
+        assertRejected("XPX\nXPX\n");
+        assertRejected("\n\n");
+    }
+
+    private static void assertRejected(String map) {
+        try {
+            LevelLoader.parse(ByteBuffer.wrap(map.getBytes(StandardCharsets.US_ASCII)));
+            fail("should reject " + map);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.world;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for Level food tracking.
+ */
+public class LevelTest extends TestCase {
+
+    public void testFoodBitsFollowTheMap() {
+        Level level = LevelTemplate.CLASSIC.createLevel(32);
+
+        int seen = 0;
+        for (int cell = level.nextFood(0); cell >= 0; cell = level.nextFood(cell + 1)) {
+            int row = cell / level.getColumnCount();
+            int col = cell % level.getColumnCount();
+            assertEquals(TileType.FOOD, level.getTile(row, col).getType());
+            seen++;
+        }
+        assertEquals(level.getFoodCount(), seen);
+        assertTrue(seen > 0);
+    }
+
+    public void testEatAndRestore() {
+        Level level = LevelTemplate.CLASSIC.createLevel(32);
+        int total = level.getFoodCount();
+
+        assertTrue(level.hasFoodAt(1, 1));
+        assertTrue(level.removeFood(1, 1));
+        assertFalse(level.removeFood(1, 1));
+        assertFalse(level.removeFood(0, 0));
+        assertEquals(total - 1, level.getFoodCount());
+        assertTrue(level.nextFood(0) != level.getColumnCount() + 1);
+
+        level.restoreFood();
+        assertEquals(total, level.getFoodCount());
+        assertTrue(level.hasFoodAt(1, 1));
+    }
+}
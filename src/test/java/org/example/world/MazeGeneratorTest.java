@@ -0,0 +1,138 @@
+package org.example.world;
+
+import junit.framework.TestCase;
+import org.example.entity.CreatureType;
+import org.example.util.Direction;
+
+/**
+ * Unit test: generated mazes are reproducible, symmetric, connected, free of dead ends and playable.
+ */
+public class MazeGeneratorTest extends TestCase {
+
+    public void testSameSeedSameMaze() {
+        CompiledLevel first = MazeGenerator.generate(63, 80, 4, 7L).getCompiled();
+        CompiledLevel second = MazeGenerator.generate(63, 80, 4, 7L).getCompiled();
+        CompiledLevel other = MazeGenerator.generate(63, 80, 4, 8L).getCompiled();
+        assertEquals(first.getContentHash(), second.getContentHash());
+        assertNotSame(first, second);
+        assertTrue(first.getContentHash() != other.getContentHash());
+    }
+
+    public void testMazesAreSymmetricConnectedAndFreeOfDeadEnds() {
+        int[][] sizes = {{15, 15}, {21, 19}, {64, 64}, {101, 256}, {256, 101}};
+        for (int[] size : sizes) {
+            CompiledLevel maze = MazeGenerator.generate(size[0], size[1], 4, size[0] * 31L + size[1]).getCompiled();
+            assertEquals(size[0], maze.getRowCount());
+            assertEquals(size[1], maze.getColumnCount());
+            assertSymmetric(maze);
+            assertConnected(maze);
+            assertNoDeadEnds(maze);
+            assertTrue(maze.getFoodCount() > 0);
+        }
+    }
+
+    public void testTunnelsHouseAndSpawns() {
+        CompiledLevel maze = MazeGenerator.generate(129, 129, 30, 3L).getCompiled();
+
+        int tunnelRows = 0;
+        for (int r = 0; r < maze.getRowCount(); r++) {
+            if (maze.isTunnelRow(r)) {
+                tunnelRows++;
+                assertTrue(maze.isTunnel(r, 0));
+                assertTrue(maze.isTunnel(r, maze.getColumnCount() - 1));
+            }
+        }
+        assertTrue(tunnelRows > 0);
+
+        assertEquals(31, maze.getSpawnCount());
+        assertEquals(CreatureType.PACMAN, maze.getSpawnType(0));
+        int[] ghostsByType = new int[CreatureType.values().length];
+        int inHouse = 0;
+        int middle = maze.getRowCount() / 2;
+        for (int s = 1; s < maze.getSpawnCount(); s++) {
+            ghostsByType[maze.getSpawnType(s).ordinal()]++;
+            if (Math.abs(maze.getSpawnRow(s) - middle) <= 1) {
+                inHouse++;
+            }
+        }
+        assertEquals(0, ghostsByType[CreatureType.PACMAN.ordinal()]);
+        assertTrue(ghostsByType[CreatureType.RED_GHOST.ordinal()] >= 7);
+        assertTrue(ghostsByType[CreatureType.ORANGE_GHOST.ordinal()] >= 7);
+        // The house in the middle of the board fills first, the rest spread over the maze
+        assertTrue(inHouse >= 21);
+
+        // Levels and creatures come straight from the compiled maze
+        LevelTemplate template = new LevelTemplate(maze);
+        assertEquals(31, template.createCreatures(16).size());
+        assertEquals(maze.getFoodCount(), template.createLevel(16).getFoodCount());
+    }
+
+    public void testBadArgumentsAreRejected() {
+        assertRejected(14, 64, 4);
+        assertRejected(64, 10, 4);
+        assertRejected(64, 64, -1);
+        assertRejected(16, 16, 17);
+    }
+
+    private static void assertRejected(int rows, int columns, int ghosts) {
+        try {
+            MazeGenerator.generate(rows, columns, ghosts, 1L);
+            fail("should reject " + rows + "x" + columns + " with " + ghosts + " ghosts");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static void assertSymmetric(CompiledLevel maze) {
+        int columns = maze.getColumnCount();
+        for (int r = 0; r < maze.getRowCount(); r++) {
+            for (int c = 0; c < columns / 2; c++) {
+                assertEquals("cell " + r + "," + c, maze.isWall(r, c), maze.isWall(r, columns - 1 - c));
+            }
+        }
+    }
+
+    /**
+     * Every open cell outside the tunnels has at least two ways out
+     */
+    private static void assertNoDeadEnds(CompiledLevel maze) {
+        int columns = maze.getColumnCount();
+        for (int r = 0; r < maze.getRowCount(); r++) {
+            for (int c = 0; c < columns; c++) {
+                if (!maze.isWall(r, c) && !maze.isTunnel(r, c)) {
+                    assertTrue("dead end at " + r + "," + c, maze.getExitCount(r * columns + c) >= 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Every open cell can be reached from Pacman's spawn
+     */
+    private static void assertConnected(CompiledLevel maze) {
+        int columns = maze.getColumnCount();
+        int cellCount = maze.getRowCount() * columns;
+        boolean[] seen = new boolean[cellCount];
+        int[] queue = new int[cellCount];
+        int head = 0;
+        int tail = 0;
+        int start = maze.getSpawnRow(0) * columns + maze.getSpawnColumn(0);
+        seen[start] = true;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            for (Direction direction : Direction.values()) {
+                int next = maze.getNeighbor(cell, direction);
+                if (next != CompiledLevel.NONE && !seen[next]) {
+                    seen[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (!maze.isWall(cell / columns, cell % columns)) {
+                assertTrue("unreachable cell " + cell / columns + "," + cell % columns, seen[cell]);
+            }
+        }
+    }
+}